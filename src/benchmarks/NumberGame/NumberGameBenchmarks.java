@@ -0,0 +1,35 @@
+package NumberGame;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the NumberGame JMH benchmarks with the GC profiler.
+ * <p>
+ * Usage: {@code NumberGameBenchmarks [regex]}, where the optional regex selects benchmarks by name.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class NumberGameBenchmarks
+{
+    private static final int INCLUDE_ARGUMENT = 0;
+    private static final String ALL_BENCHMARKS = "NumberGame\\.PlacementSolverBenchmark";
+
+    private NumberGameBenchmarks()
+    {
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(args.length > INCLUDE_ARGUMENT ? args[INCLUDE_ARGUMENT] : ALL_BENCHMARKS)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,73 @@
+package NumberGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the hint solver takes to rank the slots of a large, partly filled grid with the
+ * game's own budget of {@link PlacementSolver#DEFAULT_BUDGET_NANOS}. Every call is timed, so the
+ * percentiles show how far past the budget a search runs while it finishes the playouts in progress.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementSolverBenchmark
+{
+    private static final long SEED = 3L;
+    private static final int PLACEMENTS = 2_000;
+
+    /**
+     * The largest grid the game allows, filled the way a player choosing random valid slots would leave it.
+     */
+    @State(Scope.Benchmark)
+    public static class LargeGrid
+    {
+        private NumberPlacementGameHandler handler;
+        private PlacementSolver solver;
+
+        @Setup
+        public void fill()
+        {
+            final Random random = new Random(SEED);
+
+            handler = new NumberPlacementGameHandler(GameEventHandler.MAX_GRID_SIZE);
+            handler.startGame();
+            for(int placed = 0; placed < PLACEMENTS && !handler.checkGameOver(); placed++)
+            {
+                int position;
+                do
+                {
+                    position = random.nextInt(handler.gridSize());
+                } while(!handler.isValidPosition(position));
+
+                handler.placeNumberOnGrid(position);
+                handler.generateNextNumber();
+            }
+
+            solver = new PlacementSolver(handler.randomNumberUpperBound(), PlacementSolver.DEFAULT_BUDGET_NANOS);
+        }
+    }
+
+    @Benchmark
+    public List<PlacementHint> hintsForALargeGrid(final LargeGrid grid)
+    {
+        return grid.solver.hints(grid.handler.grid, grid.handler.currentNumber);
+    }
+}
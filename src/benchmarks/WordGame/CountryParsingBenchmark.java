@@ -0,0 +1,139 @@
+package WordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures parsing country facts: the largest real facts file, a generated file with many countries,
+ * and loading the whole facts directory into a {@link World} the way the game does at start-up.
+ * The single-file benchmarks parse text already in memory, so they measure the parser rather than the disk.
+ * <p>
+ * The facts directory is read from the {@code wordgame.facts} system property, {@code src/CountryFacts} by default.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountryParsingBenchmark
+{
+    private static final String FACTS_DIRECTORY_PROPERTY = "wordgame.facts";
+    private static final String DEFAULT_FACTS_DIRECTORY = "src/CountryFacts";
+    private static final String SOURCE_FILE_EXTENSION = ".txt";
+    private static final int FACTS_PER_COUNTRY = 3;
+
+    /**
+     * The real facts directory and the text of its largest file.
+     */
+    @State(Scope.Benchmark)
+    public static class RealisticFacts
+    {
+        private Path directory;
+        private Path largestFile;
+        private String largestFileText;
+
+        @Setup
+        public void load() throws IOException
+        {
+            directory = factsDirectory();
+
+            try(Stream<Path> files = Files.list(directory))
+            {
+                largestFile = files.filter(file -> file.toString().endsWith(SOURCE_FILE_EXTENSION))
+                        .max(Comparator.comparingLong(CountryParsingBenchmark::sizeOf))
+                        .orElseThrow(() -> new IOException("No facts files in " + directory));
+            }
+            largestFileText = Files.readString(largestFile);
+        }
+    }
+
+    /**
+     * A generated facts file with the given number of countries.
+     */
+    @State(Scope.Benchmark)
+    public static class SyntheticFacts
+    {
+        @Param({"1000", "100000"})
+        public int countries;
+
+        private Path file;
+        private String text;
+
+        @Setup
+        public void generate()
+        {
+            final StringBuilder builder = new StringBuilder();
+
+            for(int country = 0; country < countries; country++)
+            {
+                builder.append("Country").append(country).append(":Capital").append(country).append('\n');
+                for(int fact = 0; fact < FACTS_PER_COUNTRY; fact++)
+                {
+                    builder.append("Fact ").append(fact).append(" about country ").append(country)
+                            .append(", long enough to look like a real sentence.\n");
+                }
+                builder.append('\n');
+            }
+
+            file = Paths.get("synthetic" + SOURCE_FILE_EXTENSION);
+            text = builder.toString();
+        }
+    }
+
+    @Benchmark
+    public List<Country> parseLargestRealFile(final RealisticFacts facts)
+    {
+        return CountryFileParser.parse(facts.largestFileText, facts.largestFile);
+    }
+
+    @Benchmark
+    public List<Country> parseSyntheticFile(final SyntheticFacts facts)
+    {
+        return CountryFileParser.parse(facts.text, facts.file);
+    }
+
+    @Benchmark
+    public World parseFactsDirectory(final RealisticFacts facts)
+    {
+        final World world = new World();
+        world.parseCountriesFromDirectory(facts.directory);
+        return world;
+    }
+
+    static Path factsDirectory()
+    {
+        return Paths.get(System.getProperty(FACTS_DIRECTORY_PROPERTY, DEFAULT_FACTS_DIRECTORY));
+    }
+
+    private static long sizeOf(final Path file)
+    {
+        try
+        {
+            return Files.size(file);
+        } catch(final IOException e)
+        {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package WordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures question generation: dealing one question from a {@link QuestionDeck}, and playing a whole
+ * scripted one-game session, which deals, formats and checks ten questions and records the score.
+ * Every scripted answer is wrong, so each question goes through the answer matcher twice.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionBenchmark
+{
+    private static final long SEED = 2522L;
+    private static final int GAMES_PER_SESSION = 1;
+
+    /**
+     * The real countries, a deck over them, and a score log that is not forced to disk.
+     */
+    @State(Scope.Benchmark)
+    public static class Game
+    {
+        private World world;
+        private QuestionDeck deck;
+        private List<String> script;
+        private Path scoreFile;
+        private ScoreWriter scoreWriter;
+        private long sessions;
+
+        @Setup
+        public void load() throws IOException
+        {
+            world = new World();
+            world.parseCountriesFromDirectory(CountryParsingBenchmark.factsDirectory());
+            deck = new QuestionDeck(world.getCatalog(), SEED);
+            script = WordGameDriver.sessionScript(GAMES_PER_SESSION);
+            scoreFile = Files.createTempFile("benchmark-scores", ".txt");
+            scoreWriter = new ScoreWriter(scoreFile, false);
+        }
+
+        @TearDown
+        public void delete() throws IOException
+        {
+            final Path logFile = ScoreLog.defaultLocation(scoreFile);
+
+            scoreWriter.close();
+            Files.deleteIfExists(scoreFile);
+            Files.deleteIfExists(logFile);
+            Files.deleteIfExists(ScoreSummary.defaultLocation(logFile));
+            Files.deleteIfExists(ScoreSketch.defaultLocation(logFile));
+            Files.deleteIfExists(ResponseTimesFile.defaultLocation(logFile));
+        }
+    }
+
+    @Benchmark
+    public long dealQuestion(final Game game)
+    {
+        return game.deck.deal();
+    }
+
+    @Benchmark
+    public void playSession(final Game game)
+    {
+        final GameIO io = new ScriptedGameIO(game.script, text -> { });
+        new WordGame(game.world, io, SEED + game.sessions++, game.scoreWriter).playGame();
+    }
+}
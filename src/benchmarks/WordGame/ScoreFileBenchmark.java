@@ -0,0 +1,178 @@
+package WordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the score history paths: reading every score from a legacy text file, formatting one
+ * score for that file, and reading the same history from the binary {@link ScoreLog} it migrates to.
+ * The legacy file is also read with the split-based parser that {@link LegacyScoreParser} replaced,
+ * as a baseline. Score files are generated with a typical kiosk's history and with a very long one.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreFileBenchmark
+{
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0, 0);
+    private static final long SEED = 2522L;
+    private static final int MAX_GAMES = 5;
+    private static final int QUESTIONS = WordGame.QUESTION_COUNT;
+
+    /**
+     * A legacy score file and its migrated log, holding the given number of scores.
+     */
+    @State(Scope.Benchmark)
+    public static class ScoreHistory
+    {
+        @Param({"100", "100000"})
+        public int entries;
+
+        private Path legacyFile;
+        private ScoreLog log;
+        private Score sample;
+
+        @Setup
+        public void generate() throws IOException
+        {
+            final Random random = new Random(SEED);
+
+            legacyFile = Files.createTempFile("benchmark-scores", ".txt");
+            try(BufferedWriter writer = Files.newBufferedWriter(legacyFile))
+            {
+                for(int entry = 0; entry < entries; entry++)
+                {
+                    sample = randomScore(random, entry);
+                    writer.write(sample.formatForFile());
+                }
+            }
+
+            log = ScoreLog.openMigrating(legacyFile);
+        }
+
+        @TearDown
+        public void delete() throws IOException
+        {
+            final Path logFile = ScoreLog.defaultLocation(legacyFile);
+
+            log.close();
+            Files.deleteIfExists(legacyFile);
+            Files.deleteIfExists(logFile);
+            Files.deleteIfExists(ScoreSummary.defaultLocation(logFile));
+            Files.deleteIfExists(ScoreSketch.defaultLocation(logFile));
+            Files.deleteIfExists(ResponseTimesFile.defaultLocation(logFile));
+        }
+    }
+
+    @Benchmark
+    public List<Score> readScoresFromFile(final ScoreHistory history)
+    {
+        return Score.readScoresFromFile(history.legacyFile.toString());
+    }
+
+    @Benchmark
+    public List<Score> readScoresWithSplitParser(final ScoreHistory history) throws IOException
+    {
+        return SplitParser.read(history.legacyFile);
+    }
+
+    @Benchmark
+    public String formatForFile(final ScoreHistory history)
+    {
+        return history.sample.formatForFile();
+    }
+
+    @Benchmark
+    public List<Score> readAllFromLog(final ScoreHistory history) throws IOException
+    {
+        return history.log.readAll();
+    }
+
+    private static Score randomScore(final Random random, final int entry)
+    {
+        final int games = 1 + random.nextInt(MAX_GAMES);
+        final int questions = games * QUESTIONS;
+        final int firstAttempt = random.nextInt(questions + 1);
+        final int secondAttempt = random.nextInt(questions - firstAttempt + 1);
+
+        return new Score(START.plusMinutes(entry), games, firstAttempt, secondAttempt,
+                questions - firstAttempt - secondAttempt);
+    }
+
+    /**
+     * The parser {@link LegacyScoreParser} replaced: the whole file is read into lines, entries are
+     * split on blank lines and each field is split on ": " with a new formatter per entry.
+     */
+    private static final class SplitParser
+    {
+        private static final int FIELD_LINES = 7;
+
+        static List<Score> read(final Path file) throws IOException
+        {
+            final List<Score> scores = new ArrayList<>();
+            final StringBuilder scoreData = new StringBuilder();
+
+            for(final String line : Files.readAllLines(file))
+            {
+                scoreData.append(line).append("\n");
+
+                if(line.isEmpty())
+                {
+                    scores.add(parseEntry(scoreData.toString()));
+                    scoreData.setLength(0);
+                }
+            }
+
+            return scores;
+        }
+
+        private static Score parseEntry(final String scoreString)
+        {
+            final String[] lines = scoreString.split("\n");
+
+            if(lines.length < FIELD_LINES)
+            {
+                return null;
+            }
+
+            try
+            {
+                final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+                return new Score(LocalDateTime.parse(lines[0].split(": ", 2)[1], formatter),
+                        Integer.parseInt(lines[1].split(": ", 2)[1]),
+                        Integer.parseInt(lines[2].split(": ", 2)[1]),
+                        Integer.parseInt(lines[3].split(": ", 2)[1]),
+                        Integer.parseInt(lines[4].split(": ", 2)[1]));
+            } catch(final RuntimeException e)
+            {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package WordGame;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the WordGame JMH benchmarks with the GC profiler, so each result is reported both as
+ * operations per second and as bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Usage: {@code WordGameBenchmarks [regex]}, where the optional regex selects benchmarks by name,
+ * for example {@code ScoreFileBenchmark.readScoresFromFile}. Run it from the project root, or pass
+ * {@code -Dwordgame.facts=<directory>}, so the facts directory can be found.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class WordGameBenchmarks
+{
+    private static final int INCLUDE_ARGUMENT = 0;
+    private static final String ALL_BENCHMARKS = "WordGame\\.(CountryParsing|ScoreFile|Question)Benchmark";
+
+    private WordGameBenchmarks()
+    {
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(args.length > INCLUDE_ARGUMENT ? args[INCLUDE_ARGUMENT] : ALL_BENCHMARKS)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dwordgame.facts=" + CountryParsingBenchmark.factsDirectory().toAbsolutePath())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -1,8 +1,12 @@
 import WordGame.WordGame;
 import WordGame.World;
+import WordGame.WorldRegistry;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.Scanner;
 
 /**
@@ -14,6 +18,7 @@ public class Menu
 {
 
     public static final Path FACTS_DIRECTORY_PATH = Paths.get("src", "CountryFacts");
+    private static final WorldRegistry WORLDS = new WorldRegistry(FACTS_DIRECTORY_PATH);
     static final String TYPING_GAME_ARGUMENT_STRING = "typinggame";
     static final String NUMBER_GAME_ARGUMENT_STRING = "numbergame";
 
@@ -74,11 +79,48 @@ public class Menu
 
     private static void startWordGame()
     {
-        final World world = new World();
-        world.loadCountriesFromDirectory(FACTS_DIRECTORY_PATH);
+        final Locale locale = Locale.getDefault();
+        final World world = WORLDS.get(locale);
 
         final WordGame wordGame = new WordGame(world);
-        wordGame.playGame();
+        final Closeable watcher = startWatching(world, WORLDS.directoryFor(locale));
+
+        try
+        {
+            wordGame.playGame();
+        } finally
+        {
+            if(watcher != null)
+            {
+                try
+                {
+                    watcher.close();
+                } catch(final IOException e)
+                {
+                    System.err.println("Error closing the facts directory watcher: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts reloading the facts directory as it changes. Hot reload is a convenience, so if the
+     * directory cannot be watched the game is played without it.
+     *
+     * @param world     the world to reload
+     * @param directory the facts directory
+     * @return a handle that stops the watcher, or null if watching could not start
+     */
+    private static Closeable startWatching(final World world, final Path directory)
+    {
+        try
+        {
+            return world.watchForChanges(directory);
+        } catch(final IOException | UnsupportedOperationException e)
+        {
+            System.err.println("Error watching the facts directory, changes will not be reloaded: " + e.getMessage());
+            return null;
+        }
     }
 
 
@@ -1,38 +1,61 @@
 package NumberGame;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
  * Abstract class to handle the game logic for the Number Game.
- * It manages the grid, current number, successful placements, and valid positions on the grid.
+ * It manages the grid, current number, successful placements, and an index of the placed numbers
+ * that decides which positions on the grid are valid.
  * This class also interfaces with the stats handler to track wins, losses, and placements.
+ * <p>
+ * The grid holds from {@value MIN_GRID_SIZE} to {@value MAX_GRID_SIZE} cells. Numbers are drawn from a
+ * range that grows with the grid, so a large grid is no more crowded with equal numbers than the
+ * default one.
  *
  * @author Ben Henry
- * @version 1.0
+ * @version 1.2
  */
 abstract class GameEventHandler
 {
 
 
     private static final int RANDOM_NUMBER_UPPER_BOUND = 1000;
+    private static final int RANDOM_NUMBERS_PER_CELL = 50;
     private static final int RANDOM_PLUS_ONE_SHIFT = 1;
     public static final int INITIAL_SUCCESSFUL_PLACEMENTS = 0;
 
+    static final int MIN_GRID_SIZE = 20;
+    static final int MAX_GRID_SIZE = 10_000;
+    static final int DEFAULT_GRID_SIZE = MIN_GRID_SIZE;
+
     final int[] grid;
-    final List<Integer> validPositions;
+    final PlacementIndex placements;
     final Random random;
     final NumberGameStatsHandler stats;
+    private final int randomNumberUpperBound;
 
     int currentNumber;
     int successfulPlacements;
 
+    /**
+     * Creates a handler for a grid of the given size.
+     *
+     * @param gridSize The number of cells on the grid.
+     * @throws IllegalArgumentException if the size is outside {@value MIN_GRID_SIZE} to {@value MAX_GRID_SIZE}.
+     */
+    GameEventHandler(final int gridSize)
     {
-        grid = new int[NumberGame.BUTTON_COUNT];
-        validPositions = new ArrayList<>();
+        if(gridSize < MIN_GRID_SIZE || gridSize > MAX_GRID_SIZE)
+        {
+            throw new IllegalArgumentException("Grid size must be between " + MIN_GRID_SIZE + " and " +
+                    MAX_GRID_SIZE + ": " + gridSize);
+        }
+
+        grid = new int[gridSize];
+        placements = new PlacementIndex(gridSize);
         random = new Random();
         stats = new NumberGameStatsHandler();
+        randomNumberUpperBound = Math.max(RANDOM_NUMBER_UPPER_BOUND, gridSize * RANDOM_NUMBERS_PER_CELL);
 
         successfulPlacements = INITIAL_SUCCESSFUL_PLACEMENTS;
     }
@@ -64,6 +87,14 @@ abstract class GameEventHandler
      */
     abstract void checkAvailablePlacements();
 
+    /**
+     * Checks whether the current number may be placed at a position.
+     *
+     * @param position The position on the grid.
+     * @return True if placing the current number there keeps the grid in order, false otherwise.
+     */
+    abstract boolean isValidPosition(final int position);
+
     /**
      * Checks if the game is over, typically when there are no valid placements left.
      *
@@ -77,13 +108,33 @@ abstract class GameEventHandler
      */
     abstract void resetGame();
 
+    /**
+     * Returns the number of cells on the grid.
+     *
+     * @return The grid size.
+     */
+    int gridSize()
+    {
+        return grid.length;
+    }
+
+    /**
+     * Returns the largest number {@link #generateRandomNumber()} can produce.
+     *
+     * @return The inclusive upper bound of the random numbers.
+     */
+    int randomNumberUpperBound()
+    {
+        return randomNumberUpperBound;
+    }
+
     /**
      * Generates a random number between 1 and the upper bound (inclusive).
      * The number generated is assigned to the currentNumber field.
      */
     void generateRandomNumber()
     {
-        currentNumber = random.nextInt(RANDOM_NUMBER_UPPER_BOUND) + RANDOM_PLUS_ONE_SHIFT;
+        currentNumber = random.nextInt(randomNumberUpperBound) + RANDOM_PLUS_ONE_SHIFT;
     }
 
     /**
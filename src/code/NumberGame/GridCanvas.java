@@ -0,0 +1,209 @@
+package NumberGame;
+
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Draws the number grid on a single {@link Canvas} the size of the window, with a scroll bar for
+ * grids taller than the window.
+ * <p>
+ * There is no node per cell. A full repaint, after a scroll, a resize or a new game, draws only the
+ * cells the {@link GridViewport} reports as visible. A placed number marks its cell dirty, and the
+ * next layout pulse redraws just the dirty cells that are on screen, so several changes in one frame
+ * cost one pass. Memory and frame time therefore depend on the window, not on the size of the grid.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class GridCanvas extends Region
+{
+    private static final Color BACKGROUND_COLOR = Color.WHITESMOKE;
+    private static final Color EMPTY_CELL_COLOR = Color.LIGHTGRAY;
+    private static final Color FILLED_CELL_COLOR = Color.LIGHTSTEELBLUE;
+    private static final Color HIGHLIGHTED_CELL_COLOR = Color.PALEGREEN;
+    private static final Color TEXT_COLOR = Color.BLACK;
+    private static final double CELL_ARC = 8;
+    private static final double FONT_SIZE_PER_CELL_SIZE = 0.3;
+    private static final double SCROLL_UNITS_PER_CELL = 1;
+
+    private final int[] grid;
+    private final GridViewport viewport;
+    private final Canvas canvas;
+    private final ScrollBar scrollBar;
+    private final BitSet dirty;
+    private final Font font;
+
+    private boolean fullRepaintPending;
+    private int highlightedCell;
+
+    /**
+     * Creates a renderer for a grid.
+     *
+     * @param grid          the numbers on the grid, where
+     *                      {@value NumberPlacementGameHandler#DEFAULT_GRID_FILL} is an empty cell
+     * @param cellSize      the width and height of a cell
+     * @param gap           the space between neighbouring cells
+     * @param onCellClicked called with the index of a cell the player clicks
+     */
+    GridCanvas(final int[] grid, final double cellSize, final double gap, final IntConsumer onCellClicked)
+    {
+        this.grid = grid;
+        this.viewport = new GridViewport(grid.length, cellSize, gap);
+        this.canvas = new Canvas();
+        this.scrollBar = new ScrollBar();
+        this.dirty = new BitSet(grid.length);
+        this.font = Font.font(cellSize * FONT_SIZE_PER_CELL_SIZE);
+        this.fullRepaintPending = true;
+        this.highlightedCell = GridViewport.NO_CELL;
+
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setUnitIncrement((cellSize + gap) * SCROLL_UNITS_PER_CELL);
+        scrollBar.valueProperty().addListener((_, _, value) -> {
+            viewport.scrollTo(value.doubleValue());
+            repaintAll();
+        });
+
+        canvas.setOnScroll(event -> scrollBar.setValue(
+                Math.max(scrollBar.getMin(), Math.min(scrollBar.getMax(), scrollBar.getValue() - event.getDeltaY()))));
+        canvas.setOnMouseClicked(event -> {
+            final int cell = viewport.cellAt(event.getX(), event.getY());
+            if(cell != GridViewport.NO_CELL)
+            {
+                onCellClicked.accept(cell);
+            }
+        });
+
+        getChildren().addAll(canvas, scrollBar);
+    }
+
+    /**
+     * Marks a cell as changed, so it is redrawn on the next pulse if it is on screen.
+     *
+     * @param cell the index of the cell
+     */
+    void cellChanged(final int cell)
+    {
+        dirty.set(cell);
+        requestLayout();
+    }
+
+    /**
+     * Highlights one empty cell, such as the slot a hint suggests, in place of any highlighted before.
+     *
+     * @param cell the index of the cell, or {@value GridViewport#NO_CELL} to highlight none
+     */
+    void highlight(final int cell)
+    {
+        if(highlightedCell != GridViewport.NO_CELL)
+        {
+            cellChanged(highlightedCell);
+        }
+        highlightedCell = cell;
+        if(cell != GridViewport.NO_CELL)
+        {
+            cellChanged(cell);
+        }
+    }
+
+    /**
+     * Redraws every visible cell on the next pulse, as after a new game.
+     */
+    void repaintAll()
+    {
+        fullRepaintPending = true;
+        requestLayout();
+    }
+
+    /**
+     * Sizes the canvas and scroll bar to the region and draws whatever has changed.
+     */
+    @Override
+    protected void layoutChildren()
+    {
+        final double scrollBarWidth = scrollBar.prefWidth(-1);
+        final double canvasWidth = Math.max(0, getWidth() - scrollBarWidth);
+        final double canvasHeight = getHeight();
+
+        if(canvas.getWidth() != canvasWidth || canvas.getHeight() != canvasHeight)
+        {
+            canvas.setWidth(canvasWidth);
+            canvas.setHeight(canvasHeight);
+            viewport.resize(canvasWidth, canvasHeight);
+
+            scrollBar.setMax(viewport.maxScrollTop());
+            scrollBar.setVisibleAmount(canvasHeight);
+            scrollBar.setBlockIncrement(canvasHeight);
+            scrollBar.setValue(viewport.scrollTop());
+            scrollBar.setVisible(viewport.maxScrollTop() > 0);
+            fullRepaintPending = true;
+        }
+
+        scrollBar.resizeRelocate(canvasWidth, 0, scrollBarWidth, canvasHeight);
+        paint();
+    }
+
+    private void paint()
+    {
+        final GraphicsContext graphics = canvas.getGraphicsContext2D();
+        final int first = viewport.firstVisibleCell();
+        final int end = viewport.endVisibleCell();
+
+        if(fullRepaintPending)
+        {
+            graphics.setFill(BACKGROUND_COLOR);
+            graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for(int cell = first; cell < end; cell++)
+            {
+                paintCell(graphics, cell);
+            }
+            fullRepaintPending = false;
+        }
+        else
+        {
+            for(int cell = dirty.nextSetBit(first); cell >= 0 && cell < end; cell = dirty.nextSetBit(cell + 1))
+            {
+                paintCell(graphics, cell);
+            }
+        }
+
+        // Cells off screen are drawn from the grid when they scroll into view
+        dirty.clear();
+    }
+
+    private void paintCell(final GraphicsContext graphics, final int cell)
+    {
+        final double x = viewport.cellX(cell);
+        final double y = viewport.cellY(cell);
+        final double size = viewport.cellSize();
+        final boolean filled = grid[cell] != NumberPlacementGameHandler.DEFAULT_GRID_FILL;
+
+        if(filled)
+        {
+            graphics.setFill(FILLED_CELL_COLOR);
+        }
+        else
+        {
+            graphics.setFill(cell == highlightedCell ? HIGHLIGHTED_CELL_COLOR : EMPTY_CELL_COLOR);
+        }
+        graphics.fillRoundRect(x, y, size, size, CELL_ARC, CELL_ARC);
+
+        if(filled)
+        {
+            graphics.setFill(TEXT_COLOR);
+            graphics.setFont(font);
+            graphics.setTextAlign(TextAlignment.CENTER);
+            graphics.setTextBaseline(VPos.CENTER);
+            graphics.fillText(String.valueOf(grid[cell]), x + size / 2, y + size / 2);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package NumberGame;
+
+/**
+ * The geometry of a scrolling window onto the number grid: how many cells fit in a row, which cells
+ * are on screen and which cell lies under a point.
+ * <p>
+ * The grid is laid out in rows of square cells that wrap to the width of the window and are centred
+ * in it. Only the rows between the scroll position and the bottom of the window are visible, so a
+ * renderer that asks for {@link #firstVisibleCell()} to {@link #endVisibleCell()} does work in
+ * proportion to the window, not to the grid.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class GridViewport
+{
+    static final int NO_CELL = -1;
+
+    private static final int MIN_COLUMNS = 1;
+
+    private final int cellCount;
+    private final double cellSize;
+    private final double gap;
+
+    private double width;
+    private double height;
+    private double scrollTop;
+    private double leftMargin;
+    private int columns;
+
+    /**
+     * Creates an empty window onto a grid.
+     *
+     * @param cellCount the number of cells on the grid
+     * @param cellSize  the width and height of a cell
+     * @param gap       the space between neighbouring cells
+     */
+    GridViewport(final int cellCount, final double cellSize, final double gap)
+    {
+        this.cellCount = cellCount;
+        this.cellSize = cellSize;
+        this.gap = gap;
+        this.columns = MIN_COLUMNS;
+    }
+
+    /**
+     * Changes the size of the window, reflowing the rows and keeping the scroll position in range.
+     *
+     * @param width  the width of the window
+     * @param height the height of the window
+     */
+    void resize(final double width, final double height)
+    {
+        this.width = width;
+        this.height = height;
+        this.columns = Math.max(MIN_COLUMNS, Math.min(cellCount, (int) ((width + gap) / (cellSize + gap))));
+        this.leftMargin = Math.max(0, (width - columns * (cellSize + gap) + gap) / 2);
+        scrollTo(scrollTop);
+    }
+
+    /**
+     * Scrolls the window, clamping the position to the height of the grid.
+     *
+     * @param top the distance from the top of the grid to the top of the window
+     */
+    void scrollTo(final double top)
+    {
+        scrollTop = Math.max(0, Math.min(top, maxScrollTop()));
+    }
+
+    /**
+     * Returns the scroll position.
+     *
+     * @return the distance from the top of the grid to the top of the window
+     */
+    double scrollTop()
+    {
+        return scrollTop;
+    }
+
+    /**
+     * Returns the furthest the window can scroll.
+     *
+     * @return the largest scroll position, or zero if the whole grid fits
+     */
+    double maxScrollTop()
+    {
+        return Math.max(0, contentHeight() - height);
+    }
+
+    /**
+     * Returns the height of the whole grid.
+     *
+     * @return the height of every row and the gaps between them
+     */
+    double contentHeight()
+    {
+        return rowCount() * (cellSize + gap) - gap;
+    }
+
+    /**
+     * Returns the number of cells in a row.
+     *
+     * @return the column count, at least one
+     */
+    int columns()
+    {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows on the grid.
+     *
+     * @return the row count
+     */
+    int rowCount()
+    {
+        return (cellCount + columns - 1) / columns;
+    }
+
+    /**
+     * Returns the first cell at least partly inside the window.
+     *
+     * @return the cell index
+     */
+    int firstVisibleCell()
+    {
+        return Math.min(cellCount, (int) (scrollTop / (cellSize + gap)) * columns);
+    }
+
+    /**
+     * Returns the cell after the last one at least partly inside the window.
+     *
+     * @return the exclusive end of the visible cells
+     */
+    int endVisibleCell()
+    {
+        final int endRow = (int) Math.ceil((scrollTop + height) / (cellSize + gap));
+        return (int) Math.min(cellCount, (long) endRow * columns);
+    }
+
+    /**
+     * Checks whether a cell is at least partly inside the window.
+     *
+     * @param cell the cell index
+     * @return true if the cell would be drawn
+     */
+    boolean isVisible(final int cell)
+    {
+        return cell >= firstVisibleCell() && cell < endVisibleCell();
+    }
+
+    /**
+     * Returns the cell under a point in the window.
+     *
+     * @param x the distance from the left of the window
+     * @param y the distance from the top of the window
+     * @return the cell index, or {@value NO_CELL} if the point is in a gap or past the last cell
+     */
+    int cellAt(final double x, final double y)
+    {
+        final double gridX = x - leftMargin;
+        final double gridY = y + scrollTop;
+        if(gridX < 0 || y < 0 || x >= width || y >= height)
+        {
+            return NO_CELL;
+        }
+
+        final int column = (int) (gridX / (cellSize + gap));
+        final int row = (int) (gridY / (cellSize + gap));
+        if(column >= columns || gridX - column * (cellSize + gap) >= cellSize ||
+                gridY - row * (cellSize + gap) >= cellSize)
+        {
+            return NO_CELL;
+        }
+
+        final long cell = (long) row * columns + column;
+        return cell < cellCount ? (int) cell : NO_CELL;
+    }
+
+    /**
+     * Returns the left edge of a cell in the window.
+     *
+     * @param cell the cell index
+     * @return the x coordinate
+     */
+    double cellX(final int cell)
+    {
+        return leftMargin + (cell % columns) * (cellSize + gap);
+    }
+
+    /**
+     * Returns the top edge of a cell in the window, which is negative for a cell scrolled past.
+     *
+     * @param cell the cell index
+     * @return the y coordinate
+     */
+    double cellY(final int cell)
+    {
+        return (cell / columns) * (cellSize + gap) - scrollTop;
+    }
+
+    /**
+     * Returns the width and height of a cell.
+     *
+     * @return the cell size
+     */
+    double cellSize()
+    {
+        return cellSize;
+    }
+}
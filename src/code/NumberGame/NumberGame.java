@@ -6,17 +6,27 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
-import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.geometry.Pos;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Main class for the Number Game application. It handles the game logic, UI, and interactions.
+ * <p>
+ * The grid has {@value GameEventHandler#DEFAULT_GRID_SIZE} cells unless the {@value GRID_SIZE_PROPERTY}
+ * system property asks for another size from {@value GameEventHandler#MIN_GRID_SIZE} to
+ * {@value GameEventHandler#MAX_GRID_SIZE}. It is drawn by a {@link GridCanvas}, which paints only the
+ * visible cells, so a large grid scrolls instead of creating a control per cell. The hint button asks
+ * a {@link PlacementSolver} for the best slot for the current number and highlights it. The search
+ * runs off the JavaFX application thread, so the window stays responsive while it does.
  *
  * @author Ben Henry
- * @version 1.0
+ * @version 1.3
  */
 public class NumberGame extends Application
 {
@@ -25,6 +35,10 @@ public class NumberGame extends Application
     private static final String STAGE_TITLE_TEXT = "Number Game";
     private static final String QUIT_BUTTON_TEXT = "Quit";
     private static final String TRY_AGAIN_BUTTON_TEXT = "Try Again";
+    private static final String HINT_BUTTON_TEXT = "Hint";
+    private static final String HINT_TEXT_FORMAT = "Hint: the highlighted cell, expecting %.1f placements from here";
+    private static final String NO_HINT_TEXT = "Hint: the current number fits nowhere";
+    private static final String SEARCHING_HINT_TEXT = "Hint: searching...";
     private static final String INITIAL_SCORE_TEXT = "Successful Placements: 0";
     private static final String GAME_STATUS_IN_PROGRESS_TEXT = "Game Status: In Progress";
     private static final String CURRENT_NUMBER_TEXT = "Current number: ";
@@ -33,27 +47,29 @@ public class NumberGame extends Application
     private static final String YOU_LOSE_ALERT_HEADER_TEXT = "You Lose!";
     private static final String PLAYER_STAT_ALERT_TEXT_FORMAT = "Placements: %d | Total Placements: %d" + System.lineSeparator() + "Wins: %d | Losses: %d | Avg Placements: %.2f";
     private static final String GAME_OVER_HEADER_TEXT = "Game Over! Here are your stats:";
+    static final String GRID_SIZE_PROPERTY = "numbergame.cells";
 
     private static final int SCENE_VBOX_WIDTH = 500;
     private static final int SCENE_VBOX_HEIGHT = 750;
     private static final int VBOX_PADDING = 10;
-    private static final int BUTTON_GRID_X_COUNT = 5;
-    private static final int BUTTON_GRID_Y_COUNT = 5;
-    private static final int BUTTON_MIN_WIDTH = 80;
-    private static final int BUTTON_MIN_HEIGHT = 80;
-    private static final int BUTTON_GRID_X_GAP = 10;
-    private static final int BUTTON_GRID_Y_GAP = 10;
+    private static final int GRID_PREF_WIDTH = 480;
+    private static final int GRID_PREF_HEIGHT = 560;
+    private static final int CELL_SIZE = 80;
+    private static final int LARGE_GRID_CELL_SIZE = 48;
+    private static final int CELLS_AT_FULL_SIZE = 25;
+    private static final int CELL_GAP = 10;
 
     private GameEventHandler gameEventHandler;
     private NumberGameStatsHandler numberGameStatsHandler;
     private Text currentNumberText;
     private Text gameStatusText;
     private Text scoreText;
+    private Text hintText;
+    private GridCanvas gridCanvas;
+    private PlacementSolver placementSolver;
+    private int hintRequest;
     private Stage primaryStage;
 
-    static final int BUTTON_COUNT = 20;
-    private final Button[] buttons = new Button[BUTTON_COUNT];
-
     /**
      * Initializes the game and UI elements.
      *
@@ -65,24 +81,30 @@ public class NumberGame extends Application
 
         Platform.setImplicitExit(false);
         this.primaryStage = primaryStage;
-        gameEventHandler = new NumberPlacementGameHandler();
+        gameEventHandler = new NumberPlacementGameHandler(readGridSize());
         numberGameStatsHandler = new NumberGameStatsHandler();
+        placementSolver = new PlacementSolver(gameEventHandler.randomNumberUpperBound(),
+                PlacementSolver.DEFAULT_BUDGET_NANOS);
 
-        final GridPane grid;
+        final int cellSize;
         final VBox vbox;
+        final Button hintButton;
         final Button tryAgainButton;
         final Button quitButton;
         final Scene scene;
 
 
-        grid = new GridPane();
-        grid.setHgap(BUTTON_GRID_X_GAP);
-        grid.setVgap(BUTTON_GRID_Y_GAP);
-        grid.setAlignment(Pos.CENTER);
+        cellSize = gameEventHandler.gridSize() <= CELLS_AT_FULL_SIZE ? CELL_SIZE : LARGE_GRID_CELL_SIZE;
+        gridCanvas = new GridCanvas(gameEventHandler.grid, cellSize, CELL_GAP, this::handleButtonClick);
+        gridCanvas.setPrefSize(GRID_PREF_WIDTH, GRID_PREF_HEIGHT);
+        VBox.setVgrow(gridCanvas, Priority.ALWAYS);
 
         vbox = new VBox(VBOX_PADDING);
         vbox.setAlignment(Pos.CENTER);
 
+        hintButton = new Button(HINT_BUTTON_TEXT);
+        hintButton.setOnAction(_ -> handleHint());
+
         tryAgainButton = new Button(TRY_AGAIN_BUTTON_TEXT);
         tryAgainButton.setOnAction(_ -> handleTryAgain());
 
@@ -94,17 +116,10 @@ public class NumberGame extends Application
         currentNumberText = new Text(CURRENT_NUMBER_TEXT + gameEventHandler.currentNumber);
         gameStatusText = new Text(GAME_STATUS_IN_PROGRESS_TEXT);
         scoreText = new Text(INITIAL_SCORE_TEXT);
+        hintText = new Text();
 
-        for(int i = 0; i < BUTTON_COUNT; i++)
-        {
-            final int position = i;
-            buttons[i] = new Button(" ");
-            buttons[i].setMinSize(BUTTON_MIN_WIDTH, BUTTON_MIN_HEIGHT);
-            buttons[i].setOnAction(_ -> handleButtonClick(position));
-            grid.add(buttons[i], i % BUTTON_GRID_X_COUNT, i / BUTTON_GRID_Y_COUNT);
-        }
-
-        vbox.getChildren().addAll(currentNumberText, gameStatusText, scoreText, grid, tryAgainButton, quitButton);
+        vbox.getChildren().addAll(currentNumberText, gameStatusText, scoreText, gridCanvas, hintText, hintButton,
+                tryAgainButton, quitButton);
 
         gameEventHandler.startGame();
         updateUI();
@@ -115,6 +130,36 @@ public class NumberGame extends Application
         primaryStage.show();
     }
 
+    /**
+     * Reads the grid size from the {@value GRID_SIZE_PROPERTY} system property, falling back to the
+     * default size if it is missing or invalid.
+     *
+     * @return the number of cells on the grid
+     */
+    private static int readGridSize()
+    {
+        final String property = System.getProperty(GRID_SIZE_PROPERTY);
+        if(property == null)
+        {
+            return GameEventHandler.DEFAULT_GRID_SIZE;
+        }
+
+        try
+        {
+            final int gridSize = Integer.parseInt(property.trim());
+            if(gridSize >= GameEventHandler.MIN_GRID_SIZE && gridSize <= GameEventHandler.MAX_GRID_SIZE)
+            {
+                return gridSize;
+            }
+            System.err.println("Grid size out of range, using the default: " + gridSize);
+        }
+        catch(final NumberFormatException e)
+        {
+            System.err.println("Error reading grid size: " + e.getMessage());
+        }
+        return GameEventHandler.DEFAULT_GRID_SIZE;
+    }
+
     /**
      * Returns the formatted score text.
      *
@@ -131,26 +176,27 @@ public class NumberGame extends Application
     /**
      * Checks if the win condition is met.
      * The win condition is achieved when the number of successful placements
-     * equals the total number of buttons on the grid.
+     * equals the total number of cells on the grid.
      *
      * @return true if the win condition is met, false otherwise
      */
     private boolean isWinConditionMet()
     {
-        return gameEventHandler.successfulPlacements == BUTTON_COUNT;
+        return gameEventHandler.successfulPlacements == gameEventHandler.gridSize();
     }
 
     /**
-     * Handles a button click event. Places the number on the grid and checks if the game is over.
+     * Handles a click on a cell. Places the number on the grid and checks if the game is over.
      *
-     * @param position the position of the clicked button
+     * @param position the position of the clicked cell
      */
     private void handleButtonClick(final int position)
     {
-        if(gameEventHandler.validPositions.contains(position))
+        if(gameEventHandler.isValidPosition(position))
         {
-            buttons[position].setText(String.valueOf(gameEventHandler.currentNumber));
             gameEventHandler.placeNumberOnGrid(position);
+            gridCanvas.cellChanged(position);
+            clearHint();
 
             if(isWinConditionMet())
             {
@@ -180,6 +226,63 @@ public class NumberGame extends Application
     }
 
 
+    /**
+     * Searches for the best slot for the current number on a background thread, on a copy of the
+     * grid, and shows the result on the JavaFX application thread when it is ready.
+     */
+    private void handleHint()
+    {
+        final int[] grid = gameEventHandler.grid.clone();
+        final int currentNumber = gameEventHandler.currentNumber;
+        final int request = ++hintRequest;
+
+        hintText.setText(SEARCHING_HINT_TEXT);
+        CompletableFuture.supplyAsync(() -> placementSolver.hints(grid, currentNumber))
+                .whenComplete((hints, error) -> Platform.runLater(() -> showHint(request, hints, error)));
+    }
+
+    /**
+     * Highlights the slot the solver ranked best, unless the grid has changed since the hint was asked for.
+     *
+     * @param request the hint request the result answers
+     * @param hints   the ranked slots, or null if the search failed
+     * @param error   why the search failed, or null if it succeeded
+     */
+    private void showHint(final int request, final List<PlacementHint> hints, final Throwable error)
+    {
+        if(request != hintRequest)
+        {
+            return;
+        }
+        if(error != null)
+        {
+            System.err.println("Error searching for a hint: " + error.getMessage());
+            clearHint();
+            return;
+        }
+
+        if(hints.isEmpty())
+        {
+            clearHint();
+            hintText.setText(NO_HINT_TEXT);
+            return;
+        }
+
+        gridCanvas.highlight(hints.get(0).position());
+        hintText.setText(String.format(HINT_TEXT_FORMAT, hints.get(0).expectedPlacements()));
+    }
+
+    /**
+     * Removes the highlight and text of the last hint and discards any hint still being searched for,
+     * since neither applies once the grid changes.
+     */
+    private void clearHint()
+    {
+        hintRequest++;
+        gridCanvas.highlight(GridViewport.NO_CELL);
+        hintText.setText("");
+    }
+
     /**
      * Creates and displays an alert with the specified title, header, and player's stats.
      *
@@ -251,11 +354,8 @@ public class NumberGame extends Application
     private void handleTryAgain()
     {
         gameEventHandler.resetGame();
-
-        for(final Button button : buttons)
-        {
-            button.setText(" ");
-        }
+        clearHint();
+        gridCanvas.repaintAll();
 
         gameStatusText.setText(GAME_STATUS_IN_PROGRESS_TEXT);
 
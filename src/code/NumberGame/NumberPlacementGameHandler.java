@@ -7,21 +7,41 @@ import java.util.Arrays;
  * This class manages the grid, places numbers, tracks successful placements,
  * and determines valid positions for the next number to be placed.
  * It also checks for game-over conditions and displays game results.
+ * <p>
+ * The valid range for the current number is found through the {@link PlacementIndex} in O(log n)
+ * whenever the number or the grid changes, so checking a position is O(1) however large the grid is.
  *
  * @author Ben Henry
- * @version 1.0
+ * @version 1.2
  */
 class NumberPlacementGameHandler extends GameEventHandler
 {
 
 
     private static final int INITIAL_SUCCESSFUL_PLACEMENTS = 0;
-    private static final int FIRST_GRID_INDEX = 0;
-    private static final int ADD_FOR_NEXT_INDEX = 1;
-    private static final int INITIAL_LAST_SMALLER_INDEX = -1;
-
     static final int DEFAULT_GRID_FILL = 0;
 
+    private int lastSmallerIndex;
+    private int firstGreaterIndex;
+
+    /**
+     * Creates a handler for a grid of the default size.
+     */
+    NumberPlacementGameHandler()
+    {
+        this(DEFAULT_GRID_SIZE);
+    }
+
+    /**
+     * Creates a handler for a grid of the given size.
+     *
+     * @param gridSize the number of cells on the grid
+     */
+    NumberPlacementGameHandler(final int gridSize)
+    {
+        super(gridSize);
+    }
+
     /**
      * Starts a new game by resetting values and preparing the grid.
      */
@@ -30,6 +50,7 @@ class NumberPlacementGameHandler extends GameEventHandler
     {
         successfulPlacements = INITIAL_SUCCESSFUL_PLACEMENTS;
         Arrays.fill(grid, DEFAULT_GRID_FILL);
+        placements.clear();
         generateRandomNumber();
         checkAvailablePlacements();
     }
@@ -43,6 +64,7 @@ class NumberPlacementGameHandler extends GameEventHandler
     void placeNumberOnGrid(int position)
     {
         grid[position] = currentNumber;
+        placements.place(position, currentNumber);
         successfulPlacements++;
         checkAvailablePlacements();
     }
@@ -58,39 +80,27 @@ class NumberPlacementGameHandler extends GameEventHandler
     }
 
     /**
-     * Checks all valid placements for the current number on the grid.
-     * Valid placements are spots between the last smaller number and the first greater number.
+     * Finds the valid range for the current number on the grid.
+     * Valid placements are empty spots between the last smaller number and the first greater number.
      */
     @Override
     void checkAvailablePlacements()
     {
-        validPositions.clear();
-
-        int lastSmallerIndex = INITIAL_LAST_SMALLER_INDEX;
-        int firstGreaterIndex = grid.length;
-
-        for(int i = 0; i < grid.length; i++)
-        {
-            if(grid[i] != FIRST_GRID_INDEX)
-            {
-                if(grid[i] < currentNumber)
-                {
-                    lastSmallerIndex = i;
-                }
-                else if(grid[i] > currentNumber && firstGreaterIndex == grid.length)
-                {
-                    firstGreaterIndex = i;
-                }
-            }
-        }
+        lastSmallerIndex = placements.lastSmallerSlot(currentNumber);
+        firstGreaterIndex = placements.firstGreaterSlot(currentNumber);
+    }
 
-        for(int i = lastSmallerIndex + ADD_FOR_NEXT_INDEX; i < firstGreaterIndex; i++)
-        {
-            if(grid[i] == FIRST_GRID_INDEX)
-            {
-                validPositions.add(i);
-            }
-        }
+    /**
+     * Checks whether the current number may be placed at a position: the position must be empty
+     * and inside the valid range.
+     *
+     * @param position the position on the grid
+     * @return true if the current number may be placed there
+     */
+    @Override
+    boolean isValidPosition(final int position)
+    {
+        return position > lastSmallerIndex && position < firstGreaterIndex && !placements.isOccupied(position);
     }
 
     /**
@@ -101,7 +111,7 @@ class NumberPlacementGameHandler extends GameEventHandler
     @Override
     boolean checkGameOver()
     {
-        return validPositions.isEmpty();
+        return !placements.hasFreeSlotBetween(lastSmallerIndex, firstGreaterIndex);
     }
 
     /**
@@ -112,7 +122,7 @@ class NumberPlacementGameHandler extends GameEventHandler
     {
         Arrays.fill(grid, DEFAULT_GRID_FILL);
         successfulPlacements = INITIAL_SUCCESSFUL_PLACEMENTS;
-        validPositions.clear();
+        placements.clear();
         generateNextNumber();
         checkAvailablePlacements();
     }
@@ -0,0 +1,14 @@
+package NumberGame;
+
+/**
+ * A slot the current number may be placed in, with how well the game is expected to go from there.
+ *
+ * @param position           the slot on the grid
+ * @param expectedPlacements the expected number of successful placements from this one on, counting it
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+record PlacementHint(int position, double expectedPlacements)
+{
+}
@@ -0,0 +1,147 @@
+package NumberGame;
+
+import java.util.BitSet;
+import java.util.TreeSet;
+
+/**
+ * An ordered index of the numbers placed on the grid, answering where a new number may go
+ * without scanning the grid.
+ * <p>
+ * Placements keep the grid sorted, so a number may go in any empty slot after the last slot holding
+ * a smaller number and before the first slot holding a greater one. Each placement is kept in a
+ * balanced tree keyed by its value and then its slot, which finds both bounds in O(log n). Occupied
+ * slots are also kept in a {@link BitSet}, so testing a slot is O(1) and finding an empty slot in a
+ * range takes one word-wide scan per 64 slots.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class PlacementIndex
+{
+    static final int NO_SMALLER_SLOT = -1;
+
+    private static final int VALUE_SHIFT = Integer.SIZE;
+    private static final long LOWEST_SLOT = 0L;
+    private static final long HIGHEST_SLOT = 0xFFFFFFFFL;
+
+    private final int slotCount;
+    private final TreeSet<Long> placements;
+    private final BitSet occupied;
+
+    /**
+     * Creates an empty index for a grid of the given size.
+     *
+     * @param slotCount the number of slots on the grid
+     */
+    PlacementIndex(final int slotCount)
+    {
+        this.slotCount = slotCount;
+        this.placements = new TreeSet<>();
+        this.occupied = new BitSet(slotCount);
+    }
+
+    /**
+     * Records a number placed in a slot.
+     *
+     * @param slot  the slot the number was placed in
+     * @param value the number
+     * @throws IllegalArgumentException if the slot is outside the grid or already occupied
+     */
+    void place(final int slot, final int value)
+    {
+        if(slot < 0 || slot >= slotCount || occupied.get(slot))
+        {
+            throw new IllegalArgumentException("Slot " + slot + " is not free");
+        }
+
+        occupied.set(slot);
+        placements.add(key(value, slot));
+    }
+
+    /**
+     * Removes every placement.
+     */
+    void clear()
+    {
+        occupied.clear();
+        placements.clear();
+    }
+
+    /**
+     * Returns the last slot holding a number smaller than the given one.
+     *
+     * @param value the number to be placed
+     * @return the slot, or {@value NO_SMALLER_SLOT} if every placed number is at least as large
+     */
+    int lastSmallerSlot(final int value)
+    {
+        // The largest key below (value, 0) is the largest smaller value, in the last slot holding it
+        final Long lower = placements.lower(key(value, LOWEST_SLOT));
+        return lower == null ? NO_SMALLER_SLOT : slotOf(lower);
+    }
+
+    /**
+     * Returns the first slot holding a number greater than the given one.
+     *
+     * @param value the number to be placed
+     * @return the slot, or the slot count if every placed number is at most as large
+     */
+    int firstGreaterSlot(final int value)
+    {
+        final Long higher = placements.higher(key(value, HIGHEST_SLOT));
+        return higher == null ? slotCount : slotOf(higher);
+    }
+
+    /**
+     * Checks whether a slot holds a number.
+     *
+     * @param slot the slot
+     * @return true if a number has been placed there
+     */
+    boolean isOccupied(final int slot)
+    {
+        return occupied.get(slot);
+    }
+
+    /**
+     * Checks whether any slot strictly between two slots is empty.
+     *
+     * @param after  the slot before the range
+     * @param before the slot after the range
+     * @return true if there is an empty slot in the range
+     */
+    boolean hasFreeSlotBetween(final int after, final int before)
+    {
+        return occupied.nextClearBit(after + 1) < before;
+    }
+
+    /**
+     * Returns the number of numbers placed.
+     *
+     * @return the number of occupied slots
+     */
+    int placedCount()
+    {
+        return occupied.cardinality();
+    }
+
+    /**
+     * Returns the number of slots on the grid.
+     *
+     * @return the slot count
+     */
+    int slotCount()
+    {
+        return slotCount;
+    }
+
+    private static long key(final int value, final long slot)
+    {
+        return ((long) value << VALUE_SHIFT) | slot;
+    }
+
+    private static int slotOf(final long key)
+    {
+        return (int) (key & HIGHEST_SLOT);
+    }
+}
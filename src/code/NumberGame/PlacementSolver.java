@@ -0,0 +1,578 @@
+package NumberGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ranks the slots the current number may go in by the number of placements the game is expected to
+ * last, using an expectimax search over the numbers still to be drawn.
+ * <p>
+ * Placed numbers keep the grid sorted, so the grid is a row of gaps: runs of empty slots, each
+ * bounded by the numbers either side of it. A future number fits a gap when it lies between those
+ * bounds, and numbers are drawn uniformly, so a gap is fully described by how many numbers fit it
+ * and how many slots it has. Where the gap sits does not matter, and neither does the order of the
+ * gaps. The sorted list of (numbers, slots) pairs is the canonical signature of a grid, and the
+ * search memoizes values on it, so grids that differ only in where their gaps lie are solved once.
+ * <p>
+ * At a chance node a few evenly spaced numbers stand in for every number that fits a gap. At a
+ * decision node the player is assumed to try the slot in proportion to where the number lies in
+ * the gap and its neighbours, or every slot of a short gap. Below the search depth a grid is
+ * estimated by playing it out a few times, always taking the proportional slot. Every estimate
+ * draws the same stream of random numbers, so grids are compared on the same luck and equal grids
+ * get equal estimates. A number equal to a placed
+ * one fits the gaps on both sides of it, but the search counts it only in the gap to its right, so
+ * the chances of fitting each gap add up to the chance of fitting any.
+ * <p>
+ * The search deepens one level at a time until its time budget runs out, and the ranking from the
+ * deepest level finished is returned. Each level scores the candidate slots in parallel on the
+ * common fork-join pool, sharing one memo. The budget covers the first level too: a playout is
+ * never started after the deadline, and slots the first level did not reach in time are ranked
+ * after those it did. A solver can also be given a depth limit and a clock; with a clock that never
+ * advances the search stops only at the depth limit, so its hints do not depend on the machine.
+ *
+ * @author Ben Henry
+ * @version 1.2
+ */
+final class PlacementSolver
+{
+    static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    private static final int MAX_ROOT_CANDIDATES = 64;
+    private static final int VALUE_SAMPLES = 8;
+    private static final int EVERY_SLOT_UP_TO = 4;
+    private static final int SINGLE_CANDIDATE = 1;
+    private static final int HALF = 2;
+    private static final int SLOT_BITS = Integer.SIZE;
+    private static final long SLOT_MASK = 0xFFFFFFFFL;
+    private static final int PLAYOUTS = 16;
+    private static final int PLAYOUT_HORIZON = 64;
+    private static final long PLAYOUT_GAP_STEPS = 1L << 17;
+    private static final long PLAYOUT_SEED = 0x5EEDL;
+    private static final double SAMPLE_MIDPOINT = 0.5;
+    private static final double THIS_PLACEMENT = 1.0;
+    private static final int FIRST_NUMBER = 1;
+    private static final double UNSCORED = 0;
+
+    private final int numberUpperBound;
+    private final long budgetNanos;
+    private final int maxDepth;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a solver for numbers drawn from 1 to the given bound, searching as deep as the budget allows.
+     *
+     * @param numberUpperBound the largest number that can be drawn
+     * @param budgetNanos      how long a call to {@link #hints} may search
+     */
+    PlacementSolver(final int numberUpperBound, final long budgetNanos)
+    {
+        this(numberUpperBound, budgetNanos, UNLIMITED_DEPTH, System::nanoTime);
+    }
+
+    /**
+     * Creates a solver for numbers drawn from 1 to the given bound that reads the time from the given clock.
+     *
+     * @param numberUpperBound the largest number that can be drawn
+     * @param budgetNanos      how long a call to {@link #hints} may search, as measured by the clock
+     * @param maxDepth         the deepest level searched, or {@value UNLIMITED_DEPTH} for no limit
+     * @param clock            the current time in nanoseconds
+     */
+    PlacementSolver(final int numberUpperBound, final long budgetNanos, final int maxDepth, final LongSupplier clock)
+    {
+        this.numberUpperBound = numberUpperBound;
+        this.budgetNanos = budgetNanos;
+        this.maxDepth = maxDepth;
+        this.clock = clock;
+    }
+
+    /**
+     * Ranks the slots a number may be placed in, best first.
+     * <p>
+     * On a large grid with many valid slots only an evenly spaced selection of them, plus the slot
+     * in proportion to the number in each gap, is ranked. A slot that could not be estimated within
+     * the budget is given one expected placement, the one it would make itself.
+     *
+     * @param grid          the grid, where {@value NumberPlacementGameHandler#DEFAULT_GRID_FILL} is an
+     *                      empty slot
+     * @param currentNumber the number to be placed
+     * @return the hints, by decreasing expected placements, empty if the number fits nowhere
+     */
+    List<PlacementHint> hints(final int[] grid, final int currentNumber)
+    {
+        final long deadline = clock.getAsLong() + budgetNanos;
+        final List<Gap> gaps = gapsOf(grid);
+        final int[] candidates = candidates(gaps, currentNumber);
+        final long[][] children = new long[candidates.length][];
+
+        for(int i = 0; i < candidates.length; i++)
+        {
+            children[i] = childOfRoot(gaps, candidates[i], currentNumber);
+        }
+
+        final Map<Signature, Double> memo = new ConcurrentHashMap<>();
+        final int emptySlots = emptySlots(gaps);
+        double[] values = new double[candidates.length];
+
+        // The first level leaves the slots it runs out of time for unscored rather than giving up
+        ForkJoinPool.commonPool().invoke(
+                new ScoreCandidatesTask(this, children, values, 0, candidates.length, 0, memo, deadline));
+
+        // After this placement at most emptySlots - 1 remain, so deeper levels change nothing
+        for(int depth = 1; depth < emptySlots && depth <= maxDepth && clock.getAsLong() < deadline; depth++)
+        {
+            final double[] deeper = new double[candidates.length];
+            try
+            {
+                ForkJoinPool.commonPool().invoke(
+                        new ScoreCandidatesTask(this, children, deeper, 0, candidates.length, depth, memo, deadline));
+            }
+            catch(final BudgetExceededException e)
+            {
+                break;
+            }
+            values = deeper;
+        }
+
+        final List<PlacementHint> hints = new ArrayList<>(candidates.length);
+        for(int i = 0; i < candidates.length; i++)
+        {
+            hints.add(new PlacementHint(candidates[i], THIS_PLACEMENT + values[i]));
+        }
+        hints.sort(Comparator.comparingDouble(PlacementHint::expectedPlacements).reversed()
+                .thenComparingInt(PlacementHint::position));
+        return hints;
+    }
+
+    /**
+     * Returns the expected number of placements still to come from a grid, searching the given
+     * number of draws ahead.
+     */
+    private double value(final long[] gaps, final int depth, final Map<Signature, Double> memo, final long deadline)
+    {
+        if(gaps.length == 0)
+        {
+            return 0;
+        }
+
+        final int effectiveDepth = Math.min(depth, slotsOf(gaps));
+        final Signature signature = new Signature(gaps, effectiveDepth);
+        final Double known = memo.get(signature);
+        if(known != null)
+        {
+            return known;
+        }
+        if(clock.getAsLong() > deadline)
+        {
+            throw BudgetExceededException.INSTANCE;
+        }
+        if(effectiveDepth == 0)
+        {
+            final double estimate = estimate(gaps, deadline);
+            memo.put(signature, estimate);
+            return estimate;
+        }
+
+        double expected = 0;
+        for(int i = 0; i < gaps.length; )
+        {
+            // Equal gaps are adjacent in a signature and worth the same, so each is searched once
+            int copies = 1;
+            while(i + copies < gaps.length && gaps[i + copies] == gaps[i])
+            {
+                copies++;
+            }
+
+            final int numbers = numbersOf(gaps[i]);
+            final int slots = slotsOf(gaps[i]);
+            if(numbers == 0)
+            {
+                i += copies;
+                continue;
+            }
+
+            final int samples = Math.min(numbers, VALUE_SAMPLES);
+            final double weight = copies * fitProbability(numbers) / samples;
+
+            for(int sample = 0; sample < samples; sample++)
+            {
+                final int offset = (int) ((sample + SAMPLE_MIDPOINT) * numbers / samples);
+                double best = 0;
+                for(final int slot : slotChoices(offset, numbers, slots))
+                {
+                    final long[] child = split(gaps, i, offset, numbers, slot, slots);
+                    best = Math.max(best, THIS_PLACEMENT + value(child, effectiveDepth - 1, memo, deadline));
+                }
+                expected += weight * best;
+            }
+            i += copies;
+        }
+
+        memo.put(signature, expected);
+        return expected;
+    }
+
+    /**
+     * Estimates the placements still to come from a grid by averaging playouts that always take
+     * the proportional slot. Playouts stop after {@value PLAYOUT_HORIZON} draws, and fewer are run
+     * on grids with many gaps, since each draw walks every gap.
+     *
+     * @throws BudgetExceededException if the deadline passes between playouts
+     */
+    private double estimate(final long[] gaps, final long deadline)
+    {
+        final SplittableRandom random = new SplittableRandom(PLAYOUT_SEED);
+        final int horizon = Math.min(PLAYOUT_HORIZON, slotsOf(gaps));
+        final int playouts = (int) Math.max(1, Math.min(PLAYOUTS,
+                PLAYOUT_GAP_STEPS / ((long) horizon * (gaps.length + horizon) + 1)));
+        final int[] numbers = new int[gaps.length + horizon];
+        final int[] slots = new int[gaps.length + horizon];
+
+        long placed = 0;
+        for(int playout = 0; playout < playouts; playout++)
+        {
+            if(clock.getAsLong() > deadline)
+            {
+                throw BudgetExceededException.INSTANCE;
+            }
+
+            int length = gaps.length;
+            for(int i = 0; i < length; i++)
+            {
+                numbers[i] = numbersOf(gaps[i]);
+                slots[i] = slotsOf(gaps[i]);
+            }
+
+            for(int draw = 0; draw < horizon; draw++)
+            {
+                int offset = random.nextInt(numberUpperBound);
+                int index = 0;
+                while(index < length && offset >= numbers[index])
+                {
+                    offset -= numbers[index++];
+                }
+                if(index == length || slots[index] == 0)
+                {
+                    break;
+                }
+
+                // The left half stays where the gap was and the right half goes on the end
+                final int slot = (int) ((long) offset * slots[index] / numbers[index]);
+                numbers[length] = numbers[index] - offset;
+                slots[length] = slots[index] - 1 - slot;
+                numbers[index] = offset;
+                slots[index] = slot;
+                length++;
+                placed++;
+            }
+        }
+        return (double) placed / playouts;
+    }
+
+    private double fitProbability(final int numbers)
+    {
+        return (double) Math.min(numbers, numberUpperBound) / numberUpperBound;
+    }
+
+    /**
+     * Returns the slots of a gap worth trying for a number: the one in proportion to where the
+     * number lies in the gap and its neighbours, or every slot of a short gap.
+     */
+    private static int[] slotChoices(final int offset, final int numbers, final int slots)
+    {
+        if(slots <= EVERY_SLOT_UP_TO)
+        {
+            final int[] every = new int[slots];
+            Arrays.setAll(every, slot -> slot);
+            return every;
+        }
+
+        final int proportional = Math.min(slots - 1, (int) ((long) offset * slots / numbers));
+        final int lowest = Math.max(0, proportional - 1);
+        final int highest = Math.min(slots - 1, proportional + 1);
+        final int[] choices = new int[highest - lowest + 1];
+        Arrays.setAll(choices, choice -> lowest + choice);
+        return choices;
+    }
+
+    /**
+     * Returns the signature of a grid after a number is placed in one of its gaps.
+     *
+     * @param gaps   the signature before the placement
+     * @param index  the gap the number goes in
+     * @param offset how far the number lies above the gap's lower bound
+     * @param slot   the slot of the gap the number goes in
+     */
+    private static long[] split(final long[] gaps, final int index, final int offset, final int numbers,
+                                final int slot, final int slots)
+    {
+        final long[] child = new long[gaps.length + 1];
+        int length = 0;
+        for(int i = 0; i < gaps.length; i++)
+        {
+            if(i != index)
+            {
+                child[length++] = gaps[i];
+            }
+        }
+
+        // The number itself now bounds both halves and is counted in the right one
+        if(slot > 0)
+        {
+            child[length++] = gap(offset, slot);
+        }
+        if(slots - 1 - slot > 0)
+        {
+            child[length++] = gap(numbers - offset, slots - 1 - slot);
+        }
+
+        final long[] signature = Arrays.copyOf(child, length);
+        Arrays.sort(signature);
+        return signature;
+    }
+
+    private long[] childOfRoot(final List<Gap> gaps, final int position, final int currentNumber)
+    {
+        final long[] siblings = new long[gaps.size()];
+        int index = 0;
+        for(int i = 0; i < gaps.size(); i++)
+        {
+            final Gap gap = gaps.get(i);
+            if(position >= gap.start() && position < gap.end())
+            {
+                index = i;
+            }
+            siblings[i] = gap(gap.numbers(), gap.end() - gap.start());
+        }
+
+        final Gap placed = gaps.get(index);
+        return split(siblings, index, currentNumber - placed.lower(), placed.numbers(), position - placed.start(),
+                placed.end() - placed.start());
+    }
+
+    private List<Gap> gapsOf(final int[] grid)
+    {
+        final List<Gap> gaps = new ArrayList<>();
+        int lower = FIRST_NUMBER;
+        int start = 0;
+        for(int slot = 0; slot <= grid.length; slot++)
+        {
+            final boolean placed = slot < grid.length && grid[slot] != NumberPlacementGameHandler.DEFAULT_GRID_FILL;
+            if(!placed && slot < grid.length)
+            {
+                continue;
+            }
+
+            if(slot > start)
+            {
+                final int upper = slot < grid.length ? grid[slot] : numberUpperBound + 1;
+                gaps.add(new Gap(start, slot, lower, upper - lower));
+            }
+            if(placed)
+            {
+                lower = grid[slot];
+            }
+            start = slot + 1;
+        }
+        return gaps;
+    }
+
+    /**
+     * Returns the slots a number may go in, or an evenly spaced selection of them with the slot in
+     * proportion to the number in each gap it fits.
+     */
+    private static int[] candidates(final List<Gap> gaps, final int currentNumber)
+    {
+        final List<Gap> fitting = new ArrayList<>();
+        int valid = 0;
+        for(final Gap gap : gaps)
+        {
+            // The number above the gap bounds it, so it fits too
+            if(currentNumber >= gap.lower() && currentNumber <= gap.lower() + gap.numbers())
+            {
+                fitting.add(gap);
+                valid += gap.end() - gap.start();
+            }
+        }
+
+        final int[] every = new int[valid];
+        int length = 0;
+        for(final Gap gap : fitting)
+        {
+            for(int slot = gap.start(); slot < gap.end(); slot++)
+            {
+                every[length++] = slot;
+            }
+        }
+        if(valid <= MAX_ROOT_CANDIDATES)
+        {
+            return every;
+        }
+
+        final int[] chosen = new int[MAX_ROOT_CANDIDATES + fitting.size()];
+        int count = 0;
+        for(int i = 0; i < MAX_ROOT_CANDIDATES; i++)
+        {
+            chosen[count++] = every[(int) ((long) i * (valid - 1) / (MAX_ROOT_CANDIDATES - 1))];
+        }
+        for(final Gap gap : fitting)
+        {
+            final int slots = gap.end() - gap.start();
+            final long proportional = (long) (currentNumber - gap.lower()) * slots / Math.max(1, gap.numbers());
+            chosen[count++] = gap.start() + (int) Math.min(slots - 1, proportional);
+        }
+        return Arrays.stream(chosen, 0, count).sorted().distinct().toArray();
+    }
+
+    private static int emptySlots(final List<Gap> gaps)
+    {
+        int slots = 0;
+        for(final Gap gap : gaps)
+        {
+            slots += gap.end() - gap.start();
+        }
+        return slots;
+    }
+
+    private static int slotsOf(final long[] gaps)
+    {
+        int slots = 0;
+        for(final long gap : gaps)
+        {
+            slots += slotsOf(gap);
+        }
+        return slots;
+    }
+
+    private static long gap(final int numbers, final int slots)
+    {
+        return ((long) numbers << SLOT_BITS) | slots;
+    }
+
+    private static int numbersOf(final long gap)
+    {
+        return (int) (gap >>> SLOT_BITS);
+    }
+
+    private static int slotsOf(final long gap)
+    {
+        return (int) (gap & SLOT_MASK);
+    }
+
+    /**
+     * A run of empty slots from {@code start} up to {@code end}, counted as fitting the numbers from
+     * {@code lower} to {@code lower + numbers - 1}.
+     */
+    private record Gap(int start, int end, int lower, int numbers)
+    {
+    }
+
+    /**
+     * A canonical grid signature and the depth it was searched to.
+     */
+    private static final class Signature
+    {
+        private final long[] gaps;
+        private final int depth;
+        private final int hash;
+
+        Signature(final long[] gaps, final int depth)
+        {
+            this.gaps = gaps;
+            this.depth = depth;
+            this.hash = Arrays.hashCode(gaps) * 31 + depth;
+        }
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            return other instanceof Signature signature && depth == signature.depth &&
+                    Arrays.equals(gaps, signature.gaps);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    /**
+     * Thrown through the search when the time budget runs out, abandoning the level in progress.
+     */
+    @SuppressWarnings("serial")
+    private static final class BudgetExceededException extends RuntimeException
+    {
+        private static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException()
+        {
+            super("Search budget exceeded", null, false, false);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ScoreCandidatesTask extends RecursiveAction
+    {
+        private final PlacementSolver solver;
+        private final long[][] children;
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final int depth;
+        private final Map<Signature, Double> memo;
+        private final long deadline;
+
+        ScoreCandidatesTask(final PlacementSolver solver, final long[][] children, final double[] values,
+                            final int from, final int to, final int depth, final Map<Signature, Double> memo,
+                            final long deadline)
+        {
+            this.solver = solver;
+            this.children = children;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+            this.memo = memo;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(to - from <= SINGLE_CANDIDATE)
+            {
+                if(from < to)
+                {
+                    try
+                    {
+                        values[from] = solver.value(children[from], depth, memo, deadline);
+                    }
+                    catch(final BudgetExceededException e)
+                    {
+                        // Deeper levels are abandoned whole; the first level keeps every estimate it finished
+                        if(depth > 0)
+                        {
+                            throw e;
+                        }
+                        values[from] = UNSCORED;
+                    }
+                }
+                return;
+            }
+
+            final int middle = from + (to - from) / HALF;
+            invokeAll(new ScoreCandidatesTask(solver, children, values, from, middle, depth, memo, deadline),
+                    new ScoreCandidatesTask(solver, children, values, middle, to, depth, memo, deadline));
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package WordGame;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Deals questions in proportion to how often the player gets them wrong, so countries they already
+ * know come up less and the ones they miss come up more.
+ * <p>
+ * Each question's weight is the player's smoothed miss rate for its country and question type, from
+ * an {@link AnswerHistory}, with a floor so that nothing disappears entirely. Questions are sampled
+ * from an {@link AliasTable} in constant time. The table is not rebuilt on every answer; instead it
+ * keeps the weights it was built with, and each answer changes only the current weight of the questions
+ * it affects:
+ * <ul>
+ *     <li>a question whose weight fell is still drawn from the table, but accepted only with
+ *     probability current / table weight, and redrawn otherwise;</li>
+ *     <li>a question whose weight rose keeps its table share and has the rest in a small overflow
+ *     list, which is drawn from in proportion to its total.</li>
+ * </ul>
+ * Together these sample exactly in proportion to the current weights. The table is rebuilt in linear
+ * time only once the overflow list grows past the square root of the number of questions, or once
+ * more than half of the table's draws would be rejected, so the cost per answer stays constant on
+ * average with tens of thousands of questions.
+ * <p>
+ * A question dealt recently is not dealt again until a few others have been, so one game does not
+ * repeat its hardest question over and over.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class AdaptiveQuestionDeck implements QuestionSource
+{
+    // Even questions the player always gets right keep this weight, against 1 for always wrong
+    private static final double MIN_WEIGHT = 0.05;
+    private static final double MIN_ACCEPTANCE = 0.5;
+    private static final int RECENT_QUESTIONS = 10;
+    private static final int NOT_IN_OVERFLOW = -1;
+
+    private final CountryCatalog catalog;
+    private final AnswerHistory history;
+    private final double priorMissRate;
+    private final Random random;
+    private final long[] questions;
+    private final int[] firstQuestion;
+    private final double[] weights;
+    private final int[] overflow;
+    private final int[] overflowPosition;
+    private final int overflowLimit;
+    private final long[] recent;
+    private double[] tableWeights;
+    private AliasTable table;
+    private double tableMass;
+    private double acceptedMass;
+    private double overflowMass;
+    private int overflowCount;
+    private int recentCount;
+    private int nextRecent;
+
+    /**
+     * Weights every question the catalog can produce by the player's history.
+     *
+     * @param catalog       the countries to ask about
+     * @param seed          the seed for the dealing order
+     * @param history       the player's answers so far, which this deck adds to
+     * @param priorMissRate the miss rate assumed for questions the player has not answered;
+     *                      see {@link AnswerHistory#priorMissRate(ScoreSummary)}
+     */
+    AdaptiveQuestionDeck(final CountryCatalog catalog, final long seed, final AnswerHistory history,
+                         final double priorMissRate)
+    {
+        this(catalog, seed, history, priorMissRate, QuestionDeck.everyCountry(catalog));
+    }
+
+    /**
+     * Weights every question about the given countries by the player's history.
+     *
+     * @param catalog       the countries to ask about
+     * @param seed          the seed for the dealing order
+     * @param history       the player's answers so far, which this deck adds to
+     * @param priorMissRate the miss rate assumed for questions the player has not answered
+     * @param countries     the ids of the countries to include
+     */
+    AdaptiveQuestionDeck(final CountryCatalog catalog, final long seed, final AnswerHistory history,
+                         final double priorMissRate, final BitSet countries)
+    {
+        this.catalog = catalog;
+        this.history = history;
+        this.priorMissRate = priorMissRate;
+        this.random = new Random(seed);
+        this.firstQuestion = new int[catalog.size()];
+
+        int questionCount = 0;
+        for(int id = countries.nextSetBit(0); id >= 0 && id < catalog.size(); id = countries.nextSetBit(id + 1))
+        {
+            firstQuestion[id] = questionCount;
+            questionCount += QuestionDeck.FIRST_FACT_SLOT + catalog.factCount(id);
+        }
+
+        this.questions = new long[questionCount];
+        this.weights = new double[questionCount];
+
+        for(int id = countries.nextSetBit(0); id >= 0 && id < catalog.size(); id = countries.nextSetBit(id + 1))
+        {
+            final int slots = QuestionDeck.FIRST_FACT_SLOT + catalog.factCount(id);
+
+            for(int slot = 0; slot < slots; slot++)
+            {
+                final long question = QuestionDeck.pack(id, slot);
+
+                questions[firstQuestion[id] + slot] = question;
+                weights[firstQuestion[id] + slot] = weightOf(id, QuestionDeck.questionType(question));
+            }
+        }
+
+        this.overflow = new int[questionCount];
+        this.overflowPosition = new int[questionCount];
+        this.overflowLimit = Math.max(1, (int) Math.sqrt(questionCount));
+        this.recent = new long[Math.min(RECENT_QUESTIONS, questionCount / 2)];
+
+        Arrays.fill(overflowPosition, NOT_IN_OVERFLOW);
+        if(questionCount > 0)
+        {
+            rebuild();
+        }
+    }
+
+    @Override
+    public CountryCatalog catalog()
+    {
+        return catalog;
+    }
+
+    /**
+     * Deals a question, choosing each question with probability proportional to its weight
+     * among those not dealt recently.
+     *
+     * @return the packed question
+     * @throws IllegalStateException if the catalog has no countries
+     */
+    @Override
+    public long deal()
+    {
+        if(questions.length == 0)
+        {
+            throw new IllegalStateException("There are no countries to ask about");
+        }
+
+        while(true)
+        {
+            final long question = questions[sample()];
+
+            if(!isRecent(question))
+            {
+                remember(question);
+                return question;
+            }
+        }
+    }
+
+    /**
+     * Adds the answer to the history and reweights the questions it affects: the question itself,
+     * or every fact about the country for a fact question, since they share a miss rate.
+     *
+     * @param question the question, as returned by {@link #deal()}
+     * @param outcome  how the player answered
+     */
+    @Override
+    public void recordAnswer(final long question, final AnswerOutcome outcome)
+    {
+        final int id = QuestionDeck.countryId(question);
+        final QuestionType type = QuestionDeck.questionType(question);
+
+        history.record(catalog.nameAt(id), type, outcome);
+
+        final double weight = weightOf(id, type);
+        if(type == QuestionType.FACT_TO_COUNTRY)
+        {
+            for(int fact = 0; fact < catalog.factCount(id); fact++)
+            {
+                setWeight(firstQuestion[id] + QuestionDeck.FIRST_FACT_SLOT + fact, weight);
+            }
+        }
+        else
+        {
+            setWeight(firstQuestion[id] + QuestionDeck.slot(question), weight);
+        }
+    }
+
+    /**
+     * Returns the current weight of a question.
+     *
+     * @param question a packed question from this deck's catalog
+     * @return its weight
+     */
+    double currentWeight(final long question)
+    {
+        return weights[firstQuestion[QuestionDeck.countryId(question)] + QuestionDeck.slot(question)];
+    }
+
+    /**
+     * Draws a question index in proportion to the current weights: from the table with rejection
+     * for questions whose weight fell, or from the overflow for the part of a weight that rose.
+     */
+    private int sample()
+    {
+        while(true)
+        {
+            final double draw = random.nextDouble() * (tableMass + overflowMass);
+
+            if(draw < tableMass)
+            {
+                final int index = table.sample(random);
+
+                if(random.nextDouble() * tableWeights[index] < Math.min(weights[index], tableWeights[index]))
+                {
+                    return index;
+                }
+            }
+            else if(overflowCount > 0)
+            {
+                double remaining = draw - tableMass;
+
+                for(int i = 0; i < overflowCount; i++)
+                {
+                    final int index = overflow[i];
+
+                    remaining -= weights[index] - tableWeights[index];
+                    if(remaining < 0.0)
+                    {
+                        return index;
+                    }
+                }
+
+                // Rounding left a sliver past the last excess
+                return overflow[overflowCount - 1];
+            }
+        }
+    }
+
+    private void setWeight(final int index, final double weight)
+    {
+        final double oldExcess = Math.max(0.0, weights[index] - tableWeights[index]);
+        final double oldAccepted = Math.min(weights[index], tableWeights[index]);
+
+        weights[index] = weight;
+
+        final double newExcess = Math.max(0.0, weight - tableWeights[index]);
+        final double newAccepted = Math.min(weight, tableWeights[index]);
+
+        overflowMass += newExcess - oldExcess;
+        acceptedMass += newAccepted - oldAccepted;
+
+        if(newExcess > 0.0 && overflowPosition[index] == NOT_IN_OVERFLOW)
+        {
+            overflowPosition[index] = overflowCount;
+            overflow[overflowCount++] = index;
+        }
+        else if(newExcess == 0.0 && overflowPosition[index] != NOT_IN_OVERFLOW)
+        {
+            final int position = overflowPosition[index];
+            final int last = overflow[--overflowCount];
+
+            overflow[position] = last;
+            overflowPosition[last] = position;
+            overflowPosition[index] = NOT_IN_OVERFLOW;
+        }
+
+        if(overflowCount > overflowLimit || acceptedMass < tableMass * MIN_ACCEPTANCE)
+        {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the alias table from the current weights and empties the overflow.
+     */
+    private void rebuild()
+    {
+        tableWeights = weights.clone();
+        table = new AliasTable(tableWeights);
+
+        double total = 0.0;
+        for(final double weight : tableWeights)
+        {
+            total += weight;
+        }
+
+        tableMass = total;
+        acceptedMass = total;
+        overflowMass = 0.0;
+
+        for(int i = 0; i < overflowCount; i++)
+        {
+            overflowPosition[overflow[i]] = NOT_IN_OVERFLOW;
+        }
+        overflowCount = 0;
+    }
+
+    private double weightOf(final int countryId, final QuestionType type)
+    {
+        return Math.max(MIN_WEIGHT, history.missRate(catalog.nameAt(countryId), type, priorMissRate));
+    }
+
+    private boolean isRecent(final long question)
+    {
+        for(int i = 0; i < recentCount; i++)
+        {
+            if(recent[i] == question)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remember(final long question)
+    {
+        if(recent.length == 0)
+        {
+            return;
+        }
+
+        recent[nextRecent] = question;
+        nextRecent = (nextRecent + 1) % recent.length;
+        recentCount = Math.min(recentCount + 1, recent.length);
+    }
+}
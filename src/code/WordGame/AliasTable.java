@@ -0,0 +1,113 @@
+package WordGame;
+
+import java.util.Random;
+
+/**
+ * Samples an index in proportion to fixed weights in constant time, using Vose's alias method.
+ * <p>
+ * Every index owns one column of equal height. A column holds part of its own index's weight and,
+ * if that is not enough to fill it, the overflow of one heavier index, its alias. Sampling picks a
+ * column uniformly and then the column's index or its alias, so it costs two random numbers
+ * however many indexes there are. Building the table is linear in the number of weights.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class AliasTable
+{
+    private final double[] ownShare;
+    private final int[] alias;
+
+    /**
+     * Builds a table over the given weights.
+     *
+     * @param weights the non-negative weights, at least one of them positive
+     * @throws IllegalArgumentException if there are no weights or they add up to zero
+     */
+    AliasTable(final double[] weights)
+    {
+        final int count = weights.length;
+        double total = 0.0;
+
+        for(final double weight : weights)
+        {
+            total += weight;
+        }
+        if(count == 0 || !(total > 0.0))
+        {
+            throw new IllegalArgumentException("An alias table needs a positive total weight");
+        }
+
+        this.ownShare = new double[count];
+        this.alias = new int[count];
+
+        final int[] small = new int[count];
+        final int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        // Scale so an index of average weight exactly fills its column
+        for(int i = 0; i < count; i++)
+        {
+            ownShare[i] = weights[i] * count / total;
+            if(ownShare[i] < 1.0)
+            {
+                small[smallCount++] = i;
+            }
+            else
+            {
+                large[largeCount++] = i;
+            }
+        }
+
+        while(smallCount > 0 && largeCount > 0)
+        {
+            final int under = small[--smallCount];
+            final int over = large[--largeCount];
+
+            alias[under] = over;
+            ownShare[over] -= 1.0 - ownShare[under];
+
+            if(ownShare[over] < 1.0)
+            {
+                small[smallCount++] = over;
+            }
+            else
+            {
+                large[largeCount++] = over;
+            }
+        }
+
+        // Whatever is left is full up to rounding error
+        while(largeCount > 0)
+        {
+            ownShare[large[--largeCount]] = 1.0;
+        }
+        while(smallCount > 0)
+        {
+            ownShare[small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+     * Returns the number of indexes the table samples from.
+     *
+     * @return the number of weights it was built over
+     */
+    int size()
+    {
+        return ownShare.length;
+    }
+
+    /**
+     * Samples an index.
+     *
+     * @param random the source of randomness
+     * @return an index, chosen with probability proportional to its weight
+     */
+    int sample(final Random random)
+    {
+        final int column = random.nextInt(ownShare.length);
+        return random.nextDouble() < ownShare[column] ? column : alias[column];
+    }
+}
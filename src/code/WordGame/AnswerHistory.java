@@ -0,0 +1,95 @@
+package WordGame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How often a player has missed each kind of question about each country, used to ask more about
+ * what they get wrong.
+ * <p>
+ * Countries are keyed by name, so the history carries over when the facts are reloaded into a new
+ * catalog. A history belongs to one player; a {@link WordGame} keeps one for its session, and a front
+ * end that knows who is playing can hand the same history to each of that player's sessions.
+ * <p>
+ * A question asked only a few times would otherwise swing between never and always missed, so each
+ * miss rate is smoothed towards a prior, normally the miss rate across every recorded {@link Score}.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class AnswerHistory
+{
+    static final double DEFAULT_PRIOR_MISS_RATE = 0.5;
+
+    // The prior counts as this many answers
+    private static final double PRIOR_ANSWERS = 2.0;
+    private static final int ASKED = 0;
+    private static final int MISSED = 1;
+    private static final int FIELDS = 2;
+    private static final int QUESTION_TYPES = QuestionType.values().length;
+
+    private final Map<String, double[]> countsByCountry;
+
+    /**
+     * Creates an empty history.
+     */
+    AnswerHistory()
+    {
+        this.countsByCountry = new HashMap<>();
+    }
+
+    /**
+     * Returns the miss rate across every question in a score summary, counting an answer right on the
+     * second attempt as half a miss.
+     *
+     * @param summary the summary of every recorded score
+     * @return the miss rate, or {@value DEFAULT_PRIOR_MISS_RATE} if nothing has been recorded
+     */
+    static double priorMissRate(final ScoreSummary summary)
+    {
+        final long answered = summary.totalCorrectFirstAttempt() + summary.totalCorrectSecondAttempt()
+                + summary.totalIncorrectTwoAttempts();
+
+        if(answered == 0)
+        {
+            return DEFAULT_PRIOR_MISS_RATE;
+        }
+
+        return (summary.totalCorrectSecondAttempt() * AnswerOutcome.CORRECT_SECOND_ATTEMPT.getMissWeight()
+                + summary.totalIncorrectTwoAttempts() * AnswerOutcome.INCORRECT.getMissWeight()) / answered;
+    }
+
+    /**
+     * Records how the player did on a question.
+     *
+     * @param country the country the question was about
+     * @param type    the type of question
+     * @param outcome how the player answered
+     */
+    synchronized void record(final String country, final QuestionType type, final AnswerOutcome outcome)
+    {
+        final double[] counts = countsByCountry.computeIfAbsent(country, name -> new double[QUESTION_TYPES * FIELDS]);
+        final int base = type.ordinal() * FIELDS;
+
+        counts[base + ASKED]++;
+        counts[base + MISSED] += outcome.getMissWeight();
+    }
+
+    /**
+     * Returns the player's smoothed miss rate for a kind of question about a country.
+     *
+     * @param country        the country
+     * @param type           the type of question
+     * @param priorMissRate  the rate assumed before the player has answered any such question
+     * @return the miss rate, from 0 to 1
+     */
+    synchronized double missRate(final String country, final QuestionType type, final double priorMissRate)
+    {
+        final double[] counts = countsByCountry.get(country);
+        final int base = type.ordinal() * FIELDS;
+        final double asked = counts == null ? 0.0 : counts[base + ASKED];
+        final double missed = counts == null ? 0.0 : counts[base + MISSED];
+
+        return (missed + priorMissRate * PRIOR_ANSWERS) / (asked + PRIOR_ANSWERS);
+    }
+}
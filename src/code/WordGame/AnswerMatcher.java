@@ -0,0 +1,325 @@
+package WordGame;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether a typed answer names the expected country or capital.
+ * <p>
+ * Every country and capital name in a {@link CountryCatalog} is normalized once (case folded,
+ * diacritics and punctuation stripped, a leading "the" dropped) and stored, together with common
+ * aliases, in a BK-tree keyed by edit distance. An answer is accepted if it normalizes to the
+ * expected name or one of its aliases, or if its closest entries within a small, length-based edit
+ * distance belong to the expected name. Because the whole catalog is searched, a typo that is closer
+ * to a different country or capital is still marked wrong.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class AnswerMatcher
+{
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern DROPPED_PUNCTUATION = Pattern.compile("[.'\\u2019]");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern PARENTHETICAL = Pattern.compile("\\s*\\(.*?\\)");
+    private static final String SPACE = " ";
+    private static final String LEADING_ARTICLE = "the ";
+    private static final String SAINT_ABBREVIATION = "st ";
+    private static final String SAINT = "saint ";
+    private static final String NAME_INVERSION = ",";
+    private static final int NAME_INVERSION_PARTS = 2;
+
+    private static final int SHORT_ANSWER_LENGTH = 3;
+    private static final int MEDIUM_ANSWER_LENGTH = 6;
+    private static final int NO_TYPOS = 0;
+    private static final int ONE_TYPO = 1;
+    private static final int TWO_TYPOS = 2;
+
+    /**
+     * Common alternative names, keyed by the alias and mapped to the name used in the fact files.
+     * Aliases whose target is not in the catalog are ignored.
+     */
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("USA", "United States"),
+            Map.entry("US", "United States"),
+            Map.entry("United States of America", "United States"),
+            Map.entry("America", "United States"),
+            Map.entry("UK", "United Kingdom"),
+            Map.entry("Great Britain", "United Kingdom"),
+            Map.entry("Britain", "United Kingdom"),
+            Map.entry("UAE", "United Arab Emirates"),
+            Map.entry("DRC", "Congo, Democratic Republic of the"),
+            Map.entry("DR Congo", "Congo, Democratic Republic of the"),
+            Map.entry("Congo-Kinshasa", "Congo, Democratic Republic of the"),
+            Map.entry("Congo-Brazzaville", "Congo, Republic of the"),
+            Map.entry("Czechia", "Czech Republic"),
+            Map.entry("Timor-Leste", "East Timor"),
+            Map.entry("Cape Verde", "Cabo Verde"),
+            Map.entry("Swaziland", "Eswatini (formerly Swaziland)"),
+            Map.entry("Holland", "Netherlands"),
+            Map.entry("Turkiye", "Turkey"),
+            Map.entry("Burma", "Myanmar"),
+            Map.entry("Ivory Coast", "C\u00f4te d'Ivoire"),
+            Map.entry("Vatican", "Vatican City"),
+            Map.entry("Washington", "Washington, D.C."),
+            Map.entry("DC", "Washington, D.C."),
+            Map.entry("Kiev", "Kyiv")
+    );
+
+    private final Map<String, String> exactKeys;
+    private final BkTree tree;
+
+    /**
+     * Builds the matcher from every country and capital name in the catalog.
+     *
+     * @param catalog the countries answers are checked against
+     */
+    AnswerMatcher(final CountryCatalog catalog)
+    {
+        final Map<String, String> canonicalByName = new HashMap<>();
+
+        for(int id = 0; id < catalog.size(); id++)
+        {
+            addName(canonicalByName, catalog.nameAt(id));
+            addName(canonicalByName, catalog.capitalAt(id));
+        }
+
+        for(final Map.Entry<String, String> alias : ALIASES.entrySet())
+        {
+            final String target = canonicalByName.get(normalize(alias.getValue()));
+            if(target != null)
+            {
+                canonicalByName.putIfAbsent(normalize(alias.getKey()), target);
+            }
+        }
+
+        exactKeys = Map.copyOf(canonicalByName);
+        tree = new BkTree();
+
+        for(final Map.Entry<String, String> entry : exactKeys.entrySet())
+        {
+            tree.add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Checks whether the answer names the same country or capital as the correct answer.
+     *
+     * @param answer        the answer the player typed
+     * @param correctAnswer the expected country or capital name
+     * @return true if the answer should be accepted
+     */
+    boolean matches(final String answer, final String correctAnswer)
+    {
+        final String answerKey = normalize(answer);
+        final String correctKey = normalize(correctAnswer);
+        final String expected = exactKeys.getOrDefault(correctKey, correctKey);
+
+        if(answerKey.isEmpty())
+        {
+            return false;
+        }
+        if(answerKey.equals(correctKey))
+        {
+            return true;
+        }
+
+        final String exact = exactKeys.get(answerKey);
+        if(exact != null)
+        {
+            return exact.equals(expected);
+        }
+
+        final int maxDistance = allowedTypos(answerKey.length());
+        if(maxDistance == NO_TYPOS)
+        {
+            return false;
+        }
+
+        final List<String> closest = tree.closest(answerKey, maxDistance);
+        return !closest.isEmpty() && closest.stream().allMatch(expected::equals);
+    }
+
+    /**
+     * Normalizes a name for comparison: Unicode case folding, diacritics removed, periods and
+     * apostrophes dropped, other punctuation turned into single spaces, a leading "the" removed
+     * and "st" expanded to "saint".
+     *
+     * @param text the text to normalize
+     * @return the normalized key
+     */
+    static String normalize(final String text)
+    {
+        String key = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        key = COMBINING_MARKS.matcher(key).replaceAll("");
+        key = key.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        key = DROPPED_PUNCTUATION.matcher(key).replaceAll("");
+        key = SEPARATORS.matcher(key).replaceAll(SPACE).trim();
+
+        if(key.startsWith(LEADING_ARTICLE))
+        {
+            key = key.substring(LEADING_ARTICLE.length());
+        }
+        if(key.startsWith(SAINT_ABBREVIATION))
+        {
+            key = SAINT + key.substring(SAINT_ABBREVIATION.length());
+        }
+
+        return key;
+    }
+
+    /**
+     * Registers a name under its normalized key, plus the variants players commonly type:
+     * the name without a parenthetical, and an inverted "Congo, Republic of the" as "Republic of the Congo".
+     */
+    private static void addName(final Map<String, String> canonicalByName, final String name)
+    {
+        final String canonical = normalize(name);
+        canonicalByName.putIfAbsent(canonical, canonical);
+
+        final String withoutParenthetical = PARENTHETICAL.matcher(name).replaceAll("");
+        canonicalByName.putIfAbsent(normalize(withoutParenthetical), canonical);
+
+        final String[] inverted = withoutParenthetical.split(NAME_INVERSION, NAME_INVERSION_PARTS);
+        if(inverted.length == NAME_INVERSION_PARTS)
+        {
+            canonicalByName.putIfAbsent(normalize(inverted[1] + SPACE + inverted[0]), canonical);
+        }
+    }
+
+    /**
+     * Returns how many typos are tolerated in an answer of the given normalized length.
+     */
+    private static int allowedTypos(final int length)
+    {
+        if(length <= SHORT_ANSWER_LENGTH)
+        {
+            return NO_TYPOS;
+        }
+        return length <= MEDIUM_ANSWER_LENGTH ? ONE_TYPO : TWO_TYPOS;
+    }
+
+    /**
+     * A Burkhard-Keller tree over normalized names. Children are keyed by their Levenshtein
+     * distance to the parent, so a search within distance d only visits children whose key
+     * is within d of the query's distance to the parent.
+     */
+    private static final class BkTree
+    {
+        private Node root;
+
+        void add(final String key, final String canonical)
+        {
+            if(root == null)
+            {
+                root = new Node(key, canonical);
+                return;
+            }
+
+            Node node = root;
+            while(true)
+            {
+                final int distance = levenshtein(key, node.key);
+                final Node child = node.children.get(distance);
+
+                if(child == null)
+                {
+                    node.children.put(distance, new Node(key, canonical));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        /**
+         * Returns the canonical names of every entry at the smallest distance to the query, if that
+         * distance is within the limit.
+         */
+        List<String> closest(final String query, final int maxDistance)
+        {
+            final List<String> closest = new ArrayList<>();
+            final List<Node> pending = new ArrayList<>();
+            int bestDistance = maxDistance;
+
+            if(root != null)
+            {
+                pending.add(root);
+            }
+
+            while(!pending.isEmpty())
+            {
+                final Node node = pending.remove(pending.size() - 1);
+                final int distance = levenshtein(query, node.key);
+
+                if(distance < bestDistance)
+                {
+                    bestDistance = distance;
+                    closest.clear();
+                }
+                if(distance == bestDistance && !closest.contains(node.canonical))
+                {
+                    closest.add(node.canonical);
+                }
+
+                for(final Map.Entry<Integer, Node> child : node.children.entrySet())
+                {
+                    if(Math.abs(child.getKey() - distance) <= bestDistance)
+                    {
+                        pending.add(child.getValue());
+                    }
+                }
+            }
+
+            return closest;
+        }
+
+        private static final class Node
+        {
+            private final String key;
+            private final String canonical;
+            private final Map<Integer, Node> children = new HashMap<>();
+
+            Node(final String key, final String canonical)
+            {
+                this.key = key;
+                this.canonical = canonical;
+            }
+        }
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings using two rolling rows.
+     */
+    private static int levenshtein(final String left, final String right)
+    {
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+
+        for(int j = 0; j <= right.length(); j++)
+        {
+            previous[j] = j;
+        }
+
+        for(int i = 1; i <= left.length(); i++)
+        {
+            current[0] = i;
+
+            for(int j = 1; j <= right.length(); j++)
+            {
+                final int substitution = previous[j - 1] + (left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j] + 1, current[j - 1] + 1));
+            }
+
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[right.length()];
+    }
+}
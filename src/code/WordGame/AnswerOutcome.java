@@ -0,0 +1,31 @@
+package WordGame;
+
+/**
+ * How a player did on one question, with how much it counts as a mistake when weighting questions.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+enum AnswerOutcome
+{
+    CORRECT_FIRST_ATTEMPT(0.0),
+    CORRECT_SECOND_ATTEMPT(0.5),
+    INCORRECT(1.0);
+
+    private final double missWeight;
+
+    AnswerOutcome(final double missWeight)
+    {
+        this.missWeight = missWeight;
+    }
+
+    /**
+     * Returns how much the outcome counts as a mistake, from 0 for a first-attempt answer to 1 for a miss.
+     *
+     * @return the miss weight
+     */
+    double getMissWeight()
+    {
+        return missWeight;
+    }
+}
@@ -0,0 +1,40 @@
+package WordGame;
+
+import java.util.Scanner;
+
+/**
+ * Plays a {@link WordGame} on standard input and output.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class ConsoleGameIO implements GameIO
+{
+    private final Scanner scanner;
+
+    /**
+     * Creates console input and output reading from {@link System#in}.
+     */
+    ConsoleGameIO()
+    {
+        this.scanner = new Scanner(System.in);
+    }
+
+    @Override
+    public String readLine()
+    {
+        return scanner.nextLine();
+    }
+
+    @Override
+    public void print(final String text)
+    {
+        System.out.print(text);
+    }
+
+    @Override
+    public void println(final String text)
+    {
+        System.out.println(text);
+    }
+}
@@ -1,13 +1,30 @@
 package WordGame;
 
+import java.util.Map;
+
 /**
- * Represents a country with its name, capital city, and a set of interesting facts.
+ * Represents a country with its name, capital city, a set of interesting facts, and optional
+ * attributes such as its region that themed quizzes can filter on.
  *
  * @param name          the name of the country
  * @param capitalCityName the name of the country's capital city
  * @param facts         an array of interesting facts about the country
+ * @param attributes    the country's attributes, keyed by lower-case attribute name
  *
  * @author Ben Henry
- * @version 1.0
+ * @version 1.1
  */
-record Country(String name, String capitalCityName, String[] facts) {}
+record Country(String name, String capitalCityName, String[] facts, Map<String, String> attributes)
+{
+    /**
+     * Creates a country without attributes.
+     *
+     * @param name            the name of the country
+     * @param capitalCityName the name of the country's capital city
+     * @param facts           an array of interesting facts about the country
+     */
+    Country(final String name, final String capitalCityName, final String[] facts)
+    {
+        this(name, capitalCityName, facts, Map.of());
+    }
+}
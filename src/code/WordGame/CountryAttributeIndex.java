@@ -0,0 +1,122 @@
+package WordGame;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bitsets over the dense country ids of a {@link CountryCatalog}, one per attribute value, per
+ * attribute name and per capital initial, so a {@link CountryFilter} can select countries with a
+ * few word-wide operations instead of scanning every country.
+ * <p>
+ * Attribute values are matched without regard to case, so "@region=europe" and "@region=Europe"
+ * select the same countries. Capital initials are taken after {@link AnswerMatcher#normalize(String)},
+ * so an accented initial counts as the plain letter, as it does when a player types it.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class CountryAttributeIndex
+{
+    private static final char VALUE_SEPARATOR = '=';
+
+    private final int size;
+    private final Map<String, BitSet> byValue;
+    private final Map<String, BitSet> byName;
+    private final Map<Character, BitSet> byCapitalInitial;
+
+    private CountryAttributeIndex(final int size, final Map<String, BitSet> byValue, final Map<String, BitSet> byName,
+                                  final Map<Character, BitSet> byCapitalInitial)
+    {
+        this.size = size;
+        this.byValue = byValue;
+        this.byName = byName;
+        this.byCapitalInitial = byCapitalInitial;
+    }
+
+    /**
+     * Indexes the attributes and capitals of every country in the catalog.
+     *
+     * @param catalog the countries to index
+     * @return a new index
+     */
+    static CountryAttributeIndex of(final CountryCatalog catalog)
+    {
+        final Map<String, BitSet> byValue = new HashMap<>();
+        final Map<String, BitSet> byName = new HashMap<>();
+        final Map<Character, BitSet> byCapitalInitial = new HashMap<>();
+
+        for(int id = 0; id < catalog.size(); id++)
+        {
+            for(final Map.Entry<String, String> attribute : catalog.attributesAt(id).entrySet())
+            {
+                byValue.computeIfAbsent(valueKey(attribute.getKey(), attribute.getValue()), key -> new BitSet()).set(id);
+                byName.computeIfAbsent(attribute.getKey(), key -> new BitSet()).set(id);
+            }
+
+            final String capital = AnswerMatcher.normalize(catalog.capitalAt(id));
+            if(!capital.isEmpty())
+            {
+                byCapitalInitial.computeIfAbsent(capital.charAt(0), initial -> new BitSet()).set(id);
+            }
+        }
+
+        return new CountryAttributeIndex(catalog.size(), byValue, byName, byCapitalInitial);
+    }
+
+    /**
+     * Returns the number of countries the index covers.
+     *
+     * @return the number of dense ids
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the countries whose attribute has the given value.
+     *
+     * @param name  the attribute name, in any case
+     * @param value the value, in any case
+     * @return a new bitset of matching country ids
+     */
+    BitSet withValue(final String name, final String value)
+    {
+        return copyOf(byValue.get(valueKey(name.toLowerCase(Locale.ROOT), value)));
+    }
+
+    /**
+     * Returns the countries that have the attribute at all.
+     *
+     * @param name the attribute name, in any case
+     * @return a new bitset of matching country ids
+     */
+    BitSet withAttribute(final String name)
+    {
+        return copyOf(byName.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Returns the countries whose capital starts with the given letter.
+     *
+     * @param initial the letter, which is normalized like an answer
+     * @return a new bitset of matching country ids
+     */
+    BitSet withCapitalInitial(final char initial)
+    {
+        final String normalized = AnswerMatcher.normalize(String.valueOf(initial));
+        return normalized.isEmpty() ? new BitSet() : copyOf(byCapitalInitial.get(normalized.charAt(0)));
+    }
+
+    private static String valueKey(final String name, final String value)
+    {
+        return name + VALUE_SEPARATOR + value.toLowerCase(Locale.ROOT);
+    }
+
+    private static BitSet copyOf(final BitSet countries)
+    {
+        return countries == null ? new BitSet() : (BitSet) countries.clone();
+    }
+}
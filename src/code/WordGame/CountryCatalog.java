@@ -0,0 +1,340 @@
+package WordGame;
+
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An immutable collection of countries behind a {@link World}. Countries are sorted by name and
+ * identified by their dense index in that order; {@link Country} records are only created when a
+ * caller asks for one. Implementations differ in where the strings live: {@link CountryStore} keeps
+ * everything in memory, while {@link LazyCountryIndex} keeps only the headers and reads facts on demand.
+ * <p>
+ * The answer matcher and the indexes over facts and attributes are built from the catalog the first
+ * time they are asked for. Since the catalog never changes, each is then kept for the catalog's
+ * lifetime, so it is built at most once per catalog.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+abstract class CountryCatalog
+{
+    static final int NOT_FOUND = -1;
+
+    /**
+     * Orders names by Unicode code point, which is the same order as their UTF-8 bytes.
+     */
+    static final Comparator<String> NAME_ORDER = (left, right) -> {
+        int leftIndex = 0;
+        int rightIndex = 0;
+
+        while(leftIndex < left.length() && rightIndex < right.length())
+        {
+            final int leftCodePoint = left.codePointAt(leftIndex);
+            final int rightCodePoint = right.codePointAt(rightIndex);
+
+            if(leftCodePoint != rightCodePoint)
+            {
+                return Integer.compare(leftCodePoint, rightCodePoint);
+            }
+
+            leftIndex += Character.charCount(leftCodePoint);
+            rightIndex += Character.charCount(rightCodePoint);
+        }
+
+        return Integer.compare(left.length() - leftIndex, right.length() - rightIndex);
+    };
+
+    private final Map<String, Country> mapView = new MapView();
+    private final Memo<AnswerMatcher> answerMatcher = new Memo<>(AnswerMatcher::new);
+    private final Memo<FactIndex> factIndex = new Memo<>(FactIndex::of);
+    private final Memo<FactGiveaways> factGiveaways = new Memo<>(FactGiveaways::of);
+    private final Memo<CountryAttributeIndex> attributeIndex = new Memo<>(CountryAttributeIndex::of);
+
+    /**
+     * Returns the number of countries in the catalog.
+     *
+     * @return the number of countries
+     */
+    abstract int size();
+
+    /**
+     * Finds the dense id of a country by name.
+     *
+     * @param name the country name
+     * @return the id of the country, or {@value NOT_FOUND} if it is not in the catalog
+     */
+    abstract int indexOf(String name);
+
+    abstract String nameAt(int id);
+
+    abstract String capitalAt(int id);
+
+    /**
+     * Returns the attributes of the country with the given id, such as its region.
+     *
+     * @param id the dense id of the country
+     * @return the attributes keyed by lower-case name, possibly empty
+     */
+    abstract Map<String, String> attributesAt(int id);
+
+    abstract int factCount(int id);
+
+    abstract String factAt(int id, int factIndex);
+
+    /**
+     * Returns the name of the file the country with the given id was read from.
+     *
+     * @param id the dense id of the country
+     * @return the source file name, or {@link CountryStore#NO_SOURCE} if it was added directly
+     */
+    abstract String sourceAt(int id);
+
+    /**
+     * Returns the distinct source file names of every country, sorted.
+     *
+     * @return the source file names
+     */
+    abstract String[] sources();
+
+    /**
+     * Returns a copy of this catalog in which the countries of each given file are re-read from disk.
+     * A file that no longer exists removes its countries; a file that cannot be read keeps its old ones.
+     *
+     * @param changedFiles   the files to re-read
+     * @param fileParseNanos where the time spent on each file is recorded
+     * @return a new catalog
+     */
+    abstract CountryCatalog withReloadedFiles(Collection<Path> changedFiles, Map<Path, Long> fileParseNanos);
+
+    /**
+     * Creates a Country view of the country with the given id.
+     *
+     * @param id the dense id of the country
+     * @return a new Country record holding the country's strings
+     */
+    Country countryAt(final int id)
+    {
+        final String[] facts = new String[factCount(id)];
+
+        for(int i = 0; i < facts.length; i++)
+        {
+            facts[i] = factAt(id, i);
+        }
+
+        return new Country(nameAt(id), capitalAt(id), facts, attributesAt(id));
+    }
+
+    /**
+     * Retrieves a Country by its name.
+     *
+     * @param name the name of the country
+     * @return a Country view, or null if the country is not in the catalog
+     */
+    Country getCountry(final String name)
+    {
+        final int id = indexOf(name);
+        return id == NOT_FOUND ? null : countryAt(id);
+    }
+
+    /**
+     * Returns the answer matcher for this catalog's country and capital names, building it on first use.
+     *
+     * @return the answer matcher
+     */
+    AnswerMatcher answerMatcher()
+    {
+        return answerMatcher.get();
+    }
+
+    /**
+     * Returns the full-text index over this catalog's facts, building it on first use.
+     *
+     * @return the fact index
+     */
+    FactIndex factIndex()
+    {
+        return factIndex.get();
+    }
+
+    /**
+     * Returns the finder for facts that name their own country or capital, building it on first use.
+     *
+     * @return the giveaway finder for this catalog's facts
+     */
+    FactGiveaways factGiveaways()
+    {
+        return factGiveaways.get();
+    }
+
+    /**
+     * Returns the bitset index over this catalog's attributes, building it on first use.
+     *
+     * @return the attribute index
+     */
+    CountryAttributeIndex attributeIndex()
+    {
+        return attributeIndex.get();
+    }
+
+    /**
+     * Returns a read-only map view of the catalog, keyed by country name.
+     * Values are created on access.
+     *
+     * @return a map of country names to Country views
+     */
+    Map<String, Country> asMap()
+    {
+        return mapView;
+    }
+
+    /**
+     * A value built from this catalog on first use and kept from then on. Threads that race on first
+     * use may each build it; the results are equivalent, so whichever is stored last is kept.
+     *
+     * @param <T> the type of the value
+     */
+    private final class Memo<T>
+    {
+        private final Function<CountryCatalog, T> build;
+        private volatile T value;
+
+        Memo(final Function<CountryCatalog, T> build)
+        {
+            this.build = build;
+        }
+
+        T get()
+        {
+            T built = value;
+
+            if(built == null)
+            {
+                built = build.apply(CountryCatalog.this);
+                value = built;
+            }
+
+            return built;
+        }
+    }
+
+    /**
+     * Read-only map over the catalog. Lookups go through {@link #indexOf(String)}; values are created on access.
+     */
+    private final class MapView extends AbstractMap<String, Country>
+    {
+        private final Set<Map.Entry<String, Country>> entrySet = new AbstractSet<>()
+        {
+            @Override
+            public Iterator<Map.Entry<String, Country>> iterator()
+            {
+                return new Iterator<>()
+                {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return next < size();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Country> next()
+                    {
+                        if(!hasNext())
+                        {
+                            throw new NoSuchElementException();
+                        }
+
+                        final int id = next++;
+                        return new SimpleImmutableEntry<>(nameAt(id), countryAt(id));
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return CountryCatalog.this.size();
+            }
+        };
+
+        private final Set<String> keySet = new AbstractSet<>()
+        {
+            @Override
+            public Iterator<String> iterator()
+            {
+                return new Iterator<>()
+                {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return next < size();
+                    }
+
+                    @Override
+                    public String next()
+                    {
+                        if(!hasNext())
+                        {
+                            throw new NoSuchElementException();
+                        }
+
+                        return nameAt(next++);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(final Object key)
+            {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size()
+            {
+                return CountryCatalog.this.size();
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<String, Country>> entrySet()
+        {
+            return entrySet;
+        }
+
+        @Override
+        public Set<String> keySet()
+        {
+            return keySet;
+        }
+
+        @Override
+        public int size()
+        {
+            return CountryCatalog.this.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object key)
+        {
+            return key instanceof String name && indexOf(name) != NOT_FOUND;
+        }
+
+        @Override
+        public Country get(final Object key)
+        {
+            return key instanceof String name ? getCountry(name) : null;
+        }
+    }
+}
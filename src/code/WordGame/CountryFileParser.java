@@ -0,0 +1,256 @@
+package WordGame;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses a single country facts file. The file is memory-mapped and decoded in one pass,
+ * so no reader is left open if parsing fails part way through.
+ * Each entry is a "Country:Capital" header line followed by one fact per line,
+ * with entries separated by blank lines. Lines of the form "@key=value" directly after the
+ * header are attributes rather than facts, such as "@region=Europe"; a bare "@island" means
+ * "@island=true". Keys are case-insensitive.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class CountryFileParser
+{
+    private static final String COUNTRY_CAPITAL_SEPARATOR = ":";
+    private static final String ATTRIBUTE_PREFIX = "@";
+    private static final char ATTRIBUTE_SEPARATOR = '=';
+    private static final String FLAG_VALUE = "true";
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+    private static final long START_OF_FILE = 0L;
+
+    static final int COUNTRY_NAME_INDEX = 0;
+    static final int CAPITAL_CITY_NAME_INDEX = 1;
+    static final int EXPECTED_HEADER_PARTS = 2;
+    static final int ZERO_ARRAY_SIZE = 0;
+
+    private CountryFileParser()
+    {
+    }
+
+    /**
+     * Memory-maps the given file and parses every country entry in it.
+     *
+     * @param filePath The path of the file to parse.
+     * @return A list of Country objects parsed from the file, in file order.
+     * @throws IOException If the file cannot be mapped or is not valid UTF-8.
+     */
+    static List<Country> parse(final Path filePath) throws IOException
+    {
+        final CharBuffer text;
+
+        try(FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ))
+        {
+            final MappedByteBuffer mapped;
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, START_OF_FILE, channel.size());
+            text = StandardCharsets.UTF_8.newDecoder().decode(mapped);
+        }
+
+        return parse(text, filePath);
+    }
+
+    /**
+     * Parses a single file into a staging map, recording how long it took.
+     * Nothing is staged for a file that cannot be read, so callers keep its previous countries.
+     *
+     * @param filePath       The file to parse.
+     * @param parsed         The staging map the countries are put into, keyed by file.
+     * @param fileParseNanos Where the parse time for the file is recorded.
+     */
+    static void parseInto(final Path filePath, final Map<Path, List<Country>> parsed,
+                          final Map<Path, Long> fileParseNanos)
+    {
+        final long startNanos = System.nanoTime();
+
+        try
+        {
+            parsed.put(filePath, parse(filePath));
+        } catch(final IOException e)
+        {
+            System.err.println("Error reading file " + filePath + ": " + e.getMessage());
+        }
+
+        fileParseNanos.put(filePath, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Parses country entries from already decoded file text.
+     *
+     * @param text     The decoded file contents.
+     * @param filePath The path the text came from, used in error messages.
+     * @return A list of Country objects parsed from the text, in file order.
+     */
+    static List<Country> parse(final CharSequence text, final Path filePath)
+    {
+        final List<Country> countries;
+        final LineCursor cursor;
+
+        countries = new ArrayList<>();
+        cursor = new LineCursor(text);
+
+        String line;
+        while((line = cursor.nextLine()) != null)
+        {
+            line = line.trim();
+
+            if(line.isEmpty())
+            {
+                continue;
+            }
+
+            final String[] headerParts;
+            headerParts = line.split(COUNTRY_CAPITAL_SEPARATOR);
+
+            if(!isValidCountryFormat(headerParts))
+            {
+                System.err.println("Invalid country-capital format in file " + filePath + " at line: " + line);
+                continue;
+            }
+
+            final List<String> factsList;
+            final Map<String, String> attributes;
+            final String countryName;
+            final String capitalCityName;
+
+            factsList = new ArrayList<>();
+            attributes = new LinkedHashMap<>();
+            countryName = headerParts[COUNTRY_NAME_INDEX].trim();
+            capitalCityName = headerParts[CAPITAL_CITY_NAME_INDEX].trim();
+
+            while((line = cursor.nextLine()) != null && !line.trim().isEmpty())
+            {
+                if(factsList.isEmpty() && isAttribute(line.trim()))
+                {
+                    parseAttribute(line.trim(), attributes, filePath);
+                }
+                else
+                {
+                    factsList.add(line.trim());
+                }
+            }
+
+            if(factsList.isEmpty())
+            {
+                System.err.println("No facts found for country: " + countryName);
+                continue;
+            }
+
+            countries.add(new Country(countryName, capitalCityName, factsList.toArray(new String[ZERO_ARRAY_SIZE]),
+                    Map.copyOf(attributes)));
+        }
+
+        return countries;
+    }
+
+    /**
+     * Validates the format of the country and capital line.
+     * The format should be "CountryName{@value COUNTRY_CAPITAL_SEPARATOR}CapitalCity".
+     *
+     * @param headerParts The parts of the line split by the colon.
+     * @return true if the format is valid, false otherwise.
+     */
+    static boolean isValidCountryFormat(final String[] headerParts)
+    {
+        return headerParts.length == EXPECTED_HEADER_PARTS
+                && !headerParts[COUNTRY_NAME_INDEX].trim().isEmpty()
+                && !headerParts[CAPITAL_CITY_NAME_INDEX].trim().isEmpty();
+    }
+
+    /**
+     * Checks whether a trimmed line in a country's entry is an attribute rather than a fact.
+     *
+     * @param line The trimmed line.
+     * @return true if the line starts with {@value ATTRIBUTE_PREFIX}.
+     */
+    static boolean isAttribute(final String line)
+    {
+        return line.startsWith(ATTRIBUTE_PREFIX);
+    }
+
+    /**
+     * Parses a trimmed "@key=value" or "@key" line into the attributes map. Keys are lower-cased;
+     * a line without a key is reported and skipped, and a repeated key keeps its last value.
+     *
+     * @param line       The trimmed attribute line.
+     * @param attributes The attributes parsed so far for the country.
+     * @param filePath   The file the line came from, used in error messages.
+     */
+    static void parseAttribute(final String line, final Map<String, String> attributes, final Path filePath)
+    {
+        final int separator = line.indexOf(ATTRIBUTE_SEPARATOR);
+        final String key = (separator < 0 ? line.substring(ATTRIBUTE_PREFIX.length())
+                : line.substring(ATTRIBUTE_PREFIX.length(), separator)).trim().toLowerCase(Locale.ROOT);
+        final String value = separator < 0 ? FLAG_VALUE : line.substring(separator + 1).trim();
+
+        if(key.isEmpty())
+        {
+            System.err.println("Invalid attribute in file " + filePath + " at line: " + line);
+            return;
+        }
+
+        attributes.put(key, value);
+    }
+
+    /**
+     * Walks decoded text one line at a time without copying the whole buffer,
+     * accepting both "\n" and "\r\n" line endings.
+     */
+    private static final class LineCursor
+    {
+        private final CharSequence text;
+        private int position;
+
+        LineCursor(final CharSequence text)
+        {
+            this.text = text;
+            this.position = 0;
+        }
+
+        /**
+         * Returns the next line without its terminator, or null at the end of the text.
+         *
+         * @return the next line, or null if there are no more lines
+         */
+        String nextLine()
+        {
+            final int length = text.length();
+
+            if(position >= length)
+            {
+                return null;
+            }
+
+            final int start = position;
+            int end = start;
+
+            while(end < length && text.charAt(end) != LINE_FEED)
+            {
+                end++;
+            }
+
+            position = end + 1;
+
+            if(end > start && text.charAt(end - 1) == CARRIAGE_RETURN)
+            {
+                end--;
+            }
+
+            return text.subSequence(start, end).toString();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package WordGame;
+
+import java.util.BitSet;
+
+/**
+ * A predicate over countries, such as "European island nations", that selects the countries a themed
+ * quiz asks about.
+ * <p>
+ * Filters are built from attribute and capital tests and combined with {@link #and}, {@link #or} and
+ * {@link #not}. Evaluating one against a catalog's {@link CountryAttributeIndex} never looks at a
+ * country: each test is a lookup of a precomputed bitset over dense country ids, and each combination
+ * is a word-wide AND, OR or complement, so a filter over a thousand countries costs a few dozen
+ * machine words per operator.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+@FunctionalInterface
+interface CountryFilter
+{
+    /**
+     * Evaluates the filter.
+     *
+     * @param index the attribute index of the catalog to select from
+     * @return a new bitset of the ids of the selected countries, which the caller may modify
+     */
+    BitSet select(CountryAttributeIndex index);
+
+    /**
+     * Selects every country.
+     *
+     * @return the filter
+     */
+    static CountryFilter all()
+    {
+        return index -> {
+            final BitSet countries = new BitSet(index.size());
+            countries.set(0, index.size());
+            return countries;
+        };
+    }
+
+    /**
+     * Selects countries whose attribute has the given value, such as {@code region} {@code Europe}.
+     * Names and values are matched without regard to case.
+     *
+     * @param name  the attribute name
+     * @param value the value
+     * @return the filter
+     */
+    static CountryFilter attribute(final String name, final String value)
+    {
+        return index -> index.withValue(name, value);
+    }
+
+    /**
+     * Selects countries that have an attribute with any value, such as a bare {@code @island} flag.
+     *
+     * @param name the attribute name
+     * @return the filter
+     */
+    static CountryFilter hasAttribute(final String name)
+    {
+        return index -> index.withAttribute(name);
+    }
+
+    /**
+     * Selects countries whose capital starts with the given letter.
+     *
+     * @param initial the first letter of the capital
+     * @return the filter
+     */
+    static CountryFilter capitalStartsWith(final char initial)
+    {
+        return index -> index.withCapitalInitial(initial);
+    }
+
+    /**
+     * Selects countries that pass both filters.
+     *
+     * @param other the other filter
+     * @return the combined filter
+     */
+    default CountryFilter and(final CountryFilter other)
+    {
+        return index -> {
+            final BitSet countries = select(index);
+            countries.and(other.select(index));
+            return countries;
+        };
+    }
+
+    /**
+     * Selects countries that pass either filter.
+     *
+     * @param other the other filter
+     * @return the combined filter
+     */
+    default CountryFilter or(final CountryFilter other)
+    {
+        return index -> {
+            final BitSet countries = select(index);
+            countries.or(other.select(index));
+            return countries;
+        };
+    }
+
+    /**
+     * Selects countries that do not pass this filter.
+     *
+     * @return the negated filter
+     */
+    default CountryFilter not()
+    {
+        return index -> {
+            final BitSet countries = select(index);
+            countries.flip(0, index.size());
+            return countries;
+        };
+    }
+}
@@ -0,0 +1,554 @@
+package WordGame;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable, compact store of countries. Every name, capital and fact is kept as UTF-8 in a
+ * single shared byte arena instead of as separate String objects, and the only per-country
+ * overhead is an int offset and an int source index. {@link Country} records are only created
+ * when a caller asks for one.
+ * <p>
+ * Countries are sorted by the UTF-8 bytes of their names, which matches {@link CountryCatalog#NAME_ORDER}.
+ * Each country is one contiguous record in the arena: its string count, then each string as its
+ * byte length followed by its bytes, in the order name, capital, attributes, then facts. Counts and
+ * lengths are unsigned varints, seven bits to a byte, so a typical string costs one byte of overhead
+ * rather than a four-byte offset. A country's attributes are one string of "key=value" lines, empty
+ * if it has none.
+ * Each country also remembers the name of the source file it was parsed from, so a single file
+ * can be reloaded without touching countries from other files.
+ *
+ * @author Ben Henry
+ * @version 1.4
+ */
+final class CountryStore extends CountryCatalog
+{
+    static final String NO_SOURCE = "";
+    static final CountryStore EMPTY = new CountryStore(new byte[0], new int[] {0}, new String[0], new int[0]);
+
+    static final int STRINGS_BEFORE_FACTS = 3;
+    private static final int CAPITAL_OFFSET = 1;
+    private static final int ATTRIBUTES_OFFSET = 2;
+    private static final String ATTRIBUTE_LINE_SEPARATOR = "\n";
+    private static final char ATTRIBUTE_SEPARATOR = '=';
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MALFORMED = -1;
+
+    private final byte[] arena;
+    private final int[] countryOffsets;
+    private final String[] sources;
+    private final int[] sourceOf;
+
+    /**
+     * Creates a store over an already laid out arena.
+     *
+     * @param arena          the records of every country
+     * @param countryOffsets the start of each country's record in the arena, plus a final end offset
+     * @param sources        the distinct source file names, sorted
+     * @param sourceOf       the index into {@code sources} of each country's source file
+     */
+    CountryStore(final byte[] arena, final int[] countryOffsets, final String[] sources, final int[] sourceOf)
+    {
+        this.arena = arena;
+        this.countryOffsets = countryOffsets;
+        this.sources = sources;
+        this.sourceOf = sourceOf;
+    }
+
+    /**
+     * Builds a store holding the given countries. If several countries share a name,
+     * the last one wins, matching {@link Map#put}.
+     *
+     * @param countries the countries to store
+     * @return a new store
+     */
+    static CountryStore of(final Collection<Country> countries)
+    {
+        final Builder builder = new Builder();
+
+        for(final Country country : countries)
+        {
+            builder.add(country);
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    int size()
+    {
+        return countryOffsets.length - 1;
+    }
+
+    @Override
+    int indexOf(final String name)
+    {
+        final byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size() - 1;
+
+        while(low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final int string = stringStart(middle, 0);
+            final int length = readVarint(string);
+            final int from = string + varintSize(length);
+            final int comparison = Arrays.compareUnsigned(arena, from, from + length, key, 0, key.length);
+
+            if(comparison < 0)
+            {
+                low = middle + 1;
+            }
+            else if(comparison > 0)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return middle;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    @Override
+    String nameAt(final int id)
+    {
+        return stringAt(stringStart(id, 0));
+    }
+
+    @Override
+    String capitalAt(final int id)
+    {
+        return stringAt(stringStart(id, CAPITAL_OFFSET));
+    }
+
+    @Override
+    Map<String, String> attributesAt(final int id)
+    {
+        final int string = stringStart(id, ATTRIBUTES_OFFSET);
+
+        if(readVarint(string) == 0)
+        {
+            return Map.of();
+        }
+
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        for(final String line : stringAt(string).split(ATTRIBUTE_LINE_SEPARATOR))
+        {
+            final int separator = line.indexOf(ATTRIBUTE_SEPARATOR);
+            attributes.put(line.substring(0, separator), line.substring(separator + 1));
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    @Override
+    int factCount(final int id)
+    {
+        return readVarint(countryOffsets[id]) - STRINGS_BEFORE_FACTS;
+    }
+
+    @Override
+    String factAt(final int id, final int factIndex)
+    {
+        return stringAt(stringStart(id, STRINGS_BEFORE_FACTS + factIndex));
+    }
+
+    @Override
+    String sourceAt(final int id)
+    {
+        return sources[sourceOf[id]];
+    }
+
+    /**
+     * Returns a copy of this store with the given country added, replacing any country of the same name.
+     * Existing countries are copied byte-for-byte rather than re-encoded.
+     *
+     * @param country the country to add
+     * @return a new store
+     */
+    CountryStore with(final Country country)
+    {
+        final Builder builder = new Builder();
+        builder.addAll(this);
+        builder.add(country);
+        return builder.build();
+    }
+
+    /**
+     * Re-parses each changed file and replaces its countries. Countries from other files are copied byte-for-byte.
+     *
+     * @param changedFiles   the files to re-read
+     * @param fileParseNanos where the time spent on each file is recorded
+     * @return a new store
+     */
+    @Override
+    CountryStore withReloadedFiles(final Collection<Path> changedFiles, final Map<Path, Long> fileParseNanos)
+    {
+        final Map<Path, List<Country>> parsed = new HashMap<>();
+
+        for(final Path file : changedFiles)
+        {
+            if(Files.exists(file))
+            {
+                CountryFileParser.parseInto(file, parsed, fileParseNanos);
+            }
+            else
+            {
+                parsed.put(file, List.of());
+            }
+        }
+
+        return withReplacedSources(parsed);
+    }
+
+    /**
+     * Returns a copy of this store in which every parsed file's countries replace the countries that file held before.
+     * Files are applied in path order, so a name defined in two files resolves the same way every time.
+     *
+     * @param parsed the countries parsed from each file
+     * @return a new store
+     */
+    CountryStore withReplacedSources(final Map<Path, List<Country>> parsed)
+    {
+        final Builder builder = new Builder().addAll(this);
+
+        for(final Map.Entry<Path, List<Country>> entry : new TreeMap<>(parsed).entrySet())
+        {
+            final String source = entry.getKey().getFileName().toString();
+            builder.removeSource(source);
+
+            for(final Country country : entry.getValue())
+            {
+                builder.add(country, source);
+            }
+        }
+
+        return builder.build();
+    }
+
+    byte[] arena()
+    {
+        return arena;
+    }
+
+    int[] countryOffsets()
+    {
+        return countryOffsets;
+    }
+
+    @Override
+    String[] sources()
+    {
+        return sources;
+    }
+
+    int[] sourceOf()
+    {
+        return sourceOf;
+    }
+
+    /**
+     * Checks that a country's record holds at least a name, capital and attributes, and that its
+     * strings end exactly where the next record starts, so reading it never leaves the record.
+     *
+     * @param id the dense id of the country
+     * @return true if the record can be read
+     */
+    boolean isWellFormed(final int id)
+    {
+        final int end = countryOffsets[id + 1];
+        final int stringCount = checkedVarint(countryOffsets[id], end);
+
+        if(stringCount < STRINGS_BEFORE_FACTS)
+        {
+            return false;
+        }
+
+        int position = countryOffsets[id] + varintSize(stringCount);
+        for(int string = 0; string < stringCount; string++)
+        {
+            final int length = checkedVarint(position, end);
+            if(length == MALFORMED || length > end - position - varintSize(length))
+            {
+                return false;
+            }
+            position += varintSize(length) + length;
+        }
+
+        return position == end;
+    }
+
+    /**
+     * Finds where a string of a country's record starts, at its length.
+     *
+     * @param id    the dense id of the country
+     * @param index the index of the string within the record
+     * @return the arena position of the string's length
+     */
+    private int stringStart(final int id, final int index)
+    {
+        int position = countryOffsets[id];
+        position += varintSize(readVarint(position));
+
+        for(int string = 0; string < index; string++)
+        {
+            final int length = readVarint(position);
+            position += varintSize(length) + length;
+        }
+
+        return position;
+    }
+
+    private String stringAt(final int position)
+    {
+        final int length = readVarint(position);
+        return new String(arena, position + varintSize(length), length, StandardCharsets.UTF_8);
+    }
+
+    private int readVarint(final int position)
+    {
+        int value = 0;
+        int next = position;
+
+        for(int shift = 0; ; shift += VARINT_PAYLOAD_BITS)
+        {
+            final byte current = arena[next++];
+            value |= (current & VARINT_PAYLOAD_MASK) << shift;
+
+            if((current & VARINT_CONTINUATION) == 0)
+            {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Reads a varint that must end before {@code end} and encode a non-negative int in its shortest form.
+     *
+     * @return the value, or {@value MALFORMED} if it is not such a varint
+     */
+    private int checkedVarint(final int position, final int end)
+    {
+        final int limit = Math.min(end, position + MAX_VARINT_BYTES);
+
+        for(int next = position; next < limit; next++)
+        {
+            if((arena[next] & VARINT_CONTINUATION) == 0)
+            {
+                final int value = readVarint(position);
+                return value >= 0 && varintSize(value) == next - position + 1 ? value : MALFORMED;
+            }
+        }
+
+        return MALFORMED;
+    }
+
+    private static int varintSize(final int value)
+    {
+        int size = 1;
+
+        for(int rest = value >>> VARINT_PAYLOAD_BITS; rest != 0; rest >>>= VARINT_PAYLOAD_BITS)
+        {
+            size++;
+        }
+
+        return size;
+    }
+
+    private static void writeVarint(final int value, final ByteArrayOutputStream out)
+    {
+        int rest = value;
+
+        while((rest & ~VARINT_PAYLOAD_MASK) != 0)
+        {
+            out.write((rest & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            rest >>>= VARINT_PAYLOAD_BITS;
+        }
+
+        out.write(rest);
+    }
+
+    /**
+     * Collects countries, either as records or as ranges of an existing store, and lays them out in a new arena.
+     */
+    static final class Builder
+    {
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        /**
+         * Adds a country with no source file, replacing any earlier country of the same name.
+         *
+         * @param country the country to add
+         * @return this builder
+         */
+        Builder add(final Country country)
+        {
+            return add(country, NO_SOURCE);
+        }
+
+        /**
+         * Adds a country parsed from the given source file, replacing any earlier country of the same name.
+         *
+         * @param country the country to add
+         * @param source  the name of the file the country came from
+         * @return this builder
+         */
+        Builder add(final Country country, final String source)
+        {
+            final byte[] nameBytes = country.name().getBytes(StandardCharsets.UTF_8);
+            final ByteArrayOutputStream record = new ByteArrayOutputStream();
+            writeVarint(country.facts().length + STRINGS_BEFORE_FACTS, record);
+            writeString(nameBytes, record);
+            writeString(country.capitalCityName().getBytes(StandardCharsets.UTF_8), record);
+            writeString(encodeAttributes(country.attributes()).getBytes(StandardCharsets.UTF_8), record);
+
+            for(final String fact : country.facts())
+            {
+                writeString(fact.getBytes(StandardCharsets.UTF_8), record);
+            }
+
+            entries.put(country.name(), new Entry(nameBytes, source, record.toByteArray(), null, NOT_FOUND));
+            return this;
+        }
+
+        private static void writeString(final byte[] bytes, final ByteArrayOutputStream record)
+        {
+            writeVarint(bytes.length, record);
+            record.write(bytes, 0, bytes.length);
+        }
+
+        private static String encodeAttributes(final Map<String, String> attributes)
+        {
+            final StringBuilder encoded = new StringBuilder();
+
+            for(final Map.Entry<String, String> attribute : attributes.entrySet())
+            {
+                if(!encoded.isEmpty())
+                {
+                    encoded.append(ATTRIBUTE_LINE_SEPARATOR);
+                }
+                encoded.append(attribute.getKey()).append(ATTRIBUTE_SEPARATOR).append(attribute.getValue());
+            }
+
+            return encoded.toString();
+        }
+
+        /**
+         * Adds one country of an existing store without decoding its facts.
+         *
+         * @param store the store to copy from
+         * @param id    the id of the country in that store
+         * @return this builder
+         */
+        Builder add(final CountryStore store, final int id)
+        {
+            final byte[] nameBytes = store.nameAt(id).getBytes(StandardCharsets.UTF_8);
+            entries.put(store.nameAt(id), new Entry(nameBytes, store.sourceAt(id), null, store, id));
+            return this;
+        }
+
+        /**
+         * Adds every country of an existing store.
+         *
+         * @param store the store to copy from
+         * @return this builder
+         */
+        Builder addAll(final CountryStore store)
+        {
+            for(int id = 0; id < store.size(); id++)
+            {
+                add(store, id);
+            }
+            return this;
+        }
+
+        /**
+         * Removes every country added from the given source file.
+         *
+         * @param source the name of the source file
+         * @return this builder
+         */
+        Builder removeSource(final String source)
+        {
+            entries.values().removeIf(entry -> entry.source.equals(source));
+            return this;
+        }
+
+        /**
+         * Lays out every added country, sorted by name, in a new store.
+         *
+         * @return a new store
+         */
+        CountryStore build()
+        {
+            final List<Entry> sorted = new ArrayList<>(entries.values());
+            sorted.sort((left, right) -> Arrays.compareUnsigned(left.nameBytes, right.nameBytes));
+
+            int byteCount = 0;
+            for(final Entry entry : sorted)
+            {
+                byteCount += entry.byteCount();
+            }
+
+            final byte[] arena = new byte[byteCount];
+            final int[] countryOffsets = new int[sorted.size() + 1];
+            final int[] sourceOf = new int[sorted.size()];
+            final String[] sources = sorted.stream().map(Entry::source).distinct().sorted().toArray(String[]::new);
+            int position = 0;
+
+            for(int id = 0; id < sorted.size(); id++)
+            {
+                final Entry entry = sorted.get(id);
+                countryOffsets[id] = position;
+                sourceOf[id] = Arrays.binarySearch(sources, entry.source);
+
+                if(entry.record != null)
+                {
+                    System.arraycopy(entry.record, 0, arena, position, entry.record.length);
+                }
+                else
+                {
+                    System.arraycopy(entry.store.arena, entry.store.countryOffsets[entry.storeId], arena, position,
+                            entry.byteCount());
+                }
+                position += entry.byteCount();
+            }
+
+            countryOffsets[sorted.size()] = position;
+
+            return new CountryStore(arena, countryOffsets, sources, sourceOf);
+        }
+
+        /**
+         * A country waiting to be laid out: either its encoded record, or a country of another store.
+         */
+        private record Entry(byte[] nameBytes, String source, byte[] record, CountryStore store, int storeId)
+        {
+            int byteCount()
+            {
+                if(record != null)
+                {
+                    return record.length;
+                }
+
+                return store.countryOffsets[storeId + 1] - store.countryOffsets[storeId];
+            }
+        }
+    }
+}
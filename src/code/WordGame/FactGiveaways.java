@@ -0,0 +1,415 @@
+package WordGame;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the facts in a {@link CountryCatalog} that name their own country or capital, which would give
+ * away the answer to a {@link QuestionType#FACT_TO_COUNTRY} question, and masks those mentions.
+ * <p>
+ * Every country and capital name, plus the shorter forms players know them by ("Eswatini" for
+ * "Eswatini (formerly Swaziland)", "Republic of the Congo" for "Congo, Republic of the", "Washington"
+ * for "Washington, D.C."), goes into one Aho-Corasick automaton, built once per catalog from the names
+ * alone. A fact is only read by the automaton when it is asked about, so masking one question costs time
+ * linear in that fact however many names there are, and a lazily indexed catalog reads from disk only the
+ * facts that are actually asked. Matching ignores case and accents and only counts whole words, so "Chad"
+ * does not match inside "Chadian" and "Oman" does not match inside "Romania". A fact that mentions some
+ * other country is left alone.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class FactGiveaways
+{
+    static final String MASK = "___";
+
+    private static final Pattern PARENTHETICAL = Pattern.compile("\\s*\\(.*?\\)");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final String NAME_INVERSION = ",";
+    private static final int NAME_INVERSION_PARTS = 2;
+    private static final int MIN_NAME_LENGTH = 3;
+    private static final int ASCII_LIMIT = 128;
+    private static final char RIGHT_SINGLE_QUOTATION_MARK = '\u2019';
+
+    private final CountryCatalog catalog;
+    private final NameAutomaton automaton;
+
+    private FactGiveaways(final CountryCatalog catalog, final NameAutomaton automaton)
+    {
+        this.catalog = catalog;
+        this.automaton = automaton;
+    }
+
+    /**
+     * Builds the automaton over the catalog's country and capital names. No fact is read.
+     *
+     * @param catalog the countries whose facts to check
+     * @return the giveaway finder for the catalog
+     */
+    static FactGiveaways of(final CountryCatalog catalog)
+    {
+        return new FactGiveaways(catalog, new NameAutomaton(catalog));
+    }
+
+    /**
+     * Returns whether a fact names its own country or capital.
+     *
+     * @param countryId the dense id of the country
+     * @param factIndex the index of the fact within the country
+     * @return true if the fact gives its answer away
+     */
+    boolean givesAway(final int countryId, final int factIndex)
+    {
+        final IntList starts = new IntList();
+        automaton.findMentions(catalog.factAt(countryId, factIndex), countryId, starts, new IntList());
+        return starts.size() > 0;
+    }
+
+    /**
+     * Returns the number of facts that give their answer away. This reads every fact in the catalog.
+     *
+     * @return the number of flagged facts
+     */
+    int count()
+    {
+        int count = 0;
+
+        for(int id = 0; id < catalog.size(); id++)
+        {
+            for(int factIndex = 0; factIndex < catalog.factCount(id); factIndex++)
+            {
+                if(givesAway(id, factIndex))
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replaces every mention of the country or its capital in a fact with {@value MASK}.
+     *
+     * @param countryId the dense id of the country
+     * @param factText  one of the country's facts, as read from the same catalog
+     * @return the fact with its giveaways masked, or the fact itself if it has none
+     */
+    String mask(final int countryId, final String factText)
+    {
+        final IntList starts = new IntList();
+        final IntList ends = new IntList();
+
+        automaton.findMentions(factText, countryId, starts, ends);
+        if(starts.size() == 0)
+        {
+            return factText;
+        }
+
+        final StringBuilder masked = new StringBuilder(factText.length());
+        int copied = 0;
+
+        for(int span = 0; span < starts.size(); span++)
+        {
+            masked.append(factText, copied, starts.get(span)).append(MASK);
+            copied = ends.get(span);
+        }
+
+        return masked.append(factText, copied, factText.length()).toString();
+    }
+
+    /**
+     * Folds one character for matching: lower case, without accents, with curly apostrophes made straight.
+     * Every character folds to exactly one, so match offsets are offsets into the original text.
+     */
+    static char fold(final char c)
+    {
+        if(c < ASCII_LIMIT)
+        {
+            return Character.toLowerCase(c);
+        }
+        if(c == RIGHT_SINGLE_QUOTATION_MARK)
+        {
+            return '\'';
+        }
+
+        final String decomposed = COMBINING_MARKS.matcher(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD)).replaceAll("");
+        return decomposed.length() == 1 ? Character.toLowerCase(decomposed.charAt(0)) : Character.toLowerCase(c);
+    }
+
+    /**
+     * Returns the forms of a country or capital name that count as a mention.
+     */
+    private static Set<String> mentionsOf(final String name)
+    {
+        final Set<String> mentions = new LinkedHashSet<>();
+        final String withoutParenthetical = PARENTHETICAL.matcher(name).replaceAll("").trim();
+        final String[] inverted = withoutParenthetical.split(NAME_INVERSION, NAME_INVERSION_PARTS);
+
+        mentions.add(name.trim());
+        mentions.add(withoutParenthetical);
+        if(inverted.length == NAME_INVERSION_PARTS)
+        {
+            mentions.add(inverted[0].trim());
+            mentions.add(inverted[1].trim() + " " + inverted[0].trim());
+        }
+
+        mentions.removeIf(mention -> mention.length() < MIN_NAME_LENGTH);
+        return mentions;
+    }
+
+    /**
+     * An Aho-Corasick automaton over every country and capital mention, whose outputs are the ids of
+     * the countries each mention belongs to.
+     */
+    private static final class NameAutomaton
+    {
+        private static final int ROOT = 0;
+        private static final int NO_NODE = -1;
+        private static final int[] NO_COUNTRIES = new int[0];
+
+        private final int[] edgeStart;
+        private final char[] edgeLabels;
+        private final int[] edgeTargets;
+        private final int[] failure;
+        private final int[] outputLink;
+        private final int[] depth;
+        private final int[][] countries;
+
+        NameAutomaton(final CountryCatalog catalog)
+        {
+            // Build the trie with sorted child maps, then flatten it so each node's edges are contiguous
+            final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+            final List<Set<Integer>> owners = new ArrayList<>();
+            final IntList depths = new IntList();
+
+            children.add(new TreeMap<>());
+            owners.add(new LinkedHashSet<>());
+            depths.add(0);
+
+            for(int id = 0; id < catalog.size(); id++)
+            {
+                final Set<String> mentions = mentionsOf(catalog.nameAt(id));
+                mentions.addAll(mentionsOf(catalog.capitalAt(id)));
+
+                for(final String mention : mentions)
+                {
+                    int node = ROOT;
+                    for(int i = 0; i < mention.length(); i++)
+                    {
+                        final char c = fold(mention.charAt(i));
+                        Integer next = children.get(node).get(c);
+                        if(next == null)
+                        {
+                            next = children.size();
+                            children.get(node).put(c, next);
+                            children.add(new TreeMap<>());
+                            owners.add(new LinkedHashSet<>());
+                            depths.add(depths.get(node) + 1);
+                        }
+                        node = next;
+                    }
+                    owners.get(node).add(id);
+                }
+            }
+
+            final int nodes = children.size();
+            int edges = 0;
+            for(final Map<Character, Integer> childMap : children)
+            {
+                edges += childMap.size();
+            }
+
+            this.edgeStart = new int[nodes + 1];
+            this.edgeLabels = new char[edges];
+            this.edgeTargets = new int[edges];
+            this.failure = new int[nodes];
+            this.outputLink = new int[nodes];
+            this.depth = depths.toArray();
+            this.countries = new int[nodes][];
+
+            int edge = 0;
+            for(int node = 0; node < nodes; node++)
+            {
+                edgeStart[node] = edge;
+                for(final Map.Entry<Character, Integer> child : children.get(node).entrySet())
+                {
+                    edgeLabels[edge] = child.getKey();
+                    edgeTargets[edge++] = child.getValue();
+                }
+                countries[node] = owners.get(node).isEmpty() ? NO_COUNTRIES
+                        : owners.get(node).stream().mapToInt(Integer::intValue).toArray();
+            }
+            edgeStart[nodes] = edge;
+
+            linkFailures();
+        }
+
+        /**
+         * Sets each node's failure link to the longest proper suffix of its path that is also in the
+         * trie, and its output link to the nearest such suffix that ends a mention, breadth first.
+         */
+        private void linkFailures()
+        {
+            final Deque<Integer> queue = new ArrayDeque<>();
+
+            failure[ROOT] = ROOT;
+            outputLink[ROOT] = NO_NODE;
+            for(int edge = edgeStart[ROOT]; edge < edgeStart[ROOT + 1]; edge++)
+            {
+                failure[edgeTargets[edge]] = ROOT;
+                outputLink[edgeTargets[edge]] = NO_NODE;
+                queue.add(edgeTargets[edge]);
+            }
+
+            while(!queue.isEmpty())
+            {
+                final int node = queue.poll();
+
+                for(int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++)
+                {
+                    final int child = edgeTargets[edge];
+                    final int suffix = step(failure[node], edgeLabels[edge]);
+
+                    failure[child] = suffix;
+                    outputLink[child] = countries[suffix].length > 0 ? suffix : outputLink[suffix];
+                    queue.add(child);
+                }
+            }
+        }
+
+        /**
+         * Follows the edge for a character from a node, falling back along failure links.
+         */
+        private int step(final int from, final char c)
+        {
+            int node = from;
+
+            while(true)
+            {
+                final int edge = Arrays.binarySearch(edgeLabels, edgeStart[node], edgeStart[node + 1], c);
+                if(edge >= 0)
+                {
+                    return edgeTargets[edge];
+                }
+                if(node == ROOT)
+                {
+                    return ROOT;
+                }
+                node = failure[node];
+            }
+        }
+
+        /**
+         * Adds the spans of every whole-word mention of the given country in the text, in order and
+         * with overlapping mentions merged.
+         */
+        void findMentions(final String text, final int countryId, final IntList starts, final IntList ends)
+        {
+            final int firstNew = starts.size();
+            int node = ROOT;
+
+            for(int i = 0; i < text.length(); i++)
+            {
+                node = step(node, fold(text.charAt(i)));
+
+                for(int match = countries[node].length > 0 ? node : outputLink[node]; match != NO_NODE; match = outputLink[match])
+                {
+                    final int start = i + 1 - depth[match];
+
+                    if(belongsTo(match, countryId) && isWordStart(text, start) && isWordEnd(text, i + 1))
+                    {
+                        addMerged(starts, ends, firstNew, start, i + 1);
+                    }
+                }
+            }
+        }
+
+        private boolean belongsTo(final int node, final int countryId)
+        {
+            for(final int id : countries[node])
+            {
+                if(id == countryId)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isWordStart(final String text, final int start)
+        {
+            return start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1));
+        }
+
+        private static boolean isWordEnd(final String text, final int end)
+        {
+            return end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+        }
+
+        /**
+         * Adds a span, merging it with the spans it overlaps. Spans arrive in order of their end, so
+         * only the most recent ones can overlap.
+         */
+        private static void addMerged(final IntList starts, final IntList ends, final int firstNew, final int start, final int end)
+        {
+            int mergedStart = start;
+
+            while(starts.size() > firstNew && ends.get(ends.size() - 1) > mergedStart)
+            {
+                mergedStart = Math.min(mergedStart, starts.get(starts.size() - 1));
+                starts.removeLast();
+                ends.removeLast();
+            }
+
+            starts.add(mergedStart);
+            ends.add(end);
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList
+    {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(final int value)
+        {
+            if(size == values.length)
+            {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(final int index)
+        {
+            return values[index];
+        }
+
+        void removeLast()
+        {
+            size--;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        int[] toArray()
+        {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package WordGame;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index over every fact in a {@link CountryCatalog}, answering which facts contain a word
+ * or a phrase without reading the facts again.
+ * <p>
+ * Facts are numbered densely, country by country, in catalog order. Each fact is split into terms the
+ * same way a query is: case folded, diacritics stripped, periods and apostrophes dropped and split on
+ * anything that is not a letter or digit, so "UNESCO-listed" holds the terms "unesco" and "listed". For
+ * every term the index keeps a posting list of the facts it appears in and its positions in each. All
+ * posting lists are delta encoded as variable-length integers in one shared byte arena, the same way
+ * {@link CountryStore} keeps its strings, so the whole index takes a few bytes per word of fact text.
+ * <p>
+ * A phrase query walks the posting lists of its terms together, skipping to facts that hold every term
+ * and then checking that the terms appear at consecutive positions. A single word is a phrase of one term.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class FactIndex
+{
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern DROPPED_PUNCTUATION = Pattern.compile("[.'\\u2019]");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String[] NO_TERMS = new String[0];
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int INITIAL_ARENA_BYTES = 4096;
+    private static final int NO_FACT = Integer.MAX_VALUE;
+    private static final int BEFORE_FIRST_FACT = -1;
+
+    private final int[] firstFact;
+    private final Map<String, Integer> termIds;
+    private final byte[] postings;
+    private final int[] postingOffsets;
+    private final int[] factFrequency;
+
+    private FactIndex(final int[] firstFact, final Map<String, Integer> termIds, final byte[] postings,
+                      final int[] postingOffsets, final int[] factFrequency)
+    {
+        this.firstFact = firstFact;
+        this.termIds = termIds;
+        this.postings = postings;
+        this.postingOffsets = postingOffsets;
+        this.factFrequency = factFrequency;
+    }
+
+    /**
+     * Indexes every fact in the catalog. A lazily indexed catalog reads every fact from disk.
+     *
+     * @param catalog the countries whose facts to index
+     * @return a new index
+     */
+    static FactIndex of(final CountryCatalog catalog)
+    {
+        final int[] firstFact = new int[catalog.size() + 1];
+        final Map<String, Integer> termIds = new HashMap<>();
+        final List<PostingWriter> writers = new ArrayList<>();
+        int fact = 0;
+
+        for(int id = 0; id < catalog.size(); id++)
+        {
+            firstFact[id] = fact;
+
+            for(int factIndex = 0; factIndex < catalog.factCount(id); factIndex++, fact++)
+            {
+                final String[] terms = tokenize(catalog.factAt(id, factIndex));
+
+                for(int position = 0; position < terms.length; position++)
+                {
+                    final Integer termId = termIds.computeIfAbsent(terms[position], term -> writers.size());
+                    if(termId == writers.size())
+                    {
+                        writers.add(new PostingWriter());
+                    }
+                    writers.get(termId).add(fact, position);
+                }
+            }
+        }
+        firstFact[catalog.size()] = fact;
+
+        final ByteArena arena = new ByteArena();
+        final int[] postingOffsets = new int[writers.size() + 1];
+        final int[] factFrequency = new int[writers.size()];
+
+        for(int termId = 0; termId < writers.size(); termId++)
+        {
+            postingOffsets[termId] = arena.size();
+            factFrequency[termId] = writers.get(termId).writeTo(arena);
+        }
+        postingOffsets[writers.size()] = arena.size();
+
+        return new FactIndex(firstFact, termIds, arena.toArray(), postingOffsets, factFrequency);
+    }
+
+    /**
+     * Splits text into index terms.
+     *
+     * @param text the text to split
+     * @return the folded terms in order, possibly none
+     */
+    static String[] tokenize(final String text)
+    {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        folded = folded.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        folded = DROPPED_PUNCTUATION.matcher(folded).replaceAll("");
+        folded = SEPARATORS.matcher(folded).replaceAll(" ").trim();
+
+        return folded.isEmpty() ? NO_TERMS : folded.split(" ");
+    }
+
+    /**
+     * Returns the number of distinct terms in the index.
+     *
+     * @return the vocabulary size
+     */
+    int termCount()
+    {
+        return termIds.size();
+    }
+
+    /**
+     * Returns the number of facts in the index.
+     *
+     * @return the number of facts across every country
+     */
+    int factCount()
+    {
+        return firstFact[firstFact.length - 1];
+    }
+
+    /**
+     * Returns how many facts contain a term.
+     *
+     * @param term the term, which is folded like fact text
+     * @return the number of facts containing it, or 0 if it is not a single known term
+     */
+    int factFrequency(final String term)
+    {
+        final String[] terms = tokenize(term);
+        final Integer termId = terms.length == 1 ? termIds.get(terms[0]) : null;
+
+        return termId == null ? 0 : factFrequency[termId];
+    }
+
+    /**
+     * Finds every fact that contains the words of the query in order and next to each other.
+     *
+     * @param phrase one or more words
+     * @return the matching facts as packed {@link QuestionDeck} fact questions, in catalog order;
+     * empty if the query has no words or any of them is not in the index
+     */
+    long[] search(final String phrase)
+    {
+        final String[] terms = tokenize(phrase);
+        final PostingReader[] readers = new PostingReader[terms.length];
+
+        if(terms.length == 0)
+        {
+            return new long[0];
+        }
+
+        for(int i = 0; i < terms.length; i++)
+        {
+            final Integer termId = termIds.get(terms[i]);
+            if(termId == null)
+            {
+                return new long[0];
+            }
+            readers[i] = new PostingReader(termId);
+        }
+
+        final long[] matches = new long[factFrequency[readers[0].termId]];
+        int matchCount = 0;
+        int candidate = readers[0].next();
+
+        while(candidate != NO_FACT)
+        {
+            // Leapfrog: advance every list to the candidate, raising it whenever a list skips past
+            int target = candidate;
+            for(int i = 0; i < readers.length && target != NO_FACT; i++)
+            {
+                final int fact = readers[i].advanceTo(target);
+                if(fact != target)
+                {
+                    target = fact;
+                    i = -1;
+                }
+            }
+
+            if(target == NO_FACT)
+            {
+                break;
+            }
+            if(containsPhrase(readers))
+            {
+                matches[matchCount++] = questionFor(target);
+            }
+            candidate = readers[0].next();
+        }
+
+        return Arrays.copyOf(matches, matchCount);
+    }
+
+    /**
+     * Finds every country with at least one fact containing the phrase.
+     *
+     * @param phrase one or more words
+     * @return the ids of the matching countries, in ascending order
+     */
+    int[] countriesMatching(final String phrase)
+    {
+        final long[] facts = search(phrase);
+        final int[] countries = new int[facts.length];
+        int count = 0;
+
+        for(final long fact : facts)
+        {
+            final int id = QuestionDeck.countryId(fact);
+            if(count == 0 || countries[count - 1] != id)
+            {
+                countries[count++] = id;
+            }
+        }
+
+        return Arrays.copyOf(countries, count);
+    }
+
+    /**
+     * Checks whether the readers, all positioned on the same fact, hold their terms at consecutive positions.
+     */
+    private static boolean containsPhrase(final PostingReader[] readers)
+    {
+        final int[] firstPositions = readers[0].positions();
+
+        for(int p = 0; p < readers[0].positionCount; p++)
+        {
+            boolean matched = true;
+            for(int i = 1; i < readers.length && matched; i++)
+            {
+                matched = Arrays.binarySearch(readers[i].positions(), 0, readers[i].positionCount,
+                        firstPositions[p] + i) >= 0;
+            }
+            if(matched)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private long questionFor(final int fact)
+    {
+        int id = Arrays.binarySearch(firstFact, fact);
+
+        if(id < 0)
+        {
+            id = -id - 2;
+        }
+        // Countries without facts share their start with the next country
+        while(firstFact[id + 1] == fact)
+        {
+            id++;
+        }
+
+        return QuestionDeck.pack(id, QuestionDeck.FIRST_FACT_SLOT + fact - firstFact[id]);
+    }
+
+    /**
+     * Decodes one term's posting list, one fact at a time.
+     */
+    private final class PostingReader
+    {
+        private final int termId;
+        private final int end;
+        private int offset;
+        private int fact;
+        private int[] positions;
+        private int positionCount;
+        private boolean positionsDecoded;
+        private int positionsOffset;
+
+        PostingReader(final int termId)
+        {
+            this.termId = termId;
+            this.offset = postingOffsets[termId];
+            this.end = postingOffsets[termId + 1];
+            this.fact = BEFORE_FIRST_FACT;
+            this.positions = new int[1];
+            this.positionsDecoded = true;
+        }
+
+        /**
+         * Moves to the next fact in the list.
+         *
+         * @return the fact, or {@value NO_FACT} at the end of the list
+         */
+        int next()
+        {
+            skipPositions();
+
+            if(offset >= end)
+            {
+                fact = NO_FACT;
+                return fact;
+            }
+
+            fact = Math.max(fact, 0) + readVarint();
+            positionCount = readVarint();
+            positionsOffset = offset;
+            positionsDecoded = false;
+            return fact;
+        }
+
+        /**
+         * Moves to the first fact at or after the target, staying put if already there.
+         *
+         * @return that fact, or {@value NO_FACT} if there is none
+         */
+        int advanceTo(final int target)
+        {
+            while(fact < target)
+            {
+                if(next() == NO_FACT)
+                {
+                    break;
+                }
+            }
+            return fact;
+        }
+
+        /**
+         * Returns the positions of the term in the current fact; only the first positionCount are valid.
+         */
+        int[] positions()
+        {
+            if(!positionsDecoded)
+            {
+                if(positions.length < positionCount)
+                {
+                    positions = new int[positionCount];
+                }
+
+                offset = positionsOffset;
+                int position = 0;
+                for(int i = 0; i < positionCount; i++)
+                {
+                    position += readVarint();
+                    positions[i] = position;
+                }
+                positionsDecoded = true;
+            }
+            return positions;
+        }
+
+        private void skipPositions()
+        {
+            if(!positionsDecoded)
+            {
+                offset = positionsOffset;
+                for(int i = 0; i < positionCount; i++)
+                {
+                    readVarint();
+                }
+                positionsDecoded = true;
+            }
+        }
+
+        private int readVarint()
+        {
+            int value = 0;
+            int shift = 0;
+            int b;
+
+            do
+            {
+                b = postings[offset++];
+                value |= (b & VARINT_PAYLOAD_MASK) << shift;
+                shift += VARINT_PAYLOAD_BITS;
+            }
+            while((b & VARINT_CONTINUATION) != 0);
+
+            return value;
+        }
+    }
+
+    /**
+     * Collects one term's postings while the catalog is read: the facts it appears in, in increasing
+     * order, and its positions in each.
+     */
+    private static final class PostingWriter
+    {
+        private int[] entries = new int[4];
+        private int size;
+
+        void add(final int fact, final int position)
+        {
+            if(size + 2 > entries.length)
+            {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            entries[size++] = fact;
+            entries[size++] = position;
+        }
+
+        /**
+         * Writes the list as [fact delta, position count, position deltas...] per fact.
+         *
+         * @return the number of distinct facts written
+         */
+        int writeTo(final ByteArena arena)
+        {
+            int facts = 0;
+            int previousFact = 0;
+            int i = 0;
+
+            while(i < size)
+            {
+                final int fact = entries[i];
+                int count = 0;
+                while(i + count * 2 < size && entries[i + count * 2] == fact)
+                {
+                    count++;
+                }
+
+                arena.writeVarint(fact - previousFact);
+                arena.writeVarint(count);
+
+                int previousPosition = 0;
+                for(int p = 0; p < count; p++)
+                {
+                    final int position = entries[i + p * 2 + 1];
+                    arena.writeVarint(position - previousPosition);
+                    previousPosition = position;
+                }
+
+                previousFact = fact;
+                i += count * 2;
+                facts++;
+            }
+
+            return facts;
+        }
+    }
+
+    /**
+     * A growable byte array for the posting arena.
+     */
+    private static final class ByteArena
+    {
+        private byte[] bytes = new byte[INITIAL_ARENA_BYTES];
+        private int size;
+
+        int size()
+        {
+            return size;
+        }
+
+        void writeVarint(final int value)
+        {
+            int remaining = value;
+
+            if(size + Integer.BYTES + 1 > bytes.length)
+            {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while((remaining & ~VARINT_PAYLOAD_MASK) != 0)
+            {
+                bytes[size++] = (byte) (remaining & VARINT_PAYLOAD_MASK | VARINT_CONTINUATION);
+                remaining >>>= VARINT_PAYLOAD_BITS;
+            }
+            bytes[size++] = (byte) remaining;
+        }
+
+        byte[] toArray()
+        {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
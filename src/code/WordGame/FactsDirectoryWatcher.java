@@ -0,0 +1,173 @@
+package WordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a facts directory on a background thread and asks the {@link World} to reload
+ * only the letter files that changed. Events that arrive close together are batched,
+ * so an editor saving several files results in a single store swap. A batch that fails to
+ * reload, such as a file caught half-written, is logged and the old catalog kept; the watcher
+ * carries on with the next change.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class FactsDirectoryWatcher implements Closeable
+{
+    private static final String THREAD_NAME = "facts-directory-watcher";
+    private static final String SOURCE_FILE_GLOB = "glob:*.txt";
+    private static final String SOURCE_FILE_EXTENSION = "*.txt";
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final World world;
+    private final Path directory;
+    private final WatchService watchService;
+    private final PathMatcher sourceFileMatcher;
+
+    /**
+     * Registers the directory and starts the watcher thread.
+     *
+     * @param world     the world to reload
+     * @param directory the facts directory to watch
+     * @throws IOException if the directory cannot be registered
+     */
+    FactsDirectoryWatcher(final World world, final Path directory) throws IOException
+    {
+        this.world = world;
+        this.directory = directory;
+        this.watchService = directory.getFileSystem().newWatchService();
+        this.sourceFileMatcher = FileSystems.getDefault().getPathMatcher(SOURCE_FILE_GLOB);
+
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        final Thread thread = new Thread(this::watch, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the directory.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        watchService.close();
+    }
+
+    /**
+     * Waits for changes, collects every changed letter file until the directory goes quiet,
+     * then reloads that batch of files.
+     */
+    private void watch()
+    {
+        try
+        {
+            while(true)
+            {
+                final Set<Path> changedFiles = new HashSet<>();
+                WatchKey key = watchService.take();
+
+                while(key != null)
+                {
+                    collectChanges(key, changedFiles);
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                if(!changedFiles.isEmpty())
+                {
+                    reload(changedFiles);
+                }
+            }
+        } catch(final ClosedWatchServiceException | InterruptedException e)
+        {
+            // The watcher was closed; let the thread end.
+        }
+    }
+
+    /**
+     * Reloads one batch of files. A failure leaves the world on its previous catalog, since the
+     * catalog is only swapped once every file has been read.
+     *
+     * @param changedFiles the batch of changed files
+     */
+    private void reload(final Set<Path> changedFiles)
+    {
+        try
+        {
+            world.reloadFiles(directory, changedFiles);
+        } catch(final RuntimeException | InternalError e)
+        {
+            // Mapping a file that shrinks mid-save surfaces as an InternalError
+            System.err.println("Error reloading facts files " + changedFiles + ": " + e);
+        }
+    }
+
+    /**
+     * Adds the letter files named by a key's events to the batch. If events were dropped,
+     * every letter file in the directory is added.
+     *
+     * @param key          the signalled watch key
+     * @param changedFiles the batch of changed files
+     */
+    private void collectChanges(final WatchKey key, final Set<Path> changedFiles)
+    {
+        for(final WatchEvent<?> event : key.pollEvents())
+        {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                addAllSourceFiles(changedFiles);
+            }
+            else if(event.context() instanceof Path name && sourceFileMatcher.matches(name))
+            {
+                changedFiles.add(directory.resolve(name));
+            }
+        }
+
+        key.reset();
+    }
+
+    /**
+     * Adds every letter file currently in the directory, plus every file the store last loaded
+     * from, so files deleted while events were being dropped are still noticed.
+     *
+     * @param changedFiles the batch of changed files
+     */
+    private void addAllSourceFiles(final Set<Path> changedFiles)
+    {
+        for(final String source : world.getCatalog().sources())
+        {
+            if(!source.equals(CountryStore.NO_SOURCE))
+            {
+                changedFiles.add(directory.resolve(source));
+            }
+        }
+
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SOURCE_FILE_EXTENSION))
+        {
+            for(final Path file : stream)
+            {
+                changedFiles.add(file);
+            }
+        } catch(final IOException e)
+        {
+            System.err.println("Error reading directory: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package WordGame;
+
+/**
+ * Where a {@link WordGame} reads the player's answers from and writes its prompts to.
+ * The console is the normal implementation; scripted implementations let a game run headless.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+interface GameIO
+{
+    /**
+     * Reads the player's next line of input.
+     *
+     * @return the line, without its line terminator
+     */
+    String readLine();
+
+    /**
+     * Writes text for the player exactly as given.
+     *
+     * @param text the text to write
+     */
+    void print(String text);
+
+    /**
+     * Writes text for the player followed by a line separator.
+     *
+     * @param text the text to write
+     */
+    default void println(final String text)
+    {
+        print(text + System.lineSeparator());
+    }
+
+    /**
+     * Writes formatted text for the player.
+     *
+     * @param format the format string, as for {@link String#format(String, Object...)}
+     * @param args   the format arguments
+     */
+    default void printf(final String format, final Object... args)
+    {
+        print(String.format(format, args));
+    }
+}
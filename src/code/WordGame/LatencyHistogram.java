@@ -0,0 +1,227 @@
+package WordGame;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A log-linear histogram of response times in milliseconds, in the style of HdrHistogram.
+ * <p>
+ * Times below {@value SUB_BUCKETS} ms have a bucket each; above that, every power of two is split into
+ * {@value SUB_BUCKETS} equal buckets, so any recorded time is known to within about 3% up to the
+ * largest trackable time of about 70 minutes. Longer times are counted as the largest. The buckets are
+ * one preallocated array, so recording a time is a few shifts and an increment and allocates nothing.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAGNITUDES = 22;
+    private static final int BUCKETS = (MAGNITUDES - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MAX_TRACKABLE_MILLIS = (1L << MAGNITUDES) - 1;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final int HIGHEST_BIT = Long.SIZE - 1;
+    private static final double PERCENT = 100.0;
+
+    private final int[] counts;
+    private long totalCount;
+    private long maxMillis;
+
+    /**
+     * Creates an empty histogram.
+     */
+    LatencyHistogram()
+    {
+        this.counts = new int[BUCKETS];
+        this.totalCount = 0L;
+        this.maxMillis = 0L;
+    }
+
+    /**
+     * Records one response time.
+     *
+     * @param nanos the time in nanoseconds, as measured with {@link System#nanoTime()}
+     */
+    void record(final long nanos)
+    {
+        final long millis = Math.min(Math.max(nanos, 0L) / NANOS_PER_MILLI, MAX_TRACKABLE_MILLIS);
+
+        counts[bucketOf(millis)]++;
+        totalCount++;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    /**
+     * Returns the number of times recorded.
+     *
+     * @return the count
+     */
+    long count()
+    {
+        return totalCount;
+    }
+
+    /**
+     * Returns the longest time recorded.
+     *
+     * @return the longest time in milliseconds, or 0 if nothing was recorded
+     */
+    long maxMillis()
+    {
+        return maxMillis;
+    }
+
+    /**
+     * Returns the time at or below which the given percentage of recorded times fall, as the
+     * largest time in the bucket that reaches the percentage.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the time in milliseconds, or 0 if nothing was recorded
+     */
+    long valueAtPercentile(final double percentile)
+    {
+        final long target = Math.max(1L, (long) Math.ceil(percentile / PERCENT * totalCount));
+        long seen = 0L;
+
+        for(int bucket = 0; bucket < BUCKETS && totalCount > 0; bucket++)
+        {
+            seen += counts[bucket];
+
+            if(seen >= target)
+            {
+                return Math.min(highestValueIn(bucket), maxMillis);
+            }
+        }
+
+        return maxMillis;
+    }
+
+    /**
+     * Adds every time recorded in another histogram.
+     *
+     * @param other the histogram to add
+     */
+    void add(final LatencyHistogram other)
+    {
+        for(int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            counts[bucket] += other.counts[bucket];
+        }
+        totalCount += other.totalCount;
+        maxMillis = Math.max(maxMillis, other.maxMillis);
+    }
+
+    /**
+     * Forgets every recorded time.
+     */
+    void clear()
+    {
+        if(totalCount > 0)
+        {
+            Arrays.fill(counts, 0);
+            totalCount = 0L;
+            maxMillis = 0L;
+        }
+    }
+
+    /**
+     * Returns how many bytes {@link #writeTo(ByteBuffer)} will write.
+     *
+     * @return the encoded size
+     */
+    int encodedSize()
+    {
+        int used = 0;
+
+        for(final int count : counts)
+        {
+            if(count > 0)
+            {
+                used++;
+            }
+        }
+
+        return Long.BYTES + Integer.BYTES + used * (Short.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Writes the longest time and the non-empty buckets.
+     *
+     * @param out the buffer to write to
+     */
+    void writeTo(final ByteBuffer out)
+    {
+        final int usedPosition = out.position() + Long.BYTES;
+        int used = 0;
+
+        out.putLong(maxMillis).putInt(0);
+        for(int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            if(counts[bucket] > 0)
+            {
+                out.putShort((short) bucket).putInt(counts[bucket]);
+                used++;
+            }
+        }
+        out.putInt(usedPosition, used);
+    }
+
+    /**
+     * Adds the times written by {@link #writeTo(ByteBuffer)}.
+     *
+     * @param in the buffer to read from
+     * @throws IllegalArgumentException if the encoding names a bucket that does not exist
+     */
+    void readFrom(final ByteBuffer in)
+    {
+        maxMillis = Math.max(maxMillis, in.getLong());
+
+        final int used = in.getInt();
+        for(int i = 0; i < used; i++)
+        {
+            final int bucket = in.getShort();
+            final int count = in.getInt();
+
+            if(bucket < 0 || bucket >= BUCKETS || count < 0)
+            {
+                throw new IllegalArgumentException("Corrupt latency histogram bucket " + bucket);
+            }
+            counts[bucket] += count;
+            totalCount += count;
+        }
+    }
+
+    /**
+     * Returns the bucket for a time: the time itself while it is small, and otherwise its power of
+     * two followed by its next {@value SUB_BUCKET_BITS} bits.
+     */
+    static int bucketOf(final long millis)
+    {
+        if(millis < SUB_BUCKETS)
+        {
+            return (int) millis;
+        }
+
+        final int shift = HIGHEST_BIT - Long.numberOfLeadingZeros(millis) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((millis >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the largest time that falls into a bucket.
+     */
+    static long highestValueIn(final int bucket)
+    {
+        final int magnitude = bucket / SUB_BUCKETS;
+
+        if(magnitude == 0)
+        {
+            return bucket;
+        }
+
+        final int shift = magnitude - 1;
+        final long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
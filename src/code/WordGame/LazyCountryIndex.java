@@ -0,0 +1,413 @@
+package WordGame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A header-only country catalog. Indexing a file reads only its "Country:Capital" header lines and
+ * records the byte range of each country's facts; the fact text is read with a positional read the
+ * first time the country is used. The facts of the most recently used countries are kept in a small
+ * LRU cache, so a session that asks a handful of questions never decodes the rest of the file.
+ * A country's attribute lines are short and needed for filtering, so they are decoded with its header.
+ * <p>
+ * The recorded byte ranges are only valid for the file as it was indexed, so each entry also records
+ * the file's size and modification time. A file that has changed since is never read at stale offsets:
+ * looking up its facts fails with an {@link UncheckedIOException} until the file is re-indexed through
+ * {@link #withReloadedFiles}.
+ *
+ * @author Ben Henry
+ * @version 1.2
+ */
+final class LazyCountryIndex extends CountryCatalog
+{
+    static final LazyCountryIndex EMPTY = new LazyCountryIndex(new IndexEntry[0]);
+
+    private static final int CACHE_CAPACITY = 64;
+    private static final String COUNTRY_CAPITAL_SEPARATOR = ":";
+    private static final byte LINE_FEED = '\n';
+    private static final long START_OF_FILE = 0L;
+    private static final int END_OF_STREAM = -1;
+    private static final int BLANK_CHARACTER = ' ';
+    private static final byte ATTRIBUTE_MARKER = '@';
+
+    private final IndexEntry[] entries;
+    private final String[] sources;
+    private final Map<Integer, String[]> factCache;
+
+    /**
+     * Creates an index over entries already sorted by {@link CountryCatalog#NAME_ORDER}.
+     *
+     * @param entries the indexed countries
+     */
+    private LazyCountryIndex(final IndexEntry[] entries)
+    {
+        this.entries = entries;
+        this.sources = Arrays.stream(entries).map(IndexEntry::source).distinct().sorted().toArray(String[]::new);
+        this.factCache = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, String[]> eldest)
+            {
+                return size() > CACHE_CAPACITY;
+            }
+        };
+    }
+
+    @Override
+    int size()
+    {
+        return entries.length;
+    }
+
+    @Override
+    int indexOf(final String name)
+    {
+        int low = 0;
+        int high = entries.length - 1;
+
+        while(low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final int comparison = NAME_ORDER.compare(entries[middle].name, name);
+
+            if(comparison < 0)
+            {
+                low = middle + 1;
+            }
+            else if(comparison > 0)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return middle;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    @Override
+    String nameAt(final int id)
+    {
+        return entries[id].name;
+    }
+
+    @Override
+    String capitalAt(final int id)
+    {
+        return entries[id].capital;
+    }
+
+    @Override
+    Map<String, String> attributesAt(final int id)
+    {
+        return entries[id].attributes;
+    }
+
+    @Override
+    int factCount(final int id)
+    {
+        return entries[id].factCount;
+    }
+
+    @Override
+    String factAt(final int id, final int factIndex)
+    {
+        return facts(id)[factIndex];
+    }
+
+    @Override
+    String sourceAt(final int id)
+    {
+        return entries[id].source;
+    }
+
+    @Override
+    String[] sources()
+    {
+        return sources;
+    }
+
+    @Override
+    Country countryAt(final int id)
+    {
+        return new Country(nameAt(id), capitalAt(id), facts(id).clone(), attributesAt(id));
+    }
+
+    /**
+     * Re-indexes each changed file and replaces its countries. The new index starts with an empty cache.
+     *
+     * @param changedFiles   the files to re-index
+     * @param fileParseNanos where the time spent indexing each file is recorded
+     * @return a new index
+     */
+    @Override
+    LazyCountryIndex withReloadedFiles(final Collection<Path> changedFiles, final Map<Path, Long> fileParseNanos)
+    {
+        final Map<String, IndexEntry> byName = new LinkedHashMap<>();
+        final Set<String> reloadedSources = new HashSet<>();
+        final List<IndexEntry> indexed = new ArrayList<>();
+
+        for(final Path file : changedFiles.stream().sorted().toList())
+        {
+            final long startNanos = System.nanoTime();
+
+            try
+            {
+                if(Files.exists(file))
+                {
+                    indexed.addAll(indexFile(file));
+                }
+                reloadedSources.add(file.getFileName().toString());
+            } catch(final IOException e)
+            {
+                System.err.println("Error reading file " + file + ": " + e.getMessage());
+            }
+
+            fileParseNanos.put(file, System.nanoTime() - startNanos);
+        }
+
+        for(final IndexEntry entry : entries)
+        {
+            if(!reloadedSources.contains(entry.source))
+            {
+                byName.put(entry.name, entry);
+            }
+        }
+
+        for(final IndexEntry entry : indexed)
+        {
+            byName.put(entry.name, entry);
+        }
+
+        final IndexEntry[] sorted = byName.values().toArray(new IndexEntry[0]);
+        Arrays.sort(sorted, (left, right) -> NAME_ORDER.compare(left.name, right.name));
+
+        return new LazyCountryIndex(sorted);
+    }
+
+    /**
+     * Returns the facts of a country, reading them from disk if they are not cached.
+     *
+     * @param id the dense id of the country
+     * @return the country's facts
+     */
+    private String[] facts(final int id)
+    {
+        synchronized(factCache)
+        {
+            final String[] cached = factCache.get(id);
+            if(cached != null)
+            {
+                return cached;
+            }
+        }
+
+        final String[] loaded = readFacts(entries[id]);
+
+        synchronized(factCache)
+        {
+            factCache.put(id, loaded);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Reads the fact block of one country with a positional read and splits it into trimmed lines.
+     *
+     * @param entry the indexed country
+     * @return the country's facts
+     * @throws UncheckedIOException if the file cannot be read or has changed since it was indexed
+     */
+    private static String[] readFacts(final IndexEntry entry)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(entry.factLength);
+
+        try(FileChannel channel = FileChannel.open(entry.file, StandardOpenOption.READ))
+        {
+            if(channel.size() != entry.fileSize || !Files.getLastModifiedTime(entry.file).equals(entry.modified))
+            {
+                throw new IOException("File has changed since it was indexed: " + entry.file);
+            }
+
+            while(buffer.hasRemaining())
+            {
+                if(channel.read(buffer, entry.factOffset + buffer.position()) == END_OF_STREAM)
+                {
+                    throw new IOException("File is shorter than its index: " + entry.file);
+                }
+            }
+        } catch(final IOException e)
+        {
+            throw new UncheckedIOException("Error reading facts for " + entry.name + ": " + e.getMessage(), e);
+        }
+
+        return new String(buffer.array(), StandardCharsets.UTF_8).lines()
+                .map(String::trim)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Scans a file's bytes for entry boundaries, decoding only the header lines.
+     * Uses the same rules as {@link CountryFileParser}: blank lines separate entries,
+     * malformed headers and countries without facts are reported and skipped.
+     *
+     * @param file the file to index
+     * @return the indexed countries, in file order
+     * @throws IOException if the file cannot be mapped
+     */
+    private static List<IndexEntry> indexFile(final Path file) throws IOException
+    {
+        final MappedByteBuffer mapped;
+        final long fileSize;
+        final FileTime modified;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            modified = Files.getLastModifiedTime(file);
+            fileSize = channel.size();
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, START_OF_FILE, fileSize);
+        }
+
+        final List<IndexEntry> indexed = new ArrayList<>();
+        final String source = file.getFileName().toString();
+        final int length = mapped.limit();
+        int position = 0;
+
+        while(position < length)
+        {
+            final int lineEnd = lineEnd(mapped, position);
+            final String line = decode(mapped, position, lineEnd).trim();
+            position = lineEnd + 1;
+
+            if(line.isEmpty())
+            {
+                continue;
+            }
+
+            final String[] headerParts = line.split(COUNTRY_CAPITAL_SEPARATOR);
+
+            if(!CountryFileParser.isValidCountryFormat(headerParts))
+            {
+                System.err.println("Invalid country-capital format in file " + file + " at line: " + line);
+                continue;
+            }
+
+            final String countryName = headerParts[CountryFileParser.COUNTRY_NAME_INDEX].trim();
+            final String capitalCityName = headerParts[CountryFileParser.CAPITAL_CITY_NAME_INDEX].trim();
+            final Map<String, String> attributes = new LinkedHashMap<>();
+
+            // Attributes come before the first fact, so they are decoded here and the facts start after them
+            while(position < length && mapped.get(firstNonBlank(mapped, position)) == ATTRIBUTE_MARKER)
+            {
+                final int attributeLineEnd = lineEnd(mapped, position);
+                CountryFileParser.parseAttribute(decode(mapped, position, attributeLineEnd).trim(), attributes, file);
+                position = attributeLineEnd + 1;
+            }
+
+            final int factStart = position;
+            int factEnd = position;
+            int factCount = 0;
+
+            while(position < length)
+            {
+                final int factLineEnd = lineEnd(mapped, position);
+
+                if(isBlank(mapped, position, factLineEnd))
+                {
+                    position = factLineEnd + 1;
+                    break;
+                }
+
+                factCount++;
+                factEnd = factLineEnd;
+                position = factLineEnd + 1;
+            }
+
+            if(factCount == 0)
+            {
+                System.err.println("No facts found for country: " + countryName);
+                continue;
+            }
+
+            indexed.add(new IndexEntry(countryName, capitalCityName, Map.copyOf(attributes), source, file,
+                    fileSize, modified, factStart, factEnd - factStart, factCount));
+        }
+
+        return indexed;
+    }
+
+    private static int lineEnd(final MappedByteBuffer mapped, final int from)
+    {
+        int end = from;
+        while(end < mapped.limit() && mapped.get(end) != LINE_FEED)
+        {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the position of the first character on a line that {@link String#trim()} would keep,
+     * or the line's end if there is none.
+     */
+    private static int firstNonBlank(final MappedByteBuffer mapped, final int from)
+    {
+        int position = from;
+        while(position < mapped.limit() && mapped.get(position) != LINE_FEED
+                && Byte.toUnsignedInt(mapped.get(position)) <= BLANK_CHARACTER)
+        {
+            position++;
+        }
+        return Math.min(position, mapped.limit() - 1);
+    }
+
+    /**
+     * Checks whether a line holds only characters that {@link String#trim()} would remove.
+     */
+    private static boolean isBlank(final MappedByteBuffer mapped, final int from, final int to)
+    {
+        for(int i = from; i < to; i++)
+        {
+            if(Byte.toUnsignedInt(mapped.get(i)) > BLANK_CHARACTER)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(final MappedByteBuffer mapped, final int from, final int to)
+    {
+        final byte[] bytes = new byte[to - from];
+        mapped.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Everything kept in memory about one country: its header, where its facts are on disk, and the
+     * size and modification time of the file when those positions were recorded.
+     */
+    private record IndexEntry(String name, String capital, Map<String, String> attributes, String source, Path file,
+                              long fileSize, FileTime modified, long factOffset, int factLength, int factCount)
+    {
+    }
+}
@@ -0,0 +1,213 @@
+package WordGame;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Ranking queries over the history in a {@link ScoreLog}: the top scores by average or by total,
+ * the best score of each day or week, and where a score would rank.
+ * <p>
+ * Each ranking is a {@link RankIndex} over the log's record numbers, and the best record of each day
+ * and of each week (starting on Monday) is kept in a sorted map, so every query takes logarithmic time
+ * plus one record read per score returned. Only the ranked values are held in memory; the scores
+ * themselves are read back from the log. {@link #refresh()} indexes just the records appended since
+ * the last call, including those appended by other processes.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class Leaderboard
+{
+    private static final int REFRESH_BLOCK_SIZE = 4096;
+
+    /**
+     * What scores are ranked by.
+     */
+    enum Ranking
+    {
+        AVERAGE,
+        TOTAL
+    }
+
+    /**
+     * A score with its position on a leaderboard.
+     *
+     * @param rank  the position, 1 for the best score
+     * @param score the score
+     */
+    record RankedScore(int rank, Score score)
+    {
+    }
+
+    private final ScoreLog log;
+    private final RankIndex byAverage;
+    private final RankIndex byTotal;
+    private final NavigableMap<LocalDate, Integer> bestByDay;
+    private final NavigableMap<LocalDate, Integer> bestByWeek;
+
+    /**
+     * Creates a leaderboard over a log and indexes every record in it.
+     *
+     * @param log the score history
+     * @throws IOException if the log cannot be read
+     */
+    Leaderboard(final ScoreLog log) throws IOException
+    {
+        this.log = log;
+        this.byAverage = new RankIndex();
+        this.byTotal = new RankIndex();
+        this.bestByDay = new TreeMap<>();
+        this.bestByWeek = new TreeMap<>();
+
+        refresh();
+    }
+
+    /**
+     * Indexes every record appended to the log since the leaderboard was built or last refreshed.
+     *
+     * @throws IOException if the log cannot be read
+     */
+    synchronized void refresh() throws IOException
+    {
+        final int size = log.size();
+
+        for(int start = byAverage.size(); start < size; start += REFRESH_BLOCK_SIZE)
+        {
+            for(final Score score : log.range(start, Math.min(size, start + REFRESH_BLOCK_SIZE)))
+            {
+                add(score);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of scores on the leaderboard.
+     *
+     * @return the number of indexed scores
+     */
+    synchronized int size()
+    {
+        return byAverage.size();
+    }
+
+    /**
+     * Returns the best scores, best first. Equal scores are ordered by when they were recorded.
+     *
+     * @param ranking what to rank by
+     * @param count   the maximum number of scores to return
+     * @return up to {@code count} scores with their ranks
+     * @throws IOException if the scores cannot be read from the log
+     */
+    synchronized List<RankedScore> top(final Ranking ranking, final int count) throws IOException
+    {
+        final RankIndex index = index(ranking);
+        final int returned = Math.min(count, index.size());
+        final List<RankedScore> top = new ArrayList<>(returned);
+
+        for(int position = 0; position < returned; position++)
+        {
+            final int record = index.select(position);
+            top.add(new RankedScore(1 + index.countAbove(index.valueOf(record)), log.get(record)));
+        }
+
+        return top;
+    }
+
+    /**
+     * Returns the rank a score has, or would have, on the leaderboard: one more than the number of
+     * scores strictly better than it, so equal scores share a rank.
+     *
+     * @param ranking what to rank by
+     * @param score   the score to rank
+     * @return the rank, 1 for the best
+     */
+    synchronized int rankOf(final Ranking ranking, final Score score)
+    {
+        return 1 + index(ranking).countAbove(valueOf(ranking, score));
+    }
+
+    /**
+     * Returns the score with the best average for each day in a range that has any scores.
+     *
+     * @param from the first day
+     * @param to   the day after the last one
+     * @return the best score of each day, in date order
+     * @throws IOException if the scores cannot be read from the log
+     */
+    synchronized Map<LocalDate, Score> bestByDay(final LocalDate from, final LocalDate to) throws IOException
+    {
+        return readBest(bestByDay.subMap(from, true, to, false));
+    }
+
+    /**
+     * Returns the score with the best average for each week in a range that has any scores.
+     * Weeks start on Monday and are keyed by that date.
+     *
+     * @param from a day in the first week
+     * @param to   the day after the last day of the range
+     * @return the best score of each week, in date order
+     * @throws IOException if the scores cannot be read from the log
+     */
+    synchronized Map<LocalDate, Score> bestByWeek(final LocalDate from, final LocalDate to) throws IOException
+    {
+        return readBest(bestByWeek.subMap(weekOf(from), true, to, false));
+    }
+
+    private void add(final Score score)
+    {
+        final int record = byAverage.add(score.getAverageScore());
+        byTotal.add(score.getScore());
+
+        final LocalDate day = score.getDateTimePlayed().toLocalDate();
+        keepBest(bestByDay, day, record);
+        keepBest(bestByWeek, weekOf(day), record);
+    }
+
+    /**
+     * Replaces the best record for a period if the new record has a higher average; ties keep the earlier record.
+     */
+    private void keepBest(final NavigableMap<LocalDate, Integer> best, final LocalDate period, final int record)
+    {
+        final Integer current = best.get(period);
+
+        if(current == null || byAverage.valueOf(record) > byAverage.valueOf(current))
+        {
+            best.put(period, record);
+        }
+    }
+
+    private Map<LocalDate, Score> readBest(final Map<LocalDate, Integer> records) throws IOException
+    {
+        final Map<LocalDate, Score> best = new LinkedHashMap<>();
+
+        for(final Map.Entry<LocalDate, Integer> entry : records.entrySet())
+        {
+            best.put(entry.getKey(), log.get(entry.getValue()));
+        }
+
+        return best;
+    }
+
+    private RankIndex index(final Ranking ranking)
+    {
+        return ranking == Ranking.AVERAGE ? byAverage : byTotal;
+    }
+
+    private static double valueOf(final Ranking ranking, final Score score)
+    {
+        return ranking == Ranking.AVERAGE ? score.getAverageScore() : score.getScore();
+    }
+
+    private static LocalDate weekOf(final LocalDate day)
+    {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
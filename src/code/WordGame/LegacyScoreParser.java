@@ -0,0 +1,409 @@
+package WordGame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Streams {@link Score}s out of the legacy text score format without regular expressions.
+ * <p>
+ * The file is read as raw bytes in large chunks. Each line's label is compared byte by byte
+ * against the known labels and its value is scanned in place, so the only objects created per entry
+ * are the score and its time. Entries may be separated by blank lines or by lines of dashes, and the
+ * total and average lines, whose values are derived, are skipped whichever label they use (the older
+ * "Total WordGame.Score" form included). An entry missing a required field is reported and skipped.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class LegacyScoreParser
+{
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final byte[] DATE_TIME_LABEL = label("Date and Time");
+    private static final byte[] GAMES_PLAYED_LABEL = label("Total Games Played");
+    private static final byte[] FIRST_ATTEMPT_LABEL = label("Correct answers on the first attempt");
+    private static final byte[] SECOND_ATTEMPT_LABEL = label("Correct answers on the second attempt");
+    private static final byte[] INCORRECT_LABEL = label("Incorrect answers");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_LINE_CAPACITY = 128;
+    private static final int END_OF_STREAM = -1;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte LABEL_SEPARATOR = ':';
+    private static final byte SPACE = ' ';
+    private static final byte DASH = '-';
+    private static final int DECIMAL_RADIX = 10;
+    private static final int NOT_FOUND = -1;
+
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final int YEAR_OFFSET = 0;
+    private static final int MONTH_OFFSET = 5;
+    private static final int DAY_OFFSET = 8;
+    private static final int HOUR_OFFSET = 11;
+    private static final int MINUTE_OFFSET = 14;
+    private static final int SECOND_OFFSET = 17;
+    private static final int YEAR_DIGITS = 4;
+    private static final int FIELD_DIGITS = 2;
+
+    private static final int GAMES_PLAYED = 0;
+    private static final int FIRST_ATTEMPT = 1;
+    private static final int SECOND_ATTEMPT = 2;
+    private static final int INCORRECT = 3;
+    private static final int COUNTER_FIELDS = 4;
+
+    private LegacyScoreParser()
+    {
+    }
+
+    /**
+     * Parses every entry in a legacy score file and hands each score to the consumer in file order.
+     * A missing file has no entries.
+     *
+     * @param file     the text score file
+     * @param consumer receives each parsed score
+     * @throws IOException if the file cannot be read
+     */
+    static void forEach(final Path file, final Consumer<Score> consumer) throws IOException
+    {
+        if(Files.notExists(file))
+        {
+            return;
+        }
+
+        try(InputStream in = Files.newInputStream(file))
+        {
+            new EntryScanner(file, consumer).scan(in);
+        }
+    }
+
+    /**
+     * Parses a "yyyy-MM-dd HH:mm:ss" time in place. Values of any other shape fall back to the
+     * shared formatter, which reports what is wrong with them.
+     *
+     * @param line  the line holding the value
+     * @param start where the value starts
+     * @param end   where the value ends
+     * @return the parsed time
+     * @throws DateTimeParseException if the value is not a valid time
+     */
+    static LocalDateTime parseDateTime(final byte[] line, final int start, final int end)
+    {
+        if(end - start == DATE_TIME_LENGTH && hasDateTimeSeparators(line, start))
+        {
+            final int year = digits(line, start + YEAR_OFFSET, YEAR_DIGITS);
+            final int month = digits(line, start + MONTH_OFFSET, FIELD_DIGITS);
+            final int day = digits(line, start + DAY_OFFSET, FIELD_DIGITS);
+            final int hour = digits(line, start + HOUR_OFFSET, FIELD_DIGITS);
+            final int minute = digits(line, start + MINUTE_OFFSET, FIELD_DIGITS);
+            final int second = digits(line, start + SECOND_OFFSET, FIELD_DIGITS);
+
+            if(year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0)
+            {
+                try
+                {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch(final DateTimeException e)
+                {
+                    // Out of range fields; let the formatter produce the error message
+                }
+            }
+        }
+
+        return LocalDateTime.parse(new String(line, start, end - start, StandardCharsets.UTF_8), DATE_TIME_FORMATTER);
+    }
+
+    private static boolean hasDateTimeSeparators(final byte[] line, final int start)
+    {
+        return line[start + MONTH_OFFSET - 1] == DASH
+                && line[start + DAY_OFFSET - 1] == DASH
+                && line[start + HOUR_OFFSET - 1] == SPACE
+                && line[start + MINUTE_OFFSET - 1] == LABEL_SEPARATOR
+                && line[start + SECOND_OFFSET - 1] == LABEL_SEPARATOR;
+    }
+
+    /**
+     * Reads a fixed number of decimal digits, or returns -1 if any of them is not a digit.
+     */
+    private static int digits(final byte[] line, final int start, final int count)
+    {
+        int value = 0;
+
+        for(int i = start; i < start + count; i++)
+        {
+            final int digit = Character.digit(line[i], DECIMAL_RADIX);
+            if(digit < 0)
+            {
+                return NOT_FOUND;
+            }
+            value = value * DECIMAL_RADIX + digit;
+        }
+
+        return value;
+    }
+
+    private static byte[] label(final String text)
+    {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Walks the lines of one file, collecting the fields of the current entry until a separator,
+     * the next entry's time, or the end of the file completes it.
+     */
+    private static final class EntryScanner
+    {
+        private final Path file;
+        private final Consumer<Score> consumer;
+        private final int[] counters;
+        private final boolean[] seen;
+        private byte[] line;
+        private int lineLength;
+        private int lineNumber;
+        private LocalDateTime dateTimePlayed;
+        private boolean entryStarted;
+        private boolean discarding;
+
+        EntryScanner(final Path file, final Consumer<Score> consumer)
+        {
+            this.file = file;
+            this.consumer = consumer;
+            this.counters = new int[COUNTER_FIELDS];
+            this.seen = new boolean[COUNTER_FIELDS];
+            this.line = new byte[INITIAL_LINE_CAPACITY];
+        }
+
+        void scan(final InputStream in) throws IOException
+        {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while((read = in.read(buffer)) != END_OF_STREAM)
+            {
+                for(int i = 0; i < read; i++)
+                {
+                    final byte next = buffer[i];
+
+                    if(next == LINE_FEED)
+                    {
+                        handleLine();
+                        lineLength = 0;
+                    }
+                    else
+                    {
+                        if(lineLength == line.length)
+                        {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[lineLength++] = next;
+                    }
+                }
+            }
+
+            if(lineLength > 0)
+            {
+                handleLine();
+            }
+            finishEntry();
+        }
+
+        private void handleLine()
+        {
+            lineNumber++;
+
+            int end = lineLength;
+            if(end > 0 && line[end - 1] == CARRIAGE_RETURN)
+            {
+                end--;
+            }
+
+            if(isSeparator(end))
+            {
+                finishEntry();
+                discarding = false;
+                return;
+            }
+
+            final int colon = indexOf(LABEL_SEPARATOR, end);
+            if(colon == NOT_FOUND)
+            {
+                reportAndDiscard("missing ':'");
+                return;
+            }
+            if(discarding && !labelIs(DATE_TIME_LABEL, colon))
+            {
+                return;
+            }
+            discarding = false;
+
+            int valueStart = colon + 1;
+            while(valueStart < end && line[valueStart] == SPACE)
+            {
+                valueStart++;
+            }
+
+            try
+            {
+                if(labelIs(DATE_TIME_LABEL, colon))
+                {
+                    finishEntry();
+                    dateTimePlayed = parseDateTime(line, valueStart, end);
+                    entryStarted = true;
+                }
+                else if(labelIs(GAMES_PLAYED_LABEL, colon))
+                {
+                    setCounter(GAMES_PLAYED, valueStart, end);
+                }
+                else if(labelIs(FIRST_ATTEMPT_LABEL, colon))
+                {
+                    setCounter(FIRST_ATTEMPT, valueStart, end);
+                }
+                else if(labelIs(SECOND_ATTEMPT_LABEL, colon))
+                {
+                    setCounter(SECOND_ATTEMPT, valueStart, end);
+                }
+                else if(labelIs(INCORRECT_LABEL, colon))
+                {
+                    setCounter(INCORRECT, valueStart, end);
+                }
+                else
+                {
+                    // The total and average lines are derived from the counters
+                    entryStarted = true;
+                }
+            } catch(final DateTimeParseException | NumberFormatException e)
+            {
+                reportAndDiscard(e.getMessage());
+            }
+        }
+
+        /**
+         * Emits the current entry if it has every field, reports it if it is incomplete, and starts a new one.
+         */
+        private void finishEntry()
+        {
+            if(!entryStarted)
+            {
+                return;
+            }
+
+            if(dateTimePlayed != null && seen[GAMES_PLAYED] && seen[FIRST_ATTEMPT]
+                    && seen[SECOND_ATTEMPT] && seen[INCORRECT])
+            {
+                consumer.accept(new Score(dateTimePlayed, counters[GAMES_PLAYED], counters[FIRST_ATTEMPT],
+                        counters[SECOND_ATTEMPT], counters[INCORRECT]));
+            }
+            else
+            {
+                System.err.println("Error parsing score entry in " + file + " before line " + lineNumber + ": missing fields");
+            }
+
+            reset();
+        }
+
+        /**
+         * Reports a bad line and skips the rest of its entry.
+         */
+        private void reportAndDiscard(final String reason)
+        {
+            if(!discarding)
+            {
+                System.err.println("Error parsing score entry in " + file + " at line " + lineNumber + ": " + reason);
+            }
+            reset();
+            discarding = true;
+        }
+
+        private void reset()
+        {
+            dateTimePlayed = null;
+            entryStarted = false;
+            Arrays.fill(seen, false);
+        }
+
+        private void setCounter(final int field, final int start, final int end)
+        {
+            counters[field] = parseInt(start, end);
+            seen[field] = true;
+            entryStarted = true;
+        }
+
+        /**
+         * Parses a decimal int, allowing trailing blanks but nothing else.
+         */
+        private int parseInt(final int start, int end)
+        {
+            while(end > start && line[end - 1] == SPACE)
+            {
+                end--;
+            }
+
+            final boolean negative = end > start && line[start] == DASH;
+            int position = negative ? start + 1 : start;
+            long value = 0;
+
+            if(position == end)
+            {
+                throw new NumberFormatException("missing number");
+            }
+
+            while(position < end)
+            {
+                final int digit = Character.digit(line[position++], DECIMAL_RADIX);
+                if(digit < 0)
+                {
+                    throw new NumberFormatException("not a number: " + new String(line, start, end - start, StandardCharsets.UTF_8));
+                }
+
+                value = value * DECIMAL_RADIX + digit;
+                if(value > Integer.MAX_VALUE)
+                {
+                    throw new NumberFormatException("number too large");
+                }
+            }
+
+            return (int) (negative ? -value : value);
+        }
+
+        /**
+         * A blank line or a line made only of dashes ends an entry.
+         */
+        private boolean isSeparator(final int end)
+        {
+            for(int i = 0; i < end; i++)
+            {
+                if(line[i] != DASH && line[i] != SPACE)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(final byte target, final int end)
+        {
+            for(int i = 0; i < end; i++)
+            {
+                if(line[i] == target)
+                {
+                    return i;
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        private boolean labelIs(final byte[] label, final int colon)
+        {
+            return colon == label.length && Arrays.equals(line, 0, colon, label, 0, label.length);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package WordGame;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Shuffle bags of every question a {@link CountryCatalog} can produce, one bag per {@link QuestionType}:
+ * a capital-to-country and a country-to-capital question per country, and a fact-to-country question
+ * per fact.
+ * <p>
+ * Each deal first picks a question type uniformly and then deals from that type's bag, so countries
+ * with many facts do not make fact questions crowd out the others. A type with no questions, such
+ * as facts in a catalog without any, is never picked. Within a bag, questions
+ * are dealt in a random order without repeats until it is empty, after which a new pass over that bag
+ * begins. Each question is packed into a single {@code long} (the country id in the high half, the
+ * question slot in the low half), so building the bags is one array allocation per type and dealing
+ * allocates nothing. Decks built with the same seed over the same catalog deal the same questions in
+ * the same order. A deck can be limited to some of the catalog's countries, such as those a
+ * {@link CountryFilter} selects for a themed quiz.
+ *
+ * @author Ben Henry
+ * @version 1.2
+ */
+final class QuestionDeck implements QuestionSource
+{
+    private static final int COUNTRY_ID_SHIFT = Integer.SIZE;
+    private static final long SLOT_MASK = 0xFFFFFFFFL;
+    private static final int CAPITAL_TO_COUNTRY_SLOT = 0;
+    private static final int COUNTRY_TO_CAPITAL_SLOT = 1;
+    static final int FIRST_FACT_SLOT = 2;
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+
+    private final CountryCatalog catalog;
+    private final long[][] bags;
+    private final int[] remaining;
+    private final int[] dealtTypes;
+    private final Random random;
+
+    /**
+     * Fills the bags with every question the catalog can produce.
+     *
+     * @param catalog the countries to ask about
+     * @param seed    the seed for the dealing order
+     */
+    QuestionDeck(final CountryCatalog catalog, final long seed)
+    {
+        this(catalog, seed, everyCountry(catalog));
+    }
+
+    /**
+     * Fills the bags with every question about the given countries.
+     *
+     * @param catalog   the countries to ask about
+     * @param seed      the seed for the dealing order
+     * @param countries the ids of the countries to include
+     */
+    QuestionDeck(final CountryCatalog catalog, final long seed, final BitSet countries)
+    {
+        int countryCount = 0;
+        int factCount = 0;
+        for(int id = countries.nextSetBit(0); id >= 0 && id < catalog.size(); id = countries.nextSetBit(id + 1))
+        {
+            countryCount++;
+            factCount += catalog.factCount(id);
+        }
+
+        this.catalog = catalog;
+        this.bags = new long[QUESTION_TYPES.length][];
+        this.bags[QuestionType.CAPITAL_TO_COUNTRY.ordinal()] = new long[countryCount];
+        this.bags[QuestionType.COUNTRY_TO_CAPITAL.ordinal()] = new long[countryCount];
+        this.bags[QuestionType.FACT_TO_COUNTRY.ordinal()] = new long[factCount];
+        this.random = new Random(seed);
+
+        final int[] filled = new int[QUESTION_TYPES.length];
+        for(int id = countries.nextSetBit(0); id >= 0 && id < catalog.size(); id = countries.nextSetBit(id + 1))
+        {
+            final int slots = FIRST_FACT_SLOT + catalog.factCount(id);
+
+            for(int slot = 0; slot < slots; slot++)
+            {
+                final long question = pack(id, slot);
+                final int type = questionType(question).ordinal();
+                bags[type][filled[type]++] = question;
+            }
+        }
+
+        int typeCount = 0;
+        final int[] types = new int[QUESTION_TYPES.length];
+        for(int type = 0; type < QUESTION_TYPES.length; type++)
+        {
+            if(bags[type].length > 0)
+            {
+                types[typeCount++] = type;
+            }
+        }
+
+        this.remaining = filled;
+        this.dealtTypes = Arrays.copyOf(types, typeCount);
+    }
+
+    @Override
+    public CountryCatalog catalog()
+    {
+        return catalog;
+    }
+
+    /**
+     * Deals the next question. A question type is picked uniformly, and then one step of a
+     * Fisher-Yates shuffle runs on its bag: a random question is picked from the part of the bag
+     * not yet dealt and swapped behind it, so every pass over a bag is a uniformly random
+     * permutation and no bag ever has to be reshuffled up front.
+     *
+     * @return the packed question; see {@link #countryId(long)}, {@link #questionType(long)}
+     * and {@link #factIndex(long)}
+     * @throws IllegalStateException if the catalog has no countries
+     */
+    @Override
+    public long deal()
+    {
+        if(dealtTypes.length == 0)
+        {
+            throw new IllegalStateException("There are no countries to ask about");
+        }
+
+        final int type = dealtTypes[random.nextInt(dealtTypes.length)];
+        final long[] bag = bags[type];
+        if(remaining[type] == 0)
+        {
+            remaining[type] = bag.length;
+        }
+
+        final int picked = random.nextInt(remaining[type]);
+        remaining[type]--;
+
+        final long question = bag[picked];
+        bag[picked] = bag[remaining[type]];
+        bag[remaining[type]] = question;
+
+        return question;
+    }
+
+    /**
+     * Returns the dense catalog id of the country a question is about.
+     *
+     * @param question a question returned by {@link #deal()}
+     * @return the country id
+     */
+    static int countryId(final long question)
+    {
+        return (int) (question >>> COUNTRY_ID_SHIFT);
+    }
+
+    /**
+     * Returns the type of a question.
+     *
+     * @param question a question returned by {@link #deal()}
+     * @return the question type
+     */
+    static QuestionType questionType(final long question)
+    {
+        return switch(slot(question))
+        {
+            case CAPITAL_TO_COUNTRY_SLOT -> QuestionType.CAPITAL_TO_COUNTRY;
+            case COUNTRY_TO_CAPITAL_SLOT -> QuestionType.COUNTRY_TO_CAPITAL;
+            default -> QuestionType.FACT_TO_COUNTRY;
+        };
+    }
+
+    /**
+     * Returns which fact a fact-to-country question shows.
+     *
+     * @param question a question returned by {@link #deal()} whose type is {@link QuestionType#FACT_TO_COUNTRY}
+     * @return the fact index within the country
+     */
+    static int factIndex(final long question)
+    {
+        return slot(question) - FIRST_FACT_SLOT;
+    }
+
+    /**
+     * Packs a question from its country id and slot: {@value CAPITAL_TO_COUNTRY_SLOT} for
+     * capital-to-country, {@value COUNTRY_TO_CAPITAL_SLOT} for country-to-capital, and
+     * {@value FIRST_FACT_SLOT} plus the fact index for fact-to-country.
+     *
+     * @param countryId the country id
+     * @param slot      the question slot
+     * @return the packed question
+     */
+    static long pack(final int countryId, final int slot)
+    {
+        return ((long) countryId << COUNTRY_ID_SHIFT) | slot;
+    }
+
+    /**
+     * Returns the ids of every country in a catalog.
+     *
+     * @param catalog the catalog
+     * @return a new bitset with every id set
+     */
+    static BitSet everyCountry(final CountryCatalog catalog)
+    {
+        final BitSet countries = new BitSet(catalog.size());
+        countries.set(0, catalog.size());
+        return countries;
+    }
+
+    /**
+     * Returns the slot of a question; see {@link #pack(int, int)}.
+     *
+     * @param question a packed question
+     * @return the slot
+     */
+    static int slot(final long question)
+    {
+        return (int) (question & SLOT_MASK);
+    }
+}
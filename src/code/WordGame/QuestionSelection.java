@@ -0,0 +1,20 @@
+package WordGame;
+
+/**
+ * How a {@link WordGame} chooses its questions.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+enum QuestionSelection
+{
+    /**
+     * Every question once, in random order, before any repeats; see {@link QuestionDeck}.
+     */
+    SHUFFLED,
+
+    /**
+     * Questions the player tends to get wrong come up more often; see {@link AdaptiveQuestionDeck}.
+     */
+    ADAPTIVE
+}
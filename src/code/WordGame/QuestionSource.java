@@ -0,0 +1,37 @@
+package WordGame;
+
+/**
+ * Chooses the questions a {@link WordGame} asks from one {@link CountryCatalog}.
+ * Questions are packed into a {@code long}; see {@link QuestionDeck#countryId(long)},
+ * {@link QuestionDeck#questionType(long)} and {@link QuestionDeck#factIndex(long)}.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+interface QuestionSource
+{
+    /**
+     * Returns the catalog the questions refer to.
+     *
+     * @return the catalog this source was built from
+     */
+    CountryCatalog catalog();
+
+    /**
+     * Chooses the next question.
+     *
+     * @return the packed question
+     * @throws IllegalStateException if the catalog has no countries
+     */
+    long deal();
+
+    /**
+     * Tells the source how the player did on a question it dealt. Sources that do not adapt ignore it.
+     *
+     * @param question the question, as returned by {@link #deal()}
+     * @param outcome  how the player answered
+     */
+    default void recordAnswer(final long question, final AnswerOutcome outcome)
+    {
+    }
+}
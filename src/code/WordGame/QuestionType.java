@@ -0,0 +1,31 @@
+package WordGame;
+
+/**
+ * Enum representing different types of questions in the game.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+enum QuestionType
+{
+    CAPITAL_TO_COUNTRY("Capital to country"),
+    COUNTRY_TO_CAPITAL("Country to capital"),
+    FACT_TO_COUNTRY("Fact to country");
+
+    private final String description;
+
+    QuestionType(final String description)
+    {
+        this.description = description;
+    }
+
+    /**
+     * Returns how the question type is named to players.
+     *
+     * @return the description
+     */
+    String getDescription()
+    {
+        return description;
+    }
+}
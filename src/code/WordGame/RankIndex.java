@@ -0,0 +1,227 @@
+package WordGame;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * An order-statistic index of ids ranked by a value, highest first, with ties broken by the lower id.
+ * <p>
+ * The index is a treap kept in parallel arrays indexed by id: each node stores its children, a random
+ * priority and the size of its subtree, so an insert, finding the id at a rank, and counting the ids
+ * ranked above a value all take expected logarithmic time. Ids must be added in order starting at 0,
+ * which is how score log records are numbered.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class RankIndex
+{
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long PRIORITY_SEED = 0x5EEDL;
+
+    private final Random priorities;
+    private double[] values;
+    private int[] left;
+    private int[] right;
+    private int[] subtreeSize;
+    private int[] priority;
+    private int root;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    RankIndex()
+    {
+        this.priorities = new Random(PRIORITY_SEED);
+        this.values = new double[INITIAL_CAPACITY];
+        this.left = new int[INITIAL_CAPACITY];
+        this.right = new int[INITIAL_CAPACITY];
+        this.subtreeSize = new int[INITIAL_CAPACITY];
+        this.priority = new int[INITIAL_CAPACITY];
+        this.root = NONE;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of ids in the index.
+     *
+     * @return the number of ids
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Adds the next id with its value.
+     *
+     * @param value the value the id is ranked by
+     * @return the id, which is the number of ids added before it
+     */
+    int add(final double value)
+    {
+        final int id = size;
+
+        if(id == values.length)
+        {
+            grow();
+        }
+
+        values[id] = value;
+        left[id] = NONE;
+        right[id] = NONE;
+        subtreeSize[id] = 1;
+        priority[id] = priorities.nextInt();
+        size++;
+
+        root = insert(root, id);
+        return id;
+    }
+
+    /**
+     * Returns the value an id was added with.
+     *
+     * @param id the id
+     * @return its value
+     */
+    double valueOf(final int id)
+    {
+        return values[id];
+    }
+
+    /**
+     * Returns the id at a rank.
+     *
+     * @param rank the rank, 0 for the highest value
+     * @return the id at that rank
+     * @throws IndexOutOfBoundsException if the rank is not below {@link #size()}
+     */
+    int select(final int rank)
+    {
+        if(rank < 0 || rank >= size)
+        {
+            throw new IndexOutOfBoundsException("Rank " + rank + " out of bounds for size " + size);
+        }
+
+        int node = root;
+        int remaining = rank;
+
+        while(true)
+        {
+            final int leftSize = sizeOf(left[node]);
+
+            if(remaining < leftSize)
+            {
+                node = left[node];
+            }
+            else if(remaining == leftSize)
+            {
+                return node;
+            }
+            else
+            {
+                remaining -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Counts the ids whose value is strictly greater than the given value.
+     *
+     * @param value the value to compare against
+     * @return the number of ids ranked above any id with this value
+     */
+    int countAbove(final double value)
+    {
+        int node = root;
+        int count = 0;
+
+        while(node != NONE)
+        {
+            if(values[node] > value)
+            {
+                count += sizeOf(left[node]) + 1;
+                node = right[node];
+            }
+            else
+            {
+                node = left[node];
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Inserts a node into a subtree, rotating it up while its priority is higher than its parent's.
+     */
+    private int insert(final int subtree, final int id)
+    {
+        if(subtree == NONE)
+        {
+            return id;
+        }
+
+        subtreeSize[subtree]++;
+
+        if(comesBefore(id, subtree))
+        {
+            left[subtree] = insert(left[subtree], id);
+            return priority[left[subtree]] > priority[subtree] ? rotateRight(subtree) : subtree;
+        }
+
+        right[subtree] = insert(right[subtree], id);
+        return priority[right[subtree]] > priority[subtree] ? rotateLeft(subtree) : subtree;
+    }
+
+    private int rotateRight(final int node)
+    {
+        final int pivot = left[node];
+
+        left[node] = right[pivot];
+        right[pivot] = node;
+        subtreeSize[pivot] = subtreeSize[node];
+        subtreeSize[node] = sizeOf(left[node]) + sizeOf(right[node]) + 1;
+
+        return pivot;
+    }
+
+    private int rotateLeft(final int node)
+    {
+        final int pivot = right[node];
+
+        right[node] = left[pivot];
+        left[pivot] = node;
+        subtreeSize[pivot] = subtreeSize[node];
+        subtreeSize[node] = sizeOf(left[node]) + sizeOf(right[node]) + 1;
+
+        return pivot;
+    }
+
+    /**
+     * Orders by value, highest first, then by id, lowest first.
+     */
+    private boolean comesBefore(final int id, final int other)
+    {
+        return values[id] > values[other] || (values[id] == values[other] && id < other);
+    }
+
+    private int sizeOf(final int node)
+    {
+        return node == NONE ? 0 : subtreeSize[node];
+    }
+
+    private void grow()
+    {
+        final int capacity = values.length * 2;
+
+        values = Arrays.copyOf(values, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        subtreeSize = Arrays.copyOf(subtreeSize, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+    }
+}
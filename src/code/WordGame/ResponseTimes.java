@@ -0,0 +1,154 @@
+package WordGame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * How long a player took to answer, with one {@link LatencyHistogram} for each question type and
+ * attempt, so slow question types and slow second guesses can be told apart.
+ * <p>
+ * Every histogram is created up front, so recording an answer allocates nothing.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class ResponseTimes
+{
+    static final int FIRST_ATTEMPT = 1;
+    static final int SECOND_ATTEMPT = 2;
+
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+    private static final int ATTEMPTS = SECOND_ATTEMPT;
+
+    private final LatencyHistogram[] histograms;
+
+    /**
+     * Creates empty response times.
+     */
+    ResponseTimes()
+    {
+        this.histograms = new LatencyHistogram[QUESTION_TYPES.length * ATTEMPTS];
+
+        for(int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records how long one answer took.
+     *
+     * @param type    the type of question answered
+     * @param attempt {@value FIRST_ATTEMPT} or {@value SECOND_ATTEMPT}
+     * @param nanos   the time from the prompt to the answer, in nanoseconds
+     */
+    void record(final QuestionType type, final int attempt, final long nanos)
+    {
+        histogram(type, attempt).record(nanos);
+    }
+
+    /**
+     * Returns the histogram for one question type and attempt.
+     *
+     * @param type    the type of question
+     * @param attempt {@value FIRST_ATTEMPT} or {@value SECOND_ATTEMPT}
+     * @return the histogram, which the caller must not change
+     */
+    LatencyHistogram histogram(final QuestionType type, final int attempt)
+    {
+        return histograms[type.ordinal() * ATTEMPTS + attempt - FIRST_ATTEMPT];
+    }
+
+    /**
+     * Returns the number of answers timed.
+     *
+     * @return the count across every question type and attempt
+     */
+    long count()
+    {
+        long count = 0L;
+
+        for(final LatencyHistogram histogram : histograms)
+        {
+            count += histogram.count();
+        }
+
+        return count;
+    }
+
+    /**
+     * Forgets every recorded time.
+     */
+    void clear()
+    {
+        for(final LatencyHistogram histogram : histograms)
+        {
+            histogram.clear();
+        }
+    }
+
+    /**
+     * Returns a copy that can be kept after these times are cleared.
+     *
+     * @return the copy
+     */
+    ResponseTimes copy()
+    {
+        final ResponseTimes copy = new ResponseTimes();
+
+        for(int i = 0; i < histograms.length; i++)
+        {
+            copy.histograms[i].add(histograms[i]);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Returns how many bytes {@link #writeTo(ByteBuffer)} will write.
+     *
+     * @return the encoded size
+     */
+    int encodedSize()
+    {
+        int size = 0;
+
+        for(final LatencyHistogram histogram : histograms)
+        {
+            size += histogram.encodedSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * Writes every histogram, in question type and then attempt order.
+     *
+     * @param out the buffer to write to
+     */
+    void writeTo(final ByteBuffer out)
+    {
+        for(final LatencyHistogram histogram : histograms)
+        {
+            histogram.writeTo(out);
+        }
+    }
+
+    /**
+     * Reads response times written by {@link #writeTo(ByteBuffer)}.
+     *
+     * @param in the buffer to read from
+     * @return the response times
+     * @throws IllegalArgumentException if the encoding is corrupt
+     */
+    static ResponseTimes readFrom(final ByteBuffer in)
+    {
+        final ResponseTimes times = new ResponseTimes();
+
+        for(final LatencyHistogram histogram : times.histograms)
+        {
+            histogram.readFrom(in);
+        }
+
+        return times;
+    }
+}
@@ -0,0 +1,162 @@
+package WordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link ResponseTimes} of the scores in a {@link ScoreLog}, kept in a file beside it because
+ * their size varies while log records have a fixed size.
+ * <p>
+ * The file is a sequence of entries, each the record number of its score, the length of the encoded
+ * times and the times themselves. Only scores that carry response times have an entry. An index from
+ * record number to entry is built by scanning the file once and extended as entries are added, by this
+ * or another process. The log writes a score's record before its entry, so an entry never outlives its
+ * record, and an entry cut short by a crash is dropped before the next append.
+ * <p>
+ * This class does no locking of its own; the log calls it while holding its file lock.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class ResponseTimesFile implements Closeable
+{
+    static final String TIMES_FILE_EXTENSION = ".times";
+
+    private static final int ENTRY_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Map<Integer, Long> entryOffsets;
+    private long indexedTo;
+
+    private ResponseTimesFile(final FileChannel channel)
+    {
+        this.channel = channel;
+        this.entryOffsets = new HashMap<>();
+        this.indexedTo = 0L;
+    }
+
+    /**
+     * Returns where the response times for a log file are kept: beside it, with the
+     * {@value ScoreLog#LOG_FILE_EXTENSION} extension replaced by {@value TIMES_FILE_EXTENSION}.
+     *
+     * @param logFile the score log
+     * @return the response times path
+     */
+    static Path defaultLocation(final Path logFile)
+    {
+        return ScoreLog.sidecar(logFile, TIMES_FILE_EXTENSION);
+    }
+
+    /**
+     * Opens a response times file, creating an empty one if it does not exist.
+     *
+     * @param file the response times file
+     * @return the open file
+     * @throws IOException if the file cannot be opened
+     */
+    static ResponseTimesFile open(final Path file) throws IOException
+    {
+        return new ResponseTimesFile(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Appends the response times of a score. Must be called under the log's exclusive lock,
+     * after the score's record has been written.
+     *
+     * @param recordNumber the score's record number in the log
+     * @param times        the score's response times
+     * @throws IOException if the entry cannot be written
+     */
+    void append(final int recordNumber, final ResponseTimes times) throws IOException
+    {
+        extendIndex();
+        if(channel.size() != indexedTo)
+        {
+            channel.truncate(indexedTo);
+        }
+
+        final int length = times.encodedSize();
+        final ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + length);
+
+        entry.putInt(recordNumber).putInt(length);
+        times.writeTo(entry);
+        entry.flip();
+
+        while(entry.hasRemaining())
+        {
+            channel.write(entry, indexedTo + entry.position());
+        }
+
+        entryOffsets.put(recordNumber, indexedTo);
+        indexedTo += ENTRY_HEADER_SIZE + length;
+    }
+
+    /**
+     * Reads the response times of a score. Must be called under one of the log's locks.
+     *
+     * @param recordNumber the score's record number in the log
+     * @return the times, or empty if the score was saved without any
+     * @throws IOException if the file cannot be read or the entry is corrupt
+     */
+    Optional<ResponseTimes> read(final int recordNumber) throws IOException
+    {
+        extendIndex();
+
+        final Long offset = entryOffsets.get(recordNumber);
+        if(offset == null)
+        {
+            return Optional.empty();
+        }
+
+        final int length = ScoreLog.readFully(channel, offset + Integer.BYTES, Integer.BYTES).getInt();
+        try
+        {
+            return Optional.of(ResponseTimes.readFrom(ScoreLog.readFully(channel, offset + ENTRY_HEADER_SIZE, length)));
+        } catch(final RuntimeException e)
+        {
+            throw new IOException("Corrupt response times for score " + recordNumber, e);
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Indexes every complete entry written since the last scan.
+     */
+    private void extendIndex() throws IOException
+    {
+        final long size = channel.size();
+
+        while(indexedTo + ENTRY_HEADER_SIZE <= size)
+        {
+            final ByteBuffer header = ScoreLog.readFully(channel, indexedTo, ENTRY_HEADER_SIZE);
+            final int recordNumber = header.getInt();
+            final int length = header.getInt();
+
+            if(length < 0 || indexedTo + ENTRY_HEADER_SIZE + length > size)
+            {
+                return;
+            }
+
+            entryOffsets.put(recordNumber, indexedTo);
+            indexedTo += ENTRY_HEADER_SIZE + length;
+        }
+    }
+}
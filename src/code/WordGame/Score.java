@@ -10,13 +10,13 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 class Score {
 
-    private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final int POINTS_PER_FIRST_ATTEMPT = 2;
     private static final int ZERO_GAMES_PLAYED = 0;
-    public static final int EMPTY_SCORE_DATA_LENGTH = 0;
     private final LocalDateTime dateTimePlayed;
     private final int numGamesPlayed;
     private final int numCorrectFirstAttempt;
@@ -24,10 +24,17 @@ class Score {
     private final int numIncorrectTwoAttempts;
     private final int totalScore;
     private final double averageScore;
+    private final ResponseTimes responseTimes;
 
     // Constructor to initialize score details
     Score(final LocalDateTime dateTimePlayed, final int numGamesPlayed, final int numCorrectFirstAttempt,
                  final int numCorrectSecondAttempt, final int numIncorrectTwoAttempts) {
+        this(dateTimePlayed, numGamesPlayed, numCorrectFirstAttempt, numCorrectSecondAttempt, numIncorrectTwoAttempts, null);
+    }
+
+    // Constructor for a score that also records how long each answer took; responseTimes may be null
+    Score(final LocalDateTime dateTimePlayed, final int numGamesPlayed, final int numCorrectFirstAttempt,
+                 final int numCorrectSecondAttempt, final int numIncorrectTwoAttempts, final ResponseTimes responseTimes) {
         this.dateTimePlayed = dateTimePlayed;
         this.numGamesPlayed = numGamesPlayed;
         this.numCorrectFirstAttempt = numCorrectFirstAttempt;
@@ -37,6 +44,7 @@ class Score {
         this.totalScore = (numCorrectFirstAttempt * POINTS_PER_FIRST_ATTEMPT) + numCorrectSecondAttempt;
         // Calculate average score
         this.averageScore = numGamesPlayed > ZERO_GAMES_PLAYED ? (double) totalScore / numGamesPlayed : ZERO_GAMES_PLAYED;
+        this.responseTimes = responseTimes;
     }
 
     LocalDateTime getDateTimePlayed() {
@@ -51,6 +59,26 @@ class Score {
         return totalScore;
     }
 
+    int getNumGamesPlayed() {
+        return numGamesPlayed;
+    }
+
+    int getNumCorrectFirstAttempt() {
+        return numCorrectFirstAttempt;
+    }
+
+    int getNumCorrectSecondAttempt() {
+        return numCorrectSecondAttempt;
+    }
+
+    int getNumIncorrectTwoAttempts() {
+        return numIncorrectTwoAttempts;
+    }
+
+    Optional<ResponseTimes> getResponseTimes() {
+        return Optional.ofNullable(responseTimes);
+    }
+
     static void appendScoreToFile(final Score score, final String filePathString) {
         Path filePath = Paths.get(filePathString);
         try (BufferedWriter writer = Files.newBufferedWriter(filePath, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
@@ -62,21 +90,9 @@ class Score {
 
     static List<Score> readScoresFromFile(final String filePathString) {
         List<Score> scores = new ArrayList<> ();
-        Path filePath = Paths.get(filePathString);
 
         try {
-            if (Files.exists(filePath)) {
-                List<String> fileLines = Files.readAllLines(filePath);
-                StringBuilder scoreData = new StringBuilder();
-                for (final String line : fileLines) {
-                    scoreData.append(line).append("\n");
-
-                    if (line.isEmpty()) {
-                        scores.add(Score.getScoreObject (scoreData.toString()));
-                        scoreData.setLength(EMPTY_SCORE_DATA_LENGTH);
-                    }
-                }
-            }
+            LegacyScoreParser.forEach(Paths.get(filePathString), scores::add);
         } catch (final IOException e) {
             System.err.println("Error reading score file: " + e.getMessage());
         }
@@ -84,7 +100,6 @@ class Score {
     }
 
     String formatForFile() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
         return String.format("""
                         Date and Time: %s
                         Total Games Played: %d
@@ -95,14 +110,13 @@ class Score {
                         Average Score: %.2f
                         
                         """,
-                dateTimePlayed.format(formatter), numGamesPlayed, numCorrectFirstAttempt, numCorrectSecondAttempt,
+                dateTimePlayed.format(DATE_TIME_FORMATTER), numGamesPlayed, numCorrectFirstAttempt, numCorrectSecondAttempt,
                 numIncorrectTwoAttempts, totalScore, averageScore);
     }
 
 
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
         return String.format("""
                         Date and Time: %s
                         Games Played: %d
@@ -111,49 +125,7 @@ class Score {
                         Incorrect Attempts: %d
                         Score: %d points
                         """,
-                dateTimePlayed.format(formatter), numGamesPlayed, numCorrectFirstAttempt, numCorrectSecondAttempt,
+                dateTimePlayed.format(DATE_TIME_FORMATTER), numGamesPlayed, numCorrectFirstAttempt, numCorrectSecondAttempt,
                 numIncorrectTwoAttempts, totalScore);
     }
-
-
-
-    static Score getScoreObject(final String scoreString) {
-
-        final int DATE_TIME_PLAYED_INDEX = 0;
-        final int NUM_GAMES_PLAYED_INDEX = 1;
-        final int NUM_CORRECT_FIRST_ATTEMPT_INDEX = 2;
-        final int NUM_CORRECT_SECOND_ATTEMPT_INDEX = 3;
-        final int NUM_INCORRECT_TWO_ATTEMPTS_INDEX = 4;
-        final int EXPECTED_LINES_COUNT = 7;  // The expected number of lines in the score string
-        final String SPLIT_DELIMITER_REGEX = ": ";
-        final String LINE_BREAK = "\n";
-
-        final int SPLIT_LIMIT = 2;
-        final int SPLIT_INDEX = 1;
-
-        String[] lines = scoreString.split(LINE_BREAK);
-
-        // Ensure there are enough lines in the score string
-        if (lines.length < EXPECTED_LINES_COUNT) return null;
-
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
-
-            // Parse the score components using constants
-            LocalDateTime dateTimePlayed = LocalDateTime.parse(lines[DATE_TIME_PLAYED_INDEX].split(SPLIT_DELIMITER_REGEX, SPLIT_LIMIT)[SPLIT_INDEX], formatter);
-            int numGamesPlayed = Integer.parseInt(lines[NUM_GAMES_PLAYED_INDEX].split(SPLIT_DELIMITER_REGEX, SPLIT_LIMIT)[SPLIT_INDEX]);
-            int numCorrectFirstAttempt = Integer.parseInt(lines[NUM_CORRECT_FIRST_ATTEMPT_INDEX].split(SPLIT_DELIMITER_REGEX, SPLIT_LIMIT)[SPLIT_INDEX]);
-            int numCorrectSecondAttempt = Integer.parseInt(lines[NUM_CORRECT_SECOND_ATTEMPT_INDEX].split(SPLIT_DELIMITER_REGEX, SPLIT_LIMIT)[SPLIT_INDEX]);
-            int numIncorrectTwoAttempts = Integer.parseInt(lines[NUM_INCORRECT_TWO_ATTEMPTS_INDEX].split(SPLIT_DELIMITER_REGEX, SPLIT_LIMIT)[SPLIT_INDEX]);
-
-
-            return new Score(dateTimePlayed, numGamesPlayed, numCorrectFirstAttempt, numCorrectSecondAttempt,
-                    numIncorrectTwoAttempts);
-        } catch (final Exception e) {
-            System.err.println("Error parsing score entry: " + e.getMessage());
-            return null;
-        }
-    }
-
-
 }
@@ -0,0 +1,864 @@
+package WordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An append-only binary log of {@link Score}s with one fixed-size record per session.
+ * <p>
+ * Because every record has the same size, the n-th score is at a known offset: appending writes one
+ * record at the end of the file, and the most recent scores are read without touching the rest.
+ * Date-range lookups use a sparse index holding the timestamp of every {@value INDEX_INTERVAL}th record,
+ * extended from the file as records are added, so they read only the records in the range plus
+ * at most one block before it. Range lookups assume records were appended in play order.
+ * <p>
+ * Layout (big-endian): a header of magic, version and record size; then one record per score of
+ * the time played (epoch seconds of the local date and time), games played, correct first attempts,
+ * correct second attempts and incorrect answers.
+ * <p>
+ * Each append also updates a {@link ScoreSummary} sidecar, so the best average and the running
+ * totals are available without reading the records. A missing or out-of-date sidecar is rebuilt
+ * from the log the next time the summary is asked for. A {@link ScoreSketch} of the average scores
+ * is kept in a second sidecar the same way, so a score's percentile rank is available without
+ * sorting the history.
+ * <p>
+ * Scores that carry {@link ResponseTimes} have them saved in a {@link ResponseTimesFile} beside the
+ * log, written after the score's record under the same lock. The bulk reads below return scores
+ * without their times; {@link #responseTimes(int)} reads them for one score.
+ * <p>
+ * Several processes may share one log. Appends hold an exclusive {@link FileLock} while they write
+ * the records and the sidecar, and reads hold a shared one, so no reader sees a torn record. The
+ * number of records is read from the file under the lock rather than cached, so records appended by
+ * other processes are picked up. Within one JVM, logs on the same file also share a monitor, since
+ * a JVM may not hold two overlapping file locks.
+ *
+ * @author Ben Henry
+ * @version 1.6
+ */
+final class ScoreLog implements Closeable
+{
+    static final String LOG_FILE_EXTENSION = ".log";
+
+    private static final int MAGIC = 0x5343524C;
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = Long.BYTES + 4 * Integer.BYTES;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int INDEX_INTERVAL = 256;
+    private static final String LEGACY_FILE_EXTENSION = ".txt";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int END_OF_STREAM = -1;
+    private static final long LOCK_START = 0L;
+    private static final boolean SHARED = true;
+    private static final boolean EXCLUSIVE = false;
+
+    private static final Map<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Path summaryFile;
+    private final Path sketchFile;
+    private final Path timesFile;
+    private final Object processLock;
+    private final List<Long> sparseIndex;
+    private ScoreSummary summary;
+    private ScoreSketch sketch;
+    private ResponseTimesFile times;
+
+    private ScoreLog(final Path file, final FileChannel channel)
+    {
+        this.file = file;
+        this.channel = channel;
+        this.summaryFile = ScoreSummary.defaultLocation(file);
+        this.sketchFile = ScoreSketch.defaultLocation(file);
+        this.timesFile = ResponseTimesFile.defaultLocation(file);
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), path -> new Object());
+        this.sparseIndex = new ArrayList<>();
+        this.summary = null;
+        this.sketch = null;
+        this.times = null;
+    }
+
+    /**
+     * Returns where the binary log for a legacy text score file is kept: beside it, with the
+     * {@value LEGACY_FILE_EXTENSION} extension replaced by {@value LOG_FILE_EXTENSION}.
+     *
+     * @param legacyFile the text score file
+     * @return the log file path
+     */
+    static Path defaultLocation(final Path legacyFile)
+    {
+        return replaceExtension(legacyFile, LEGACY_FILE_EXTENSION, LOG_FILE_EXTENSION);
+    }
+
+    /**
+     * Returns where a sidecar of a log file is kept: beside it, with the {@value LOG_FILE_EXTENSION}
+     * extension replaced by the sidecar's own.
+     *
+     * @param logFile   the score log
+     * @param extension the sidecar's extension, including the dot
+     * @return the sidecar path
+     */
+    static Path sidecar(final Path logFile, final String extension)
+    {
+        return replaceExtension(logFile, LOG_FILE_EXTENSION, extension);
+    }
+
+    private static Path replaceExtension(final Path file, final String extension, final String replacement)
+    {
+        final String name = file.getFileName().toString();
+        final String baseName = name.endsWith(extension)
+                ? name.substring(0, name.length() - extension.length())
+                : name;
+
+        return file.resolveSibling(baseName + replacement);
+    }
+
+    /**
+     * Opens a score log, creating an empty one if the file does not exist.
+     * A record left half written by a crashed writer is dropped.
+     *
+     * @param file the log file
+     * @return the open log
+     * @throws IOException if the file cannot be opened or is not a score log of this version
+     */
+    static ScoreLog open(final Path file) throws IOException
+    {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final ScoreLog log = new ScoreLog(file, channel);
+
+        try
+        {
+            log.locked(EXCLUSIVE, () ->
+            {
+                if(channel.size() == 0)
+                {
+                    writeHeader(channel);
+                }
+
+                checkHeader(channel, file);
+                return log.dropTornRecord();
+            });
+        } catch(final IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+
+        return log;
+    }
+
+    /**
+     * Opens an existing score log for reading only. Nothing is created, truncated or rewritten,
+     * so it is safe to use on another kiosk's log.
+     *
+     * @param file the log file
+     * @return the open log, whose only safe uses are reads
+     * @throws IOException if the file does not exist, cannot be opened or is not a score log of this version
+     */
+    private static ScoreLog openReadOnly(final Path file) throws IOException
+    {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        final ScoreLog log = new ScoreLog(file, channel);
+
+        try
+        {
+            log.locked(SHARED, () ->
+            {
+                if(channel.size() < HEADER_SIZE)
+                {
+                    throw new IOException("Not a version " + VERSION + " score log: " + file);
+                }
+                checkHeader(channel, file);
+                return null;
+            });
+        } catch(final IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+
+        return log;
+    }
+
+    private static void checkHeader(final FileChannel channel, final Path file) throws IOException
+    {
+        final ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+
+        if(header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != RECORD_SIZE)
+        {
+            throw new IOException("Not a version " + VERSION + " score log: " + file);
+        }
+    }
+
+    /**
+     * Opens the log kept beside a legacy text score file. The first time, the log is created
+     * from every score in the text file; the text file itself is left as it is.
+     *
+     * @param legacyFile the text score file
+     * @return the open log
+     * @throws IOException if the log cannot be created or opened
+     */
+    static ScoreLog openMigrating(final Path legacyFile) throws IOException
+    {
+        final Path logFile = defaultLocation(legacyFile);
+
+        if(Files.notExists(logFile) && Files.exists(legacyFile))
+        {
+            migrate(legacyFile, logFile);
+        }
+
+        return open(logFile);
+    }
+
+    /**
+     * Streams every parsable score in a legacy text file into a new log. The log is written to a
+     * temporary file of its own and moved into place only if no log exists yet, so two processes
+     * migrating at once cannot replace a log the other has started appending to.
+     *
+     * @param legacyFile the text score file
+     * @param logFile    the log file to create
+     * @throws IOException if the log cannot be written
+     */
+    static void migrate(final Path legacyFile, final Path logFile) throws IOException
+    {
+        final Path temp = Files.createTempFile(logFile.toAbsolutePath().getParent(),
+                logFile.getFileName().toString(), TEMP_FILE_SUFFIX);
+
+        try
+        {
+            try(ScoreLog log = open(temp))
+            {
+                LegacyScoreParser.forEach(legacyFile, score ->
+                {
+                    try
+                    {
+                        log.writeRecords(List.of(score), log.currentSize());
+                    } catch(final IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.channel.force(true);
+            } catch(final UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+
+            Files.move(temp, logFile);
+        } catch(final FileAlreadyExistsException e)
+        {
+            // Another process finished migrating first; use its log
+        } finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the number of scores in the log, including those appended by other processes.
+     *
+     * @return the number of records
+     * @throws IOException if the file size cannot be read
+     */
+    int size() throws IOException
+    {
+        return locked(SHARED, this::currentSize);
+    }
+
+    /**
+     * Returns the aggregates over every score in the log. The sidecar is read when the log has
+     * changed since it was last read; if it is missing, unreadable or does not cover exactly the
+     * records in the log, it is rebuilt by reading the log once.
+     *
+     * @return the summary of every score in the log
+     * @throws IOException if the log cannot be read or the rebuilt sidecar cannot be written
+     */
+    ScoreSummary summary() throws IOException
+    {
+        return locked(EXCLUSIVE, () -> currentSummary(currentSize()));
+    }
+
+    /**
+     * Returns a sketch of the average score of every session in the log. The sidecar is read and
+     * rebuilt like the summary's.
+     *
+     * @return a copy of the sketch, which the caller may change or merge into
+     * @throws IOException if the log cannot be read or the rebuilt sidecar cannot be written
+     */
+    ScoreSketch sketch() throws IOException
+    {
+        return locked(EXCLUSIVE, () -> currentSketch(currentSize()).copy());
+    }
+
+    /**
+     * Returns one sketch of the average scores in several logs, for example the score files
+     * of several kiosks. The logs are only read, under shared locks: a log whose sketch sidecar
+     * is missing or out of date is sketched in memory, and no file is created or rewritten.
+     *
+     * @param logFiles the score logs
+     * @return the merged sketch
+     * @throws IOException if any log does not exist or cannot be read
+     */
+    static ScoreSketch mergedSketch(final List<Path> logFiles) throws IOException
+    {
+        final ScoreSketch merged = new ScoreSketch();
+
+        for(final Path logFile : logFiles)
+        {
+            try(ScoreLog log = openReadOnly(logFile))
+            {
+                merged.merge(log.locked(SHARED, log::storedSketch));
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Appends a score as one record at the end of the file and updates the sidecars.
+     *
+     * @param score the score to append
+     * @throws IOException if the record or the sidecar cannot be written
+     */
+    void append(final Score score) throws IOException
+    {
+        appendAll(List.of(score), false);
+    }
+
+    /**
+     * Appends a batch of scores with one write, under one exclusive lock, and updates the summary
+     * and sketch sidecars once for the whole batch. The response times of scores that carry any
+     * are appended after the records.
+     *
+     * @param scores the scores to append, in order
+     * @param force  whether to force the records to disk before the sidecar is updated
+     * @return the summary including the batch
+     * @throws IOException if the records or the sidecar cannot be written
+     */
+    ScoreSummary appendAll(final List<Score> scores, final boolean force) throws IOException
+    {
+        return locked(EXCLUSIVE, () ->
+        {
+            final int size = dropTornRecord();
+            ScoreSummary updated = currentSummary(size);
+            final ScoreSketch updatedSketch = currentSketch(size);
+
+            writeRecords(scores, size);
+            if(force)
+            {
+                channel.force(false);
+            }
+
+            for(int i = 0; i < scores.size(); i++)
+            {
+                final Optional<ResponseTimes> responseTimes = scores.get(i).getResponseTimes();
+
+                if(responseTimes.isPresent())
+                {
+                    times().append(size + i, responseTimes.get());
+                }
+            }
+
+            for(final Score score : scores)
+            {
+                updated = updated.plus(score);
+                updatedSketch.add(score.getAverageScore());
+            }
+
+            updated.write(summaryFile);
+            summary = updated;
+            updatedSketch.write(sketchFile);
+            return updated;
+        });
+    }
+
+    /**
+     * Reads the score at a position in the log.
+     *
+     * @param index the record number, starting at 0 for the oldest score
+     * @return the score
+     * @throws IOException if the record cannot be read
+     */
+    Score get(final int index) throws IOException
+    {
+        return locked(SHARED, () ->
+        {
+            Objects.checkIndex(index, currentSize());
+            return readRange(index, index + 1).get(0);
+        });
+    }
+
+    /**
+     * Reads how long the player took to answer each question of a score.
+     *
+     * @param index the record number, starting at 0 for the oldest score
+     * @return the response times, or empty if the score was saved without any
+     * @throws IOException if the response times cannot be read
+     */
+    Optional<ResponseTimes> responseTimes(final int index) throws IOException
+    {
+        return locked(SHARED, () ->
+        {
+            Objects.checkIndex(index, currentSize());
+            if(times == null && Files.notExists(timesFile))
+            {
+                return Optional.<ResponseTimes>empty();
+            }
+            return times().read(index);
+        });
+    }
+
+    /**
+     * Reads the scores with record numbers from {@code from} (inclusive) up to {@code to} (exclusive).
+     *
+     * @param from the first record number
+     * @param to   the record number to stop at
+     * @return the scores, oldest first
+     * @throws IOException if the records cannot be read
+     */
+    List<Score> range(final int from, final int to) throws IOException
+    {
+        return locked(SHARED, () ->
+        {
+            Objects.checkFromToIndex(from, to, currentSize());
+            return readRange(from, to);
+        });
+    }
+
+    /**
+     * Reads the most recent scores, oldest first, without reading earlier records.
+     *
+     * @param count the maximum number of scores to read
+     * @return up to {@code count} of the latest scores
+     * @throws IOException if the records cannot be read
+     */
+    List<Score> tail(final int count) throws IOException
+    {
+        return locked(SHARED, () ->
+        {
+            final int size = currentSize();
+            return readRange(Math.max(0, size - count), size);
+        });
+    }
+
+    /**
+     * Reads every score in the log, oldest first.
+     *
+     * @return all scores
+     * @throws IOException if the records cannot be read
+     */
+    List<Score> readAll() throws IOException
+    {
+        return locked(SHARED, () -> readRange(0, currentSize()));
+    }
+
+    /**
+     * Reads the scores played from {@code from} (inclusive) up to {@code to} (exclusive).
+     * The sparse index narrows the search to one block, so only that block and the matching
+     * records are read.
+     *
+     * @param from the earliest time played to include
+     * @param to   the time played at which to stop
+     * @return the matching scores, oldest first
+     * @throws IOException if the records cannot be read
+     */
+    List<Score> between(final LocalDateTime from, final LocalDateTime to) throws IOException
+    {
+        return locked(SHARED, () ->
+        {
+            final int size = currentSize();
+            final long fromTimestamp = toTimestamp(from);
+            final long toTimestamp = toTimestamp(to);
+            final List<Score> scores = new ArrayList<>();
+
+            for(int start = firstBlockAtOrAfter(fromTimestamp, size); start < size; start += INDEX_INTERVAL)
+            {
+                final int end = Math.min(size, start + INDEX_INTERVAL);
+                final ByteBuffer block = readFully(channel, offsetOf(start), (end - start) * RECORD_SIZE);
+
+                while(block.hasRemaining())
+                {
+                    final long timestamp = block.getLong(block.position());
+
+                    if(timestamp >= toTimestamp)
+                    {
+                        return scores;
+                    }
+
+                    final Score score = readRecord(block);
+                    if(timestamp >= fromTimestamp)
+                    {
+                        scores.add(score);
+                    }
+                }
+            }
+
+            return scores;
+        });
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            channel.close();
+        } finally
+        {
+            if(times != null)
+            {
+                times.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the response times file, opening it the first time it is needed so that logs
+     * whose scores have no response times never create one. Must be called under a lock.
+     */
+    private ResponseTimesFile times() throws IOException
+    {
+        if(times == null)
+        {
+            times = ResponseTimesFile.open(timesFile);
+        }
+        return times;
+    }
+
+    /**
+     * Runs an action while holding this JVM's monitor for the file and a file lock of the given kind.
+     */
+    private <T> T locked(final boolean shared, final LockedAction<T> action) throws IOException
+    {
+        synchronized(processLock)
+        {
+            final FileLock lock = channel.lock(LOCK_START, Long.MAX_VALUE, shared);
+
+            try
+            {
+                return action.run();
+            } finally
+            {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of whole records in the file. Must be called under a lock.
+     */
+    private int currentSize() throws IOException
+    {
+        return Math.toIntExact((channel.size() - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    /**
+     * Cuts off a trailing partial record. A writer holds the exclusive lock until its records are
+     * complete, so a partial record seen under the exclusive lock was left by a crash.
+     *
+     * @return the number of records
+     */
+    private int dropTornRecord() throws IOException
+    {
+        final int size = currentSize();
+
+        if(channel.size() != offsetOf(size))
+        {
+            channel.truncate(offsetOf(size));
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the summary of the first {@code size} records, reusing the cached one if no other
+     * process has appended since, and otherwise reading or rebuilding the sidecar. Must be called
+     * under the exclusive lock.
+     */
+    private ScoreSummary currentSummary(final int size) throws IOException
+    {
+        if(summary != null && summary.count() == size)
+        {
+            return summary;
+        }
+
+        ScoreSummary stored = null;
+
+        if(Files.exists(summaryFile))
+        {
+            try
+            {
+                stored = ScoreSummary.read(summaryFile);
+            } catch(final IOException e)
+            {
+                System.err.println("Error reading score summary, rebuilding it: " + e.getMessage());
+            }
+        }
+
+        if(stored == null || stored.count() != size)
+        {
+            stored = rebuildSummary(size);
+            stored.write(summaryFile);
+        }
+
+        summary = stored;
+        return stored;
+    }
+
+    /**
+     * Returns the sketch of the first {@code size} records, like {@link #currentSummary(int)}.
+     * The cached sketch is returned itself, not a copy. Must be called under the exclusive lock.
+     */
+    private ScoreSketch currentSketch(final int size) throws IOException
+    {
+        if(sketch != null && sketch.count() == size)
+        {
+            return sketch;
+        }
+
+        ScoreSketch stored = null;
+
+        if(Files.exists(sketchFile))
+        {
+            try
+            {
+                stored = ScoreSketch.read(sketchFile);
+            } catch(final IOException e)
+            {
+                System.err.println("Error reading score sketch, rebuilding it: " + e.getMessage());
+            }
+        }
+
+        if(stored == null || stored.count() != size)
+        {
+            stored = rebuildSketch(size);
+            stored.write(sketchFile);
+        }
+
+        sketch = stored;
+        return stored;
+    }
+
+    /**
+     * Returns the sketch of every record without writing anything: the sidecar if it covers exactly
+     * the records in the log, and otherwise a sketch rebuilt in memory. Must be called under a lock.
+     */
+    private ScoreSketch storedSketch() throws IOException
+    {
+        final int size = currentSize();
+
+        if(Files.exists(sketchFile))
+        {
+            try
+            {
+                final ScoreSketch stored = ScoreSketch.read(sketchFile);
+                if(stored.count() == size)
+                {
+                    return stored;
+                }
+            } catch(final IOException e)
+            {
+                System.err.println("Error reading score sketch, rebuilding it in memory: " + e.getMessage());
+            }
+        }
+
+        return rebuildSketch(size);
+    }
+
+    /**
+     * Writes records for the scores starting at the given record number with one positional write.
+     */
+    private void writeRecords(final List<Score> scores, final int firstRecord) throws IOException
+    {
+        final ByteBuffer records = ByteBuffer.allocate(scores.size() * RECORD_SIZE);
+
+        for(final Score score : scores)
+        {
+            records.putLong(toTimestamp(score.getDateTimePlayed()))
+                    .putInt(score.getNumGamesPlayed())
+                    .putInt(score.getNumCorrectFirstAttempt())
+                    .putInt(score.getNumCorrectSecondAttempt())
+                    .putInt(score.getNumIncorrectTwoAttempts());
+        }
+        records.flip();
+
+        final long offset = offsetOf(firstRecord);
+        while(records.hasRemaining())
+        {
+            channel.write(records, offset + records.position());
+        }
+    }
+
+    /**
+     * Reads the log one block at a time and adds up every score.
+     */
+    private ScoreSummary rebuildSummary(final int size) throws IOException
+    {
+        ScoreSummary rebuilt = ScoreSummary.EMPTY;
+
+        for(int start = 0; start < size; start += INDEX_INTERVAL)
+        {
+            for(final Score score : readRange(start, Math.min(size, start + INDEX_INTERVAL)))
+            {
+                rebuilt = rebuilt.plus(score);
+            }
+        }
+
+        return rebuilt;
+    }
+
+    /**
+     * Reads the log one block at a time and sketches every average score.
+     */
+    private ScoreSketch rebuildSketch(final int size) throws IOException
+    {
+        final ScoreSketch rebuilt = new ScoreSketch();
+
+        for(int start = 0; start < size; start += INDEX_INTERVAL)
+        {
+            for(final Score score : readRange(start, Math.min(size, start + INDEX_INTERVAL)))
+            {
+                rebuilt.add(score.getAverageScore());
+            }
+        }
+
+        return rebuilt;
+    }
+
+    /**
+     * Returns the first record of the last indexed block whose first timestamp is before the given
+     * one; scores at or after the timestamp cannot be in any earlier block.
+     */
+    private int firstBlockAtOrAfter(final long timestamp, final int size) throws IOException
+    {
+        extendSparseIndex(size);
+
+        int low = 0;
+        int high = sparseIndex.size() - 1;
+        int block = 0;
+
+        while(low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+
+            if(sparseIndex.get(middle) < timestamp)
+            {
+                block = middle;
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        return block * INDEX_INTERVAL;
+    }
+
+    /**
+     * Reads the timestamp of the first record of each block not yet in the sparse index.
+     * Records are only ever appended, so entries already in the index stay valid.
+     */
+    private void extendSparseIndex(final int size) throws IOException
+    {
+        for(int record = sparseIndex.size() * INDEX_INTERVAL; record < size; record += INDEX_INTERVAL)
+        {
+            sparseIndex.add(readFully(channel, offsetOf(record), Long.BYTES).getLong());
+        }
+    }
+
+    private List<Score> readRange(final int from, final int to) throws IOException
+    {
+        final List<Score> scores = new ArrayList<>(to - from);
+        final ByteBuffer records = readFully(channel, offsetOf(from), (to - from) * RECORD_SIZE);
+
+        while(records.hasRemaining())
+        {
+            scores.add(readRecord(records));
+        }
+
+        return scores;
+    }
+
+    private static Score readRecord(final ByteBuffer records)
+    {
+        final LocalDateTime dateTimePlayed = LocalDateTime.ofEpochSecond(records.getLong(), 0, ZoneOffset.UTC);
+        return new Score(dateTimePlayed, records.getInt(), records.getInt(), records.getInt(), records.getInt());
+    }
+
+    private static long toTimestamp(final LocalDateTime dateTime)
+    {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long offsetOf(final int record)
+    {
+        return HEADER_SIZE + (long) record * RECORD_SIZE;
+    }
+
+    private static void writeHeader(final FileChannel channel) throws IOException
+    {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).flip();
+
+        while(header.hasRemaining())
+        {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Reads exactly {@code length} bytes at a position with positional reads.
+     */
+    static ByteBuffer readFully(final FileChannel channel, final long position, final int length) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while(buffer.hasRemaining())
+        {
+            if(channel.read(buffer, position + buffer.position()) == END_OF_STREAM)
+            {
+                throw new IOException("Score log is shorter than expected");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    @Override
+    public String toString()
+    {
+        return file.toString();
+    }
+
+    /**
+     * Work done while a lock is held.
+     */
+    @FunctionalInterface
+    private interface LockedAction<T>
+    {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,454 @@
+package WordGame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * A mergeable quantile sketch of per-session average scores, used to tell a player where their
+ * average falls in the history without sorting it.
+ * <p>
+ * The sketch is a merging t-digest: values are buffered, and when the buffer fills they are merged
+ * with the existing centroids in one sorted pass. A centroid may only grow while it spans at most one
+ * unit of the scale k(q) = compression / (2&pi;) &middot; asin(2q - 1), so centroids near the extremes
+ * stay small and the tails, where "top 5%" feedback matters, are the most accurate. The sketch holds
+ * about a hundred centroids however many scores it has seen, and sketches from several score logs merge
+ * into one with the same pass.
+ * <p>
+ * The sketch of a {@link ScoreLog} is kept in a sidecar next to the log, like the {@link ScoreSummary},
+ * and records how many scores it covers so a stale sidecar can be detected and rebuilt.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class ScoreSketch
+{
+    static final String SKETCH_FILE_EXTENSION = ".sketch";
+
+    private static final int MAGIC = 0x5343534B;
+    private static final int VERSION = 1;
+    private static final double COMPRESSION = 100.0;
+    private static final int BUFFER_FACTOR = 5;
+    // Each centroid and the first value after it span more than one unit of the scale, which covers
+    // COMPRESSION / 2 units in all, so a merge pass never makes more than about COMPRESSION centroids
+    private static final int MAX_CENTROIDS = 2 * (int) COMPRESSION;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+    private final double[] buffer;
+    private int bufferedCount;
+    private long count;
+    private double min;
+    private double max;
+
+    /**
+     * Creates an empty sketch.
+     */
+    ScoreSketch()
+    {
+        this.means = new double[MAX_CENTROIDS];
+        this.weights = new double[MAX_CENTROIDS];
+        this.centroidCount = 0;
+        this.buffer = new double[(int) COMPRESSION * BUFFER_FACTOR];
+        this.bufferedCount = 0;
+        this.count = 0L;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns a sketch of the given values.
+     *
+     * @param values the values to add
+     * @return the sketch
+     */
+    static ScoreSketch of(final double... values)
+    {
+        final ScoreSketch sketch = new ScoreSketch();
+
+        for(final double value : values)
+        {
+            sketch.add(value);
+        }
+
+        return sketch;
+    }
+
+    /**
+     * Returns the number of values the sketch has seen.
+     *
+     * @return the number of values
+     */
+    long count()
+    {
+        return count;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value, typically a session's average score
+     */
+    void add(final double value)
+    {
+        if(Double.isNaN(value))
+        {
+            throw new IllegalArgumentException("Cannot add NaN to a score sketch");
+        }
+
+        if(bufferedCount == buffer.length)
+        {
+            compress();
+        }
+
+        buffer[bufferedCount++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value another sketch has seen, for example the sketch of another kiosk's score log.
+     * The other sketch is left as it is.
+     *
+     * @param other the sketch to merge in
+     */
+    void merge(final ScoreSketch other)
+    {
+        if(other.count == 0)
+        {
+            return;
+        }
+
+        compress();
+        other.compress();
+
+        collapse(interleave(means, weights, centroidCount, other.means, other.weights, other.centroidCount));
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns a copy of this sketch that can be changed independently.
+     *
+     * @return the copy
+     */
+    ScoreSketch copy()
+    {
+        final ScoreSketch copy = new ScoreSketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Returns the fraction of values below the given one, counting values equal to it as half
+     * below and half above, so the result is the value's percentile rank in the history.
+     *
+     * @param value the value to rank
+     * @return the fraction, from 0 to 1, or 0 if the sketch is empty
+     */
+    double fractionBelow(final double value)
+    {
+        compress();
+
+        if(count == 0 || value < min)
+        {
+            return 0.0;
+        }
+        if(value > max)
+        {
+            return 1.0;
+        }
+
+        double below = 0.0;
+        int next = 0;
+
+        while(next < centroidCount && means[next] < value)
+        {
+            below += weights[next];
+            next++;
+        }
+
+        double equal = 0.0;
+        int after = next;
+
+        while(after < centroidCount && means[after] == value)
+        {
+            equal += weights[after];
+            after++;
+        }
+
+        if(equal > 0.0)
+        {
+            return (below + equal / 2) / count;
+        }
+
+        // Interpolate between the centres of the centroids either side, with min and max as the ends
+        final double leftMean = next == 0 ? min : means[next - 1];
+        final double leftRank = next == 0 ? 0.0 : below - weights[next - 1] / 2;
+        final double rightMean = next == centroidCount ? max : means[next];
+        final double rightRank = next == centroidCount ? count : below + weights[next] / 2;
+
+        if(rightMean == leftMean)
+        {
+            return (leftRank + rightRank) / 2 / count;
+        }
+
+        return (leftRank + (rightRank - leftRank) * (value - leftMean) / (rightMean - leftMean)) / count;
+    }
+
+    /**
+     * Returns an estimate of the value at a quantile.
+     *
+     * @param quantile the quantile, from 0 to 1
+     * @return the estimated value, or NaN if the sketch is empty
+     * @throws IllegalArgumentException if the quantile is outside 0 to 1
+     */
+    double quantile(final double quantile)
+    {
+        if(quantile < 0.0 || quantile > 1.0)
+        {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+
+        compress();
+
+        if(count == 0)
+        {
+            return Double.NaN;
+        }
+
+        final double target = quantile * count;
+        double leftMean = min;
+        double leftRank = 0.0;
+        double seen = 0.0;
+
+        for(int i = 0; i < centroidCount; i++)
+        {
+            final double rank = seen + weights[i] / 2;
+
+            if(target < rank)
+            {
+                return interpolate(leftMean, leftRank, means[i], rank, target);
+            }
+
+            leftMean = means[i];
+            leftRank = rank;
+            seen += weights[i];
+        }
+
+        return interpolate(leftMean, leftRank, max, count, target);
+    }
+
+    /**
+     * Returns where the sketch for a log file is kept: beside it, with the
+     * {@value ScoreLog#LOG_FILE_EXTENSION} extension replaced by {@value SKETCH_FILE_EXTENSION}.
+     *
+     * @param logFile the score log
+     * @return the sidecar path
+     */
+    static Path defaultLocation(final Path logFile)
+    {
+        return ScoreLog.sidecar(logFile, SKETCH_FILE_EXTENSION);
+    }
+
+    /**
+     * Reads a sketch sidecar.
+     *
+     * @param file the sidecar file
+     * @return the stored sketch
+     * @throws IOException if the file cannot be read or is not a sketch of this version
+     */
+    static ScoreSketch read(final Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                throw new IOException("Not a version " + VERSION + " score sketch: " + file);
+            }
+
+            final ScoreSketch sketch = new ScoreSketch();
+            sketch.count = in.readLong();
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            sketch.centroidCount = in.readInt();
+
+            if(sketch.centroidCount < 0 || sketch.centroidCount > MAX_CENTROIDS)
+            {
+                throw new IOException("Corrupt score sketch: " + file);
+            }
+
+            for(int i = 0; i < sketch.centroidCount; i++)
+            {
+                sketch.means[i] = in.readDouble();
+                sketch.weights[i] = in.readDouble();
+            }
+
+            return sketch;
+        }
+    }
+
+    /**
+     * Writes the sketch beside the target and moves it into place, so readers see either
+     * the old sketch or the new one.
+     *
+     * @param file the sidecar file
+     * @throws IOException if the sketch cannot be written
+     */
+    void write(final Path file) throws IOException
+    {
+        final Path temp = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+
+        compress();
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(count);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            out.writeInt(centroidCount);
+
+            for(int i = 0; i < centroidCount; i++)
+            {
+                out.writeDouble(means[i]);
+                out.writeDouble(weights[i]);
+            }
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Merges the buffered values into the centroids.
+     */
+    private void compress()
+    {
+        if(bufferedCount == 0)
+        {
+            return;
+        }
+
+        final double[] unitWeights = new double[bufferedCount];
+
+        Arrays.sort(buffer, 0, bufferedCount);
+        Arrays.fill(unitWeights, 1.0);
+
+        collapse(interleave(means, weights, centroidCount, buffer, unitWeights, bufferedCount));
+        bufferedCount = 0;
+    }
+
+    /**
+     * Merges two runs of centroids sorted by mean into one sorted run.
+     */
+    private static double[][] interleave(final double[] leftMeans, final double[] leftWeights, final int leftCount,
+                                         final double[] rightMeans, final double[] rightWeights, final int rightCount)
+    {
+        final double[] mergedMeans = new double[leftCount + rightCount];
+        final double[] mergedWeights = new double[leftCount + rightCount];
+        int left = 0;
+        int right = 0;
+
+        for(int i = 0; i < mergedMeans.length; i++)
+        {
+            if(right == rightCount || (left < leftCount && leftMeans[left] <= rightMeans[right]))
+            {
+                mergedMeans[i] = leftMeans[left];
+                mergedWeights[i] = leftWeights[left++];
+            }
+            else
+            {
+                mergedMeans[i] = rightMeans[right];
+                mergedWeights[i] = rightWeights[right++];
+            }
+        }
+
+        return new double[][]{mergedMeans, mergedWeights};
+    }
+
+    /**
+     * Replaces the centroids with a sorted run, combining neighbours while each centroid spans
+     * at most one unit of the scale function.
+     */
+    private void collapse(final double[][] sorted)
+    {
+        final double[] sortedMeans = sorted[0];
+        final double[] sortedWeights = sorted[1];
+        double total = 0.0;
+
+        for(final double weight : sortedWeights)
+        {
+            total += weight;
+        }
+
+        final double[] newMeans = new double[MAX_CENTROIDS];
+        final double[] newWeights = new double[MAX_CENTROIDS];
+        int newCount = 0;
+        double mean = sortedMeans[0];
+        double weight = sortedWeights[0];
+        double weightBefore = 0.0;
+        double weightLimit = total * quantileAt(scale(0.0) + 1);
+
+        for(int i = 1; i < sortedMeans.length; i++)
+        {
+            if(weightBefore + weight + sortedWeights[i] <= weightLimit)
+            {
+                weight += sortedWeights[i];
+                mean += (sortedMeans[i] - mean) * sortedWeights[i] / weight;
+            }
+            else
+            {
+                newMeans[newCount] = mean;
+                newWeights[newCount++] = weight;
+                weightBefore += weight;
+                weightLimit = total * quantileAt(scale(weightBefore / total) + 1);
+                mean = sortedMeans[i];
+                weight = sortedWeights[i];
+            }
+        }
+
+        newMeans[newCount] = mean;
+        newWeights[newCount++] = weight;
+
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = newCount;
+    }
+
+    private static double scale(final double quantile)
+    {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+    }
+
+    private static double quantileAt(final double scale)
+    {
+        if(scale >= COMPRESSION / 4)
+        {
+            return 1.0;
+        }
+
+        return (Math.sin(scale * 2 * Math.PI / COMPRESSION) + 1) / 2;
+    }
+
+    private static double interpolate(final double leftValue, final double leftRank,
+                                      final double rightValue, final double rightRank, final double target)
+    {
+        if(rightRank == leftRank)
+        {
+            return leftValue;
+        }
+
+        return leftValue + (rightValue - leftValue) * (target - leftRank) / (rightRank - leftRank);
+    }
+}
@@ -0,0 +1,142 @@
+package WordGame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Running aggregates over every score in a {@link ScoreLog}: how many sessions were recorded, the
+ * summed counters, the best average with when it was played, and the mean average per session.
+ * A summary is updated in constant time per score, so the high-score check does not depend on the
+ * length of the history.
+ * <p>
+ * The summary is kept in a small sidecar file next to the log. The sidecar records how many log
+ * records it covers, so a sidecar left behind by a crash between the two writes is detected and
+ * rebuilt from the log.
+ *
+ * @param count                     the number of scores summarized
+ * @param totalGamesPlayed          the games played across all scores
+ * @param totalCorrectFirstAttempt  the correct first attempts across all scores
+ * @param totalCorrectSecondAttempt the correct second attempts across all scores
+ * @param totalIncorrectTwoAttempts the incorrect answers across all scores
+ * @param totalPoints               the points across all scores
+ * @param bestAverage               the highest average score, or 0 if there are no scores
+ * @param bestDateTimePlayed        when the best average was played, or {@link LocalDateTime#MIN}
+ * @param meanAverage               the mean of the per-session average scores
+ * @author Ben Henry
+ * @version 1.1
+ */
+record ScoreSummary(int count, long totalGamesPlayed, long totalCorrectFirstAttempt, long totalCorrectSecondAttempt,
+                    long totalIncorrectTwoAttempts, long totalPoints, double bestAverage,
+                    LocalDateTime bestDateTimePlayed, double meanAverage)
+{
+    static final ScoreSummary EMPTY = new ScoreSummary(0, 0L, 0L, 0L, 0L, 0L, 0.0, LocalDateTime.MIN, 0.0);
+    static final String SUMMARY_FILE_EXTENSION = ".summary";
+
+    private static final int MAGIC = 0x5343534D;
+    private static final int VERSION = 1;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Returns the summary with one more score added. The best average only changes when it is
+     * beaten, so ties keep the earlier record.
+     *
+     * @param score the score to add
+     * @return the updated summary
+     */
+    ScoreSummary plus(final Score score)
+    {
+        final int newCount = count + 1;
+        final boolean newBest = score.getAverageScore() > bestAverage;
+
+        return new ScoreSummary(newCount,
+                totalGamesPlayed + score.getNumGamesPlayed(),
+                totalCorrectFirstAttempt + score.getNumCorrectFirstAttempt(),
+                totalCorrectSecondAttempt + score.getNumCorrectSecondAttempt(),
+                totalIncorrectTwoAttempts + score.getNumIncorrectTwoAttempts(),
+                totalPoints + score.getScore(),
+                newBest ? score.getAverageScore() : bestAverage,
+                newBest ? score.getDateTimePlayed() : bestDateTimePlayed,
+                meanAverage + (score.getAverageScore() - meanAverage) / newCount);
+    }
+
+    /**
+     * Returns the points per game across every game recorded.
+     *
+     * @return the mean points per game, or 0 if no games were played
+     */
+    double meanPointsPerGame()
+    {
+        return totalGamesPlayed > 0 ? (double) totalPoints / totalGamesPlayed : 0.0;
+    }
+
+    /**
+     * Returns where the summary for a log file is kept: beside it, with the
+     * {@value ScoreLog#LOG_FILE_EXTENSION} extension replaced by {@value SUMMARY_FILE_EXTENSION}.
+     *
+     * @param logFile the score log
+     * @return the sidecar path
+     */
+    static Path defaultLocation(final Path logFile)
+    {
+        return ScoreLog.sidecar(logFile, SUMMARY_FILE_EXTENSION);
+    }
+
+    /**
+     * Reads a summary sidecar.
+     *
+     * @param file the sidecar file
+     * @return the stored summary
+     * @throws IOException if the file cannot be read or is not a summary of this version
+     */
+    static ScoreSummary read(final Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                throw new IOException("Not a version " + VERSION + " score summary: " + file);
+            }
+
+            return new ScoreSummary(in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong(), in.readDouble(), LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC),
+                    in.readDouble());
+        }
+    }
+
+    /**
+     * Writes the summary beside the target and moves it into place, so readers see either
+     * the old summary or the new one.
+     *
+     * @param file the sidecar file
+     * @throws IOException if the summary cannot be written
+     */
+    void write(final Path file) throws IOException
+    {
+        final Path temp = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeLong(totalGamesPlayed);
+            out.writeLong(totalCorrectFirstAttempt);
+            out.writeLong(totalCorrectSecondAttempt);
+            out.writeLong(totalIncorrectTwoAttempts);
+            out.writeLong(totalPoints);
+            out.writeDouble(bestAverage);
+            out.writeLong(bestDateTimePlayed.toEpochSecond(ZoneOffset.UTC));
+            out.writeDouble(meanAverage);
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
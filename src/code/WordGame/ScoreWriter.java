@@ -0,0 +1,306 @@
+package WordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Queues score appends and commits them to a {@link ScoreLog} in batches on a background thread.
+ * <p>
+ * Every score waiting when the thread wakes is written with one write under one exclusive file lock,
+ * optionally forced to disk, and the summary and sketch sidecars are updated once per batch. When many sessions
+ * finish at once they share a single lock and sync instead of taking turns, and because each batch
+ * is written while the lock is held, no record can be torn by another process appending to the same log.
+ * <p>
+ * The log is opened, and the legacy text file migrated, on first use, and the thread is started on
+ * the first append.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class ScoreWriter implements Closeable
+{
+    private static final String THREAD_NAME = "score-writer";
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final boolean FORCE_SHARED_WRITERS = true;
+    private static final PendingScore END_OF_QUEUE = new PendingScore(null, null);
+
+    private static final Map<Path, ScoreWriter> SHARED_WRITERS = new ConcurrentHashMap<>();
+
+    private final Path legacyFile;
+    private final boolean forceEachBatch;
+    private final BlockingQueue<PendingScore> queue;
+    private ScoreLog log;
+    private Leaderboard leaderboard;
+    private Thread thread;
+    private boolean closed;
+
+    /**
+     * Creates a writer for the log kept beside a legacy text score file.
+     *
+     * @param legacyFile     the text score file; see {@link ScoreLog#defaultLocation(Path)}
+     * @param forceEachBatch whether each batch is forced to disk before its appends complete
+     */
+    ScoreWriter(final Path legacyFile, final boolean forceEachBatch)
+    {
+        this.legacyFile = legacyFile;
+        this.forceEachBatch = forceEachBatch;
+        this.queue = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Returns the writer every game in this process uses for a score file, so their appends are
+     * batched together. Shared writers force each batch to disk and are never closed; their thread
+     * is a daemon and every append is waited for by the game that made it.
+     *
+     * @param legacyFile the text score file
+     * @return the shared writer
+     */
+    static ScoreWriter shared(final Path legacyFile)
+    {
+        return SHARED_WRITERS.computeIfAbsent(legacyFile.toAbsolutePath().normalize(),
+                file -> new ScoreWriter(file, FORCE_SHARED_WRITERS));
+    }
+
+    /**
+     * Returns the summary of every score committed so far, by this or any other process.
+     *
+     * @return the current summary
+     * @throws IOException if the log cannot be opened or read
+     */
+    ScoreSummary summary() throws IOException
+    {
+        return log().summary();
+    }
+
+    /**
+     * Returns a sketch of the average of every score committed so far, by this or any other process.
+     *
+     * @return a copy of the current sketch
+     * @throws IOException if the log cannot be opened or read
+     */
+    ScoreSketch sketch() throws IOException
+    {
+        return log().sketch();
+    }
+
+    /**
+     * Returns the leaderboard over this writer's log. It is built the first time it is asked for
+     * and then kept up to date as batches are committed; records appended by other processes are
+     * picked up on each call.
+     *
+     * @return the up-to-date leaderboard
+     * @throws IOException if the log cannot be opened or read
+     */
+    Leaderboard leaderboard() throws IOException
+    {
+        final Leaderboard current;
+
+        synchronized(this)
+        {
+            if(leaderboard == null)
+            {
+                leaderboard = new Leaderboard(log());
+                return leaderboard;
+            }
+            current = leaderboard;
+        }
+
+        current.refresh();
+        return current;
+    }
+
+    /**
+     * Queues a score to be appended.
+     *
+     * @param score the score to append
+     * @return completes with the summary after the score's batch was committed,
+     * or exceptionally if the batch could not be written or the writer is closed
+     */
+    CompletableFuture<ScoreSummary> submit(final Score score)
+    {
+        final CompletableFuture<ScoreSummary> committed = new CompletableFuture<>();
+
+        synchronized(this)
+        {
+            if(closed)
+            {
+                committed.completeExceptionally(new IOException("The score writer is closed"));
+                return committed;
+            }
+
+            if(thread == null)
+            {
+                thread = new Thread(this::writeBatches, THREAD_NAME);
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            queue.add(new PendingScore(score, committed));
+        }
+
+        return committed;
+    }
+
+    /**
+     * Commits every queued score, stops the thread and closes the log.
+     *
+     * @throws IOException if the log cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        final Thread writerThread;
+
+        synchronized(this)
+        {
+            if(closed)
+            {
+                return;
+            }
+            closed = true;
+            writerThread = thread;
+            queue.add(END_OF_QUEUE);
+        }
+
+        if(writerThread != null)
+        {
+            try
+            {
+                writerThread.join();
+            } catch(final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized(this)
+        {
+            if(log != null)
+            {
+                log.close();
+            }
+        }
+    }
+
+    private synchronized ScoreLog log() throws IOException
+    {
+        if(log == null)
+        {
+            log = ScoreLog.openMigrating(legacyFile);
+        }
+        return log;
+    }
+
+    /**
+     * Waits for scores and commits everything queued at that moment as one batch, until the queue is closed.
+     */
+    private void writeBatches()
+    {
+        final List<PendingScore> batch = new ArrayList<>();
+        final List<Score> scores = new ArrayList<>();
+        boolean running = true;
+
+        while(running)
+        {
+            try
+            {
+                batch.add(queue.take());
+            } catch(final InterruptedException e)
+            {
+                // Only close() ends the writer, so keep waiting
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            running = !batch.remove(END_OF_QUEUE);
+            for(final PendingScore pending : batch)
+            {
+                scores.add(pending.score);
+            }
+
+            commit(batch, scores);
+            batch.clear();
+            scores.clear();
+        }
+    }
+
+    private void commit(final List<PendingScore> batch, final List<Score> scores)
+    {
+        if(batch.isEmpty())
+        {
+            return;
+        }
+
+        final ScoreSummary summary;
+
+        try
+        {
+            summary = log().appendAll(scores, forceEachBatch);
+        } catch(final IOException | RuntimeException e)
+        {
+            for(final PendingScore pending : batch)
+            {
+                pending.committed.completeExceptionally(e);
+            }
+            return;
+        }
+
+        // The scores are on disk, so nothing after this point may report them as lost
+        for(final PendingScore pending : batch)
+        {
+            pending.committed.complete(summary);
+        }
+
+        refreshLeaderboard();
+    }
+
+    /**
+     * Indexes a committed batch in the leaderboard, if one has been built. If that fails the
+     * leaderboard is dropped, so the next call to {@link #leaderboard()} rebuilds it from the log.
+     */
+    private void refreshLeaderboard()
+    {
+        final Leaderboard current;
+
+        synchronized(this)
+        {
+            current = leaderboard;
+        }
+
+        if(current == null)
+        {
+            return;
+        }
+
+        try
+        {
+            current.refresh();
+        } catch(final IOException | RuntimeException e)
+        {
+            System.err.println("Error updating leaderboard: " + e.getMessage());
+
+            synchronized(this)
+            {
+                if(leaderboard == current)
+                {
+                    leaderboard = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * A queued score and the future completed when it is committed.
+     */
+    private record PendingScore(Score score, CompletableFuture<ScoreSummary> committed)
+    {
+    }
+}
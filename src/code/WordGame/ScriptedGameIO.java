@@ -0,0 +1,63 @@
+package WordGame;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Feeds a {@link WordGame} a fixed script of input lines and hands everything it prints to a sink,
+ * so sessions can be replayed in tests or driven headless. The script is read in order and is not copied.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class ScriptedGameIO implements GameIO
+{
+    private final List<String> script;
+    private final Consumer<String> output;
+    private int nextLine;
+
+    /**
+     * Creates scripted input and output.
+     *
+     * @param script the input lines, in the order the game will read them
+     * @param output where printed text is sent
+     */
+    ScriptedGameIO(final List<String> script, final Consumer<String> output)
+    {
+        this.script = script;
+        this.output = output;
+        this.nextLine = 0;
+    }
+
+    /**
+     * Returns the next scripted line.
+     *
+     * @return the next line
+     * @throws IllegalStateException if the game reads more lines than the script holds
+     */
+    @Override
+    public String readLine()
+    {
+        if(nextLine >= script.size())
+        {
+            throw new IllegalStateException("The script ran out after " + script.size() + " lines");
+        }
+        return script.get(nextLine++);
+    }
+
+    @Override
+    public void print(final String text)
+    {
+        output.accept(text);
+    }
+
+    /**
+     * Returns how many scripted lines have been read.
+     *
+     * @return the number of lines read so far
+     */
+    int linesRead()
+    {
+        return nextLine;
+    }
+}
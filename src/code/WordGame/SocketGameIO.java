@@ -0,0 +1,103 @@
+package WordGame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Plays a {@link WordGame} over a TCP connection, one UTF-8 line per answer.
+ * <p>
+ * Prompts are buffered and flushed when the game waits for the next answer, so a question and
+ * its feedback go out in one write. If the player disconnects, reading throws an
+ * {@link UncheckedIOException}, which ends the session without recording a score.
+ *
+ * @author Ben Henry
+ * @version 1.0
+ */
+final class SocketGameIO implements GameIO, Closeable
+{
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    /**
+     * Creates input and output over a connected socket.
+     *
+     * @param socket the player's connection
+     * @throws IOException if the socket's streams cannot be opened
+     */
+    SocketGameIO(final Socket socket) throws IOException
+    {
+        this.socket = socket;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends any buffered prompts and reads the player's next line.
+     *
+     * @return the line, without its line terminator
+     * @throws UncheckedIOException if the connection fails or the player disconnects
+     */
+    @Override
+    public String readLine()
+    {
+        try
+        {
+            out.flush();
+
+            final String line = in.readLine();
+            if(line == null)
+            {
+                throw new EOFException("The player disconnected");
+            }
+            return line;
+        } catch(final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Buffers text for the player.
+     *
+     * @param text the text to write
+     * @throws UncheckedIOException if the connection fails
+     */
+    @Override
+    public void print(final String text)
+    {
+        try
+        {
+            out.write(text);
+        } catch(final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends any buffered text and closes the connection.
+     *
+     * @throws IOException if the connection cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            out.flush();
+        } finally
+        {
+            socket.close();
+        }
+    }
+}
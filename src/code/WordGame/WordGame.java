@@ -1,16 +1,20 @@
 package WordGame;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-import java.util.Scanner;
+import java.util.BitSet;
+import java.util.concurrent.CompletionException;
 
 
 /**
  * A word-based game where players answer questions about countries, capitals, and facts.
  * Tracks statistics and manages high scores across games.
+ * <p>
+ * Each WordGame is one player's session and keeps its statistics in instance fields, so any number
+ * of sessions can run at once on different threads against one shared {@link World}.
  *
  * @author YourName
  * @version 1.0
@@ -18,59 +22,146 @@ import java.util.Scanner;
 public class WordGame
 {
     public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static final int QUESTION_COUNT = 10;
+    static final int QUESTION_COUNT = 10;
     private static final int ZERO = 0;
-    private static final int MINIMAL_SCORE = 0;
-    private static final String SCORE_PATH = "src\\score.txt";
+    private static final String NO_FACT = "";
+    static final String SCORE_PATH = "src\\score.txt";
+    private static final int PERCENT = 100;
+    private static final double MEDIAN = 50.0;
+    private static final double SLOW_PERCENTILE = 90.0;
+    private static final double MILLIS_PER_SECOND = 1000.0;
     public static final String PLAY_AGAIN_INPUT_TEXT = "yes";
     public static final String DO_NOT_PLAY_AGAIN_INPUT_TEXT = "no";
-
-    private static int totalGamesPlayed = ZERO;
-    private static int totalFirstAttemptCorrect = ZERO;
-    private static int totalSecondAttemptCorrect = ZERO;
-    private static int totalIncorrectAnswers = ZERO;
+    static final String ADAPTIVE_QUESTIONS_PROPERTY = "wordgame.adaptiveQuestions";
 
     private final World world;
-    private final Scanner scanner;
+    private final GameIO io;
+    private final long seed;
+    private final ScoreWriter scoreWriter;
+    private final ResponseTimes responseTimes;
+    private final QuestionSelection selection;
+    private final AnswerHistory answerHistory;
+    private final CountryFilter filter;
+    private QuestionSource deck;
+    private int totalGamesPlayed;
+    private int totalFirstAttemptCorrect;
+    private int totalSecondAttemptCorrect;
+    private int totalIncorrectAnswers;
 
     /**
-     * Enum representing different types of questions in the game.
+     * Constructs a WordGame with a given World object.
+     *
+     * @param world the world data used in the game
      */
-    private enum QuestionType
+    public WordGame(final World world)
     {
-        CAPITAL_TO_COUNTRY,
-        COUNTRY_TO_CAPITAL,
-        FACT_TO_COUNTRY
+        this(world, System.nanoTime());
     }
 
     /**
-     * Constructs a WordGame with a given World object.
+     * Constructs a WordGame whose questions are dealt in an order fixed by the seed, so a session
+     * can be replayed. Questions are shuffled unless the {@value ADAPTIVE_QUESTIONS_PROPERTY} system
+     * property is true, in which case the questions the player misses during the session come up
+     * more often in its later games. The player's answers are not kept after the session ends.
      *
      * @param world the world data used in the game
+     * @param seed  the seed for the question order
      */
-    public WordGame(final World world)
+    public WordGame(final World world, final long seed)
+    {
+        this(world, new ConsoleGameIO(), seed, ScoreWriter.shared(Paths.get(SCORE_PATH)),
+                Boolean.getBoolean(ADAPTIVE_QUESTIONS_PROPERTY) ? QuestionSelection.ADAPTIVE : QuestionSelection.SHUFFLED,
+                new AnswerHistory(), CountryFilter.all());
+    }
+
+    /**
+     * Constructs a WordGame that talks to the player through the given input and output
+     * and records its scores through the given writer.
+     *
+     * @param world       the world data used in the game
+     * @param io          where answers are read from and prompts are written to
+     * @param seed        the seed for the question order
+     * @param scoreWriter the writer for the score log
+     */
+    WordGame(final World world, final GameIO io, final long seed, final ScoreWriter scoreWriter)
+    {
+        this(world, io, seed, scoreWriter, QuestionSelection.SHUFFLED, new AnswerHistory(), CountryFilter.all());
+    }
+
+    /**
+     * Constructs a WordGame that chooses its questions as the selection says, only about the countries
+     * the filter selects. An adaptive session adds every answer to the given history and asks more
+     * about what the player has missed in it.
+     *
+     * @param world         the world data used in the game
+     * @param io            where answers are read from and prompts are written to
+     * @param seed          the seed for the question order
+     * @param scoreWriter   the writer for the score log
+     * @param selection     how questions are chosen
+     * @param answerHistory the player's answers from earlier sessions, which this one adds to
+     * @param filter        the countries to ask about, such as {@code CountryFilter.attribute("region", "Europe")}
+     */
+    WordGame(final World world, final GameIO io, final long seed, final ScoreWriter scoreWriter,
+             final QuestionSelection selection, final AnswerHistory answerHistory, final CountryFilter filter)
     {
         this.world = world;
-        this.scanner = new Scanner(System.in);
+        this.io = io;
+        this.seed = seed;
+        this.scoreWriter = scoreWriter;
+        this.totalGamesPlayed = ZERO;
+        this.totalFirstAttemptCorrect = ZERO;
+        this.totalSecondAttemptCorrect = ZERO;
+        this.totalIncorrectAnswers = ZERO;
+        this.responseTimes = new ResponseTimes();
+        this.selection = selection;
+        this.answerHistory = answerHistory;
+        this.filter = filter;
     }
 
     /**
-     * Starts the word game session.
+     * Starts the word game session. Games are played until the player declines another,
+     * then the session is scored and the statistics are reset.
      */
     public void playGame()
     {
-        final Random rand = new Random();
+        do
+        {
+            playRound();
+        }
+        while(askToPlayAgain());
+
+        handleHighScore();
+        resetGameStatistics();
+    }
+
+    /**
+     * Asks one game's worth of questions and adds the results to the session statistics.
+     */
+    private void playRound()
+    {
         int correctFirstAttempt = ZERO;
         int correctSecondAttempt = ZERO;
         int incorrectAnswers = ZERO;
 
-        final List<String> countryNames = new ArrayList<>(world.getCountriesMap().keySet());
+        // Read every question from one catalog, so a reload mid-game cannot mix old and new facts
+        final CountryCatalog countries = world.getCatalog();
+        final AnswerMatcher answerMatcher = countries.answerMatcher();
+        final FactGiveaways giveaways = countries.factGiveaways();
+        final QuestionSource questions = questionDeck(countries);
 
         for(int i = 0; i < QUESTION_COUNT; i++)
         {
-            final String countryName = countryNames.get(rand.nextInt(countryNames.size()));
-            final Country country = world.getCountry(countryName);
-            QuestionType questionType = QuestionType.values()[rand.nextInt(QuestionType.values().length)];
+            long question;
+            String fact;
+            do
+            {
+                question = questions.deal();
+                fact = factFor(question, countries, giveaways);
+            }
+            while(fact == null);
+
+            final int countryId = QuestionDeck.countryId(question);
+            final QuestionType questionType = QuestionDeck.questionType(question);
 
             String answer = "";
             String correctAnswer = "";
@@ -79,40 +170,43 @@ public class WordGame
             {
                 case CAPITAL_TO_COUNTRY ->
                 {
-                    System.out.println("What country is the capital " + country.capitalCityName() + " the capital of?");
-                    answer = getUserInput();
-                    correctAnswer = country.name();
+                    io.println("What country is the capital " + countries.capitalAt(countryId) + " the capital of?");
+                    answer = getTimedUserInput(questionType, ResponseTimes.FIRST_ATTEMPT);
+                    correctAnswer = countries.nameAt(countryId);
                 }
                 case COUNTRY_TO_CAPITAL ->
                 {
-                    System.out.println("What is the capital of " + country.name() + "?");
-                    answer = getUserInput();
-                    correctAnswer = country.capitalCityName();
+                    io.println("What is the capital of " + countries.nameAt(countryId) + "?");
+                    answer = getTimedUserInput(questionType, ResponseTimes.FIRST_ATTEMPT);
+                    correctAnswer = countries.capitalAt(countryId);
                 }
                 case FACT_TO_COUNTRY ->
                 {
-                    System.out.println("Which country is described by this fact: " + country.facts()[rand.nextInt(country.facts().length)]);
-                    answer = getUserInput();
-                    correctAnswer = country.name();
+                    io.println("Which country is described by this fact: " + fact);
+                    answer = getTimedUserInput(questionType, ResponseTimes.FIRST_ATTEMPT);
+                    correctAnswer = countries.nameAt(countryId);
                 }
             }
 
-            if(answer.equalsIgnoreCase(correctAnswer))
+            if(answerMatcher.matches(answer, correctAnswer))
             {
-                System.out.println("CORRECT");
+                io.println("CORRECT");
                 correctFirstAttempt++;
+                questions.recordAnswer(question, AnswerOutcome.CORRECT_FIRST_ATTEMPT);
             } else
             {
-                System.out.println("INCORRECT. Try again.");
-                answer = getUserInput();
-                if(answer.equalsIgnoreCase(correctAnswer))
+                io.println("INCORRECT. Try again.");
+                answer = getTimedUserInput(questionType, ResponseTimes.SECOND_ATTEMPT);
+                if(answerMatcher.matches(answer, correctAnswer))
                 {
-                    System.out.println("CORRECT");
+                    io.println("CORRECT");
                     correctSecondAttempt++;
+                    questions.recordAnswer(question, AnswerOutcome.CORRECT_SECOND_ATTEMPT);
                 } else
                 {
-                    System.out.println("The correct answer was " + correctAnswer);
+                    io.println("The correct answer was " + correctAnswer);
                     incorrectAnswers++;
+                    questions.recordAnswer(question, AnswerOutcome.INCORRECT);
                 }
             }
         }
@@ -121,31 +215,102 @@ public class WordGame
         totalFirstAttemptCorrect += correctFirstAttempt;
         totalSecondAttemptCorrect += correctSecondAttempt;
         totalIncorrectAnswers += incorrectAnswers;
+    }
+
+    /**
+     * Returns the fact a question shows, with its giveaways masked.
+     * <p>
+     * A lazily indexed catalog reads facts from disk, and a file edited since it was indexed can no
+     * longer be read; the watcher swaps in a reloaded catalog, which the next game picks up. Until
+     * then a question about such a fact is skipped in favour of another.
+     *
+     * @return the masked fact, an empty string for a question that shows none, or null if the fact
+     * can no longer be read
+     */
+    private static String factFor(final long question, final CountryCatalog countries, final FactGiveaways giveaways)
+    {
+        if(QuestionDeck.questionType(question) != QuestionType.FACT_TO_COUNTRY)
+        {
+            return NO_FACT;
+        }
+
+        final int countryId = QuestionDeck.countryId(question);
+
+        try
+        {
+            return giveaways.mask(countryId, countries.factAt(countryId, QuestionDeck.factIndex(question)));
+        } catch(final UncheckedIOException e)
+        {
+            System.err.println("Error reading fact, asking another question: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the question deck for the given catalog, building it only when the World has
+     * swapped in a new catalog since the last game. If the filter selects no countries in the
+     * catalog, the player is told and every country is asked about instead.
+     */
+    private QuestionSource questionDeck(final CountryCatalog countries)
+    {
+        if(deck == null || deck.catalog() != countries)
+        {
+            BitSet selected = filter.select(countries.attributeIndex());
+
+            if(selected.isEmpty())
+            {
+                io.println("No countries match this quiz's filter, so questions will be about every country.");
+                selected = CountryFilter.all().select(countries.attributeIndex());
+            }
 
-        askToPlayAgain();
+            if(selection == QuestionSelection.ADAPTIVE)
+            {
+                deck = new AdaptiveQuestionDeck(countries, seed, answerHistory, priorMissRate(), selected);
+            } else
+            {
+                deck = new QuestionDeck(countries, seed, selected);
+            }
+        }
+        return deck;
     }
 
-    private void askToPlayAgain()
+    /**
+     * Returns the miss rate across every recorded score, which an adaptive deck assumes for the
+     * questions this player has not answered yet.
+     */
+    private double priorMissRate()
     {
-        boolean continueAsking = true;
+        try
+        {
+            return AnswerHistory.priorMissRate(scoreWriter.summary());
+        } catch(final IOException e)
+        {
+            System.err.println("Error reading score summary: " + e.getMessage());
+            return AnswerHistory.DEFAULT_PRIOR_MISS_RATE;
+        }
+    }
 
-        while(continueAsking)
+    /**
+     * Asks until the player answers yes or no.
+     *
+     * @return true if the player wants another game
+     */
+    private boolean askToPlayAgain()
+    {
+        while(true)
         {
-            System.out.printf("%sDo you want to play again? (Yes/No): ", System.lineSeparator());
-            String response = scanner.nextLine().trim().toLowerCase();
+            io.printf("%sDo you want to play again? (Yes/No): ", System.lineSeparator());
+            final String response = io.readLine().trim().toLowerCase();
 
             if(response.equals(PLAY_AGAIN_INPUT_TEXT))
             {
-                playGame();
-                continueAsking = false;
+                return true;
             } else if(response.equals(DO_NOT_PLAY_AGAIN_INPUT_TEXT))
             {
-                handleHighScore();
-                resetGameStatistics();
-                continueAsking = false;
+                return false;
             } else
             {
-                System.out.printf("Invalid response. Please enter '%s' or '%s'.%s", PLAY_AGAIN_INPUT_TEXT, DO_NOT_PLAY_AGAIN_INPUT_TEXT, System.lineSeparator());
+                io.printf("Invalid response. Please enter '%s' or '%s'.%s", PLAY_AGAIN_INPUT_TEXT, DO_NOT_PLAY_AGAIN_INPUT_TEXT, System.lineSeparator());
             }
         }
     }
@@ -153,41 +318,46 @@ public class WordGame
     private void handleHighScore()
     {
         final Score currentScore = new Score(LocalDateTime.now(), totalGamesPlayed, totalFirstAttemptCorrect,
-                totalSecondAttemptCorrect, totalIncorrectAnswers);
-        final List<Score> previousScores = Score.readScoresFromFile(SCORE_PATH);
-        final Score highestScore = getHighestScore(previousScores);
+                totalSecondAttemptCorrect, totalIncorrectAnswers, responseTimes.copy());
+        final ScoreSummary previousScores;
+        final ScoreSketch previousAverages;
 
-        if(currentScore.getAverageScore() > highestScore.getAverageScore())
+        try
         {
-            System.out.printf("CONGRATULATIONS! You are the new high score with an average of %.2f points per game; the previous record was %.2f points per game on %s%s",
-                    currentScore.getAverageScore(), highestScore.getAverageScore(),
-                    highestScore.getDateTimePlayed().format(DATE_TIME_FORMATTER), System.lineSeparator());
-        } else
+            previousScores = scoreWriter.summary();
+            previousAverages = scoreWriter.sketch();
+            scoreWriter.submit(currentScore).join();
+        } catch(final IOException | CompletionException e)
         {
-            System.out.printf("You did not beat the high score of %.2f points per game from %s%s",
-                    highestScore.getAverageScore(), highestScore.getDateTimePlayed().format(DATE_TIME_FORMATTER), System.lineSeparator());
+            System.err.println("Error updating score log: " + e.getMessage());
+            printOverallStats();
+            return;
         }
 
-        Score.appendScoreToFile(currentScore, SCORE_PATH);
-        printOverallStats();
-    }
+        if(currentScore.getAverageScore() > previousScores.bestAverage())
+        {
+            io.printf("CONGRATULATIONS! You are the new high score with an average of %.2f points per game; the previous record was %.2f points per game on %s%s",
+                    currentScore.getAverageScore(), previousScores.bestAverage(),
+                    previousScores.bestDateTimePlayed().format(DATE_TIME_FORMATTER), System.lineSeparator());
+        } else
+        {
+            io.printf("You did not beat the high score of %.2f points per game from %s%s",
+                    previousScores.bestAverage(), previousScores.bestDateTimePlayed().format(DATE_TIME_FORMATTER), System.lineSeparator());
+        }
 
-    private Score getHighestScore(final List<Score> scores)
-    {
-        Score highestScore = new Score(LocalDateTime.MIN, MINIMAL_SCORE, MINIMAL_SCORE, MINIMAL_SCORE, MINIMAL_SCORE);
-        for(final Score score : scores)
+        if(previousAverages.count() > ZERO)
         {
-            if(score.getAverageScore() > highestScore.getAverageScore())
-            {
-                highestScore = score;
-            }
+            io.printf("Your average is higher than %.0f%% of the %d session(s) played before yours%s",
+                    previousAverages.fractionBelow(currentScore.getAverageScore()) * PERCENT,
+                    previousAverages.count(), System.lineSeparator());
         }
-        return highestScore;
+
+        printOverallStats();
     }
 
     private void printOverallStats()
     {
-        System.out.printf("""
+        io.printf("""
                         Overall Game Stats:
                         %d word game(s) played
                         %d correct answers on the first attempt
@@ -199,6 +369,41 @@ public class WordGame
                 totalSecondAttemptCorrect,
                 totalIncorrectAnswers
         );
+
+        printResponseTimes();
+    }
+
+    /**
+     * Prints the median, 90th percentile and slowest answer time for each question type and attempt
+     * the player answered.
+     */
+    private void printResponseTimes()
+    {
+        if(responseTimes.count() == ZERO)
+        {
+            return;
+        }
+
+        io.println("Response times:");
+        for(final QuestionType questionType : QuestionType.values())
+        {
+            printResponseTimes(questionType, ResponseTimes.FIRST_ATTEMPT, "first");
+            printResponseTimes(questionType, ResponseTimes.SECOND_ATTEMPT, "second");
+        }
+    }
+
+    private void printResponseTimes(final QuestionType questionType, final int attempt, final String attemptName)
+    {
+        final LatencyHistogram histogram = responseTimes.histogram(questionType, attempt);
+
+        if(histogram.count() > ZERO)
+        {
+            io.printf("%s, %s attempt: %d answer(s), median %.1f s, 90th percentile %.1f s, slowest %.1f s%s",
+                    questionType.getDescription(), attemptName, histogram.count(),
+                    histogram.valueAtPercentile(MEDIAN) / MILLIS_PER_SECOND,
+                    histogram.valueAtPercentile(SLOW_PERCENTILE) / MILLIS_PER_SECOND,
+                    histogram.maxMillis() / MILLIS_PER_SECOND, System.lineSeparator());
+        }
     }
 
     private void resetGameStatistics()
@@ -207,10 +412,23 @@ public class WordGame
         totalFirstAttemptCorrect = ZERO;
         totalSecondAttemptCorrect = ZERO;
         totalIncorrectAnswers = ZERO;
+        responseTimes.clear();
     }
 
     private String getUserInput()
     {
-        return scanner.nextLine().trim();
+        return io.readLine().trim();
+    }
+
+    /**
+     * Reads an answer and records how long the player took since the prompt was shown.
+     */
+    private String getTimedUserInput(final QuestionType questionType, final int attempt)
+    {
+        final long promptedNanos = System.nanoTime();
+        final String answer = getUserInput();
+
+        responseTimes.record(questionType, attempt, System.nanoTime() - promptedNanos);
+        return answer;
     }
 }
@@ -0,0 +1,163 @@
+package WordGame;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs scripted {@link WordGame} sessions back to back without a console and reports how many
+ * questions per second the quiz engine handles and how many bytes it allocates per question.
+ * <p>
+ * Every answer in the script is wrong, so each question reads two answers and goes through the
+ * fuzzy matcher twice. Scores go to a temporary score log that is deleted afterwards, and are not
+ * forced to disk, so the numbers measure the quiz engine rather than the disk.
+ * <p>
+ * Usage: {@code WordGameDriver [factsDirectory] [sessions] [gamesPerSession]}.
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+final class WordGameDriver
+{
+    private static final int FACTS_DIRECTORY_ARGUMENT = 0;
+    private static final int SESSIONS_ARGUMENT = 1;
+    private static final int GAMES_PER_SESSION_ARGUMENT = 2;
+    private static final int DEFAULT_SESSIONS = 1000;
+    private static final int DEFAULT_GAMES_PER_SESSION = 3;
+    private static final int WARM_UP_DIVISOR = 10;
+    private static final int ANSWERS_PER_QUESTION = 2;
+    private static final long SEED = 2522L;
+    private static final String WRONG_ANSWER = "Atlantis";
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final long UNSUPPORTED = -1L;
+
+    private WordGameDriver()
+    {
+    }
+
+    /**
+     * Loads the facts, warms up, then times the requested number of sessions.
+     *
+     * @param args the facts directory, session count and games per session, all optional
+     * @throws IOException if the temporary score files cannot be created or deleted
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final Path factsDirectory;
+        final int sessions;
+        final int gamesPerSession;
+        final World world;
+        final List<String> script;
+        final Path scoreFile;
+
+        factsDirectory = args.length > FACTS_DIRECTORY_ARGUMENT ? Paths.get(args[FACTS_DIRECTORY_ARGUMENT]) : Paths.get("src", "CountryFacts");
+        sessions = args.length > SESSIONS_ARGUMENT ? Integer.parseInt(args[SESSIONS_ARGUMENT]) : DEFAULT_SESSIONS;
+        gamesPerSession = args.length > GAMES_PER_SESSION_ARGUMENT ? Integer.parseInt(args[GAMES_PER_SESSION_ARGUMENT]) : DEFAULT_GAMES_PER_SESSION;
+
+        world = new World();
+        world.loadFacts(factsDirectory);
+        script = sessionScript(gamesPerSession);
+        scoreFile = Files.createTempFile("wordgame-scores", ".txt");
+
+        try
+        {
+            final long startBytes;
+            final long startNanos;
+            final long elapsedNanos;
+            final long endBytes;
+
+            try(ScoreWriter scoreWriter = new ScoreWriter(scoreFile, false))
+            {
+                runSessions(world, script, scoreWriter, Math.max(1, sessions / WARM_UP_DIVISOR));
+
+                startBytes = allocatedBytes();
+                startNanos = System.nanoTime();
+                runSessions(world, script, scoreWriter, sessions);
+                elapsedNanos = System.nanoTime() - startNanos;
+                endBytes = allocatedBytes();
+            }
+
+            final long questions = (long) sessions * gamesPerSession * WordGame.QUESTION_COUNT;
+
+            System.out.printf("%d sessions, %d questions in %.3f s%n", sessions, questions, elapsedNanos / NANOS_PER_SECOND);
+            System.out.printf("%.0f questions/s%n", questions / (elapsedNanos / NANOS_PER_SECOND));
+
+            if(startBytes == UNSUPPORTED || endBytes == UNSUPPORTED)
+            {
+                System.out.println("Allocation per question: not supported by this JVM");
+            } else
+            {
+                System.out.printf("%.0f bytes allocated per question%n", (endBytes - startBytes) / (double) questions);
+            }
+        } finally
+        {
+            Files.deleteIfExists(scoreFile);
+            deleteScoreLog(scoreFile);
+        }
+    }
+
+    /**
+     * Plays the given number of sessions, each with the same script, on the current thread.
+     */
+    private static void runSessions(final World world, final List<String> script, final ScoreWriter scoreWriter,
+                                    final int sessions)
+    {
+        for(int session = 0; session < sessions; session++)
+        {
+            final GameIO io = new ScriptedGameIO(script, text -> { });
+            new WordGame(world, io, SEED + session, scoreWriter).playGame();
+        }
+    }
+
+    /**
+     * Deletes the binary log and its sidecars kept beside a text score file.
+     */
+    private static void deleteScoreLog(final Path scoreFile) throws IOException
+    {
+        final Path logFile = ScoreLog.defaultLocation(scoreFile);
+
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(ScoreSummary.defaultLocation(logFile));
+        Files.deleteIfExists(ScoreSketch.defaultLocation(logFile));
+        Files.deleteIfExists(ResponseTimesFile.defaultLocation(logFile));
+    }
+
+    /**
+     * Builds the input for one session: two wrong answers per question, "yes" between games
+     * and "no" after the last one.
+     *
+     * @param gamesPerSession the number of games in a session
+     * @return the session's input lines
+     */
+    static List<String> sessionScript(final int gamesPerSession)
+    {
+        final List<String> script = new ArrayList<>();
+
+        for(int game = 0; game < gamesPerSession; game++)
+        {
+            script.addAll(Collections.nCopies(WordGame.QUESTION_COUNT * ANSWERS_PER_QUESTION, WRONG_ANSWER));
+            script.add(game < gamesPerSession - 1 ? WordGame.PLAY_AGAIN_INPUT_TEXT : WordGame.DO_NOT_PLAY_AGAIN_INPUT_TEXT);
+        }
+
+        return List.copyOf(script);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or {@value UNSUPPORTED}
+     * if the JVM cannot measure it.
+     */
+    private static long allocatedBytes()
+    {
+        if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported())
+        {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return UNSUPPORTED;
+    }
+}
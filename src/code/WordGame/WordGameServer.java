@@ -0,0 +1,163 @@
+package WordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link WordGame} sessions over a local TCP line protocol: each connection is one player's
+ * session, played one line per answer until they decline another game.
+ * <p>
+ * Every connection gets its own virtual thread, so a session blocked waiting for an answer holds no
+ * platform thread and one process can host thousands of players. The sessions share one {@link World},
+ * whose catalogs never change once published, and one batching {@link ScoreWriter}; everything else
+ * belongs to the session.
+ * <p>
+ * Usage: {@code WordGameServer [port] [factsDirectory]}; connect with any line-based client such as
+ * {@code nc localhost 2522}. Add {@code -Dwordgame.lazyFacts=true} to index large fact files lazily.
+ *
+ * @author Ben Henry
+ * @version 1.2
+ */
+final class WordGameServer implements Closeable
+{
+    private static final int PORT_ARGUMENT = 0;
+    private static final int FACTS_DIRECTORY_ARGUMENT = 1;
+    private static final int DEFAULT_PORT = 2522;
+    private static final int CONNECTION_BACKLOG = 1024;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    private final World world;
+    private final ScoreWriter scoreWriter;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+
+    /**
+     * Starts listening on the loopback interface.
+     *
+     * @param world       the countries every session asks about
+     * @param scoreWriter the writer every session records its score through
+     * @param port        the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    WordGameServer(final World world, final ScoreWriter scoreWriter, final int port) throws IOException
+    {
+        this.world = world;
+        this.scoreWriter = scoreWriter;
+        this.serverSocket = new ServerSocket(port, CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+        this.sessions = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Loads the facts and serves sessions until the process is stopped.
+     *
+     * @param args the port and facts directory, both optional
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final int port;
+        final Path factsDirectory;
+        final World world;
+
+        port = args.length > PORT_ARGUMENT ? Integer.parseInt(args[PORT_ARGUMENT]) : DEFAULT_PORT;
+        factsDirectory = args.length > FACTS_DIRECTORY_ARGUMENT ? Paths.get(args[FACTS_DIRECTORY_ARGUMENT]) : Paths.get("src", "CountryFacts");
+
+        world = new World();
+        world.loadFacts(factsDirectory);
+
+        try(WordGameServer server = new WordGameServer(world, ScoreWriter.shared(Paths.get(WordGame.SCORE_PATH)), port))
+        {
+            System.out.println("Serving word games on port " + server.port());
+            server.serve();
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the local port
+     */
+    int port()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections and starts a session for each until the server is closed.
+     *
+     * @throws IOException if accepting a connection fails for any reason other than the server closing
+     */
+    void serve() throws IOException
+    {
+        while(!serverSocket.isClosed())
+        {
+            final Socket socket;
+
+            try
+            {
+                socket = serverSocket.accept();
+            } catch(final SocketException e)
+            {
+                if(serverSocket.isClosed())
+                {
+                    return;
+                }
+                throw e;
+            }
+
+            sessions.execute(() -> play(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections and ends every session still in progress. Sessions that are
+     * interrupted before they finish do not record a score.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        serverSocket.close();
+        sessions.shutdownNow();
+
+        try
+        {
+            if(!sessions.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            {
+                System.err.println("Error stopping word game server: sessions still running");
+            }
+        } catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Plays one session on the connection and closes it. A session that fails is logged with the
+     * player's address and ends without affecting any other session.
+     */
+    private void play(final Socket socket)
+    {
+        try(socket; SocketGameIO io = new SocketGameIO(socket))
+        {
+            new WordGame(world, io, System.nanoTime(), scoreWriter).playGame();
+        } catch(final IOException | UncheckedIOException e)
+        {
+            System.err.println("Error in word game session from " + socket.getRemoteSocketAddress() + ": " + e.getMessage());
+        } catch(final RuntimeException e)
+        {
+            System.err.println("Error in word game session from " + socket.getRemoteSocketAddress() + ": " + e);
+        }
+    }
+}
@@ -1,38 +1,47 @@
 package WordGame;
 
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * The World class represents a collection of countries and provides methods to
  * load country data from files, validate formats, and manage countries in a map.
- * It supports loading countries from a directory and storing them in a map
- * based on the country name.
+ * It supports loading countries from a directory either eagerly into a compact
+ * {@link CountryStore} or lazily into a header-only {@link LazyCountryIndex},
+ * exposed as a read-only map based on the country name.
+ * The catalog is immutable and swapped atomically, so callers that hold on to
+ * {@link #getCatalog()} keep a consistent snapshot while files are reloaded.
+ * Setting the {@value LOAD_REPORT_PROPERTY} system property to true prints the
+ * timings of every load, and setting {@value LAZY_FACTS_PROPERTY} to true makes
+ * {@link #loadFacts} index the facts lazily.
  *
  * @author Ben Henry
- * @version 1.1
+ * @version 1.11
  */
 public class World
 {
-    private static final String COUNTRY_CAPITAL_SEPARATOR = ":";
     private static final String FILE_EXTENSION = "*.txt";
+    private static final int SINGLE_FILE = 1;
+    private static final int HALF = 2;
+    static final String LOAD_REPORT_PROPERTY = "wordgame.loadReport";
+    static final String LAZY_FACTS_PROPERTY = "wordgame.lazyFacts";
 
-    private static final int COUNTRY_NAME_INDEX = 0;
-    private static final int CAPITAL_CITY_INDEX = 1;
-
-    private final Map<String, Country> countriesMap;
-
-    static final int EXPECTED_HEADER_PARTS = 2;
-    static final int ZERO_ARRAY_SIZE = 0;
-    static final int CAPITAL_CITY_NAME_INDEX = 1;
+    private volatile CountryCatalog catalog;
+    private volatile WorldLoadReport lastLoadReport;
+    private Map<String, WorldSnapshot.SourceFile> sourceFiles;
 
 
     /**
@@ -40,27 +49,42 @@ public class World
      */
     public World()
     {
-        countriesMap = new HashMap<>();
+        catalog = CountryStore.EMPTY;
+        sourceFiles = Map.of();
     }
 
     /**
-     * Retrieves the map of countries.
+     * Retrieves the map of countries. The map is a read-only view over the catalog;
+     * each Country is created when it is looked up.
      *
      * @return A map of country names to their respective Country objects.
      */
     Map<String, Country> getCountriesMap()
     {
-        return countriesMap;
+        return catalog.asMap();
+    }
+
+    /**
+     * Retrieves the catalog holding every country. The returned catalog never changes,
+     * so a game session should read all of its questions from one catalog.
+     *
+     * @return The current country catalog.
+     */
+    CountryCatalog getCatalog()
+    {
+        return catalog;
     }
 
     /**
-     * Adds a Country to the map of countries.
+     * Adds a Country to the map of countries. The store is immutable, so this copies it;
+     * prefer loading whole directories when adding many countries. A lazily indexed world
+     * is loaded into memory first.
      *
      * @param country The Country object to add.
      */
-    void addCountry(final Country country)
+    synchronized void addCountry(final Country country)
     {
-        countriesMap.put(country.name(), country);
+        catalog = currentStore().with(country);
     }
 
     /**
@@ -71,112 +95,345 @@ public class World
      */
     Country getCountry(final String countryName)
     {
-        return countriesMap.get(countryName);
+        return catalog.getCountry(countryName);
     }
 
     /**
-     * Loads country data from all .txt files in the specified directory.
-     * Each file is expected to contain country and capital data, followed by facts.
+     * Finds the countries with a fact that mentions a word or phrase, such as "UNESCO" or
+     * "world heritage site". Case, accents and punctuation are ignored.
+     *
+     * @param phrase the words to look for, in order
+     * @return the names of the matching countries, sorted
+     */
+    public List<String> countriesMentioning(final String phrase)
+    {
+        final CountryCatalog countries = catalog;
+        final List<String> names = new ArrayList<>();
+
+        for(final int id : countries.factIndex().countriesMatching(phrase))
+        {
+            names.add(countries.nameAt(id));
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns the timings of the most recent directory or snapshot load.
+     *
+     * @return the last load report, or null if nothing has been loaded yet
+     */
+    WorldLoadReport getLastLoadReport()
+    {
+        return lastLoadReport;
+    }
+
+    /**
+     * Keeps the timings of a load, printing them if the {@value LOAD_REPORT_PROPERTY} property is set.
+     *
+     * @param report the timings of the load that just finished
+     */
+    private void recordLoadReport(final WorldLoadReport report)
+    {
+        lastLoadReport = report;
+
+        if(Boolean.getBoolean(LOAD_REPORT_PROPERTY))
+        {
+            System.out.println(report.format());
+        }
+    }
+
+    /**
+     * Loads the facts directory the way the {@value LAZY_FACTS_PROPERTY} system property asks:
+     * indexed lazily by {@link #indexCountriesFromDirectory} when it is true, for fact files too
+     * large to keep in memory, and otherwise loaded eagerly by {@link #loadCountriesFromDirectory}.
+     * The console game, the server and the {@link WorldRegistry} all load through here.
      *
      * @param dirPath The path to the directory containing the .txt files.
      */
-    public void loadCountriesFromDirectory(final Path dirPath)
+    public void loadFacts(final Path dirPath)
     {
-        try(DirectoryStream<Path> stream = Files.newDirectoryStream(dirPath, FILE_EXTENSION))
+        if(Boolean.getBoolean(LAZY_FACTS_PROPERTY))
         {
-            for(final Path file : stream)
-            {
-                List<Country> countriesFromFile = parseCountriesFromFile(file);
-                for(final Country country : countriesFromFile)
-                {
-                    addCountry(country);
-                }
-            }
-        } catch(final IOException e)
+            indexCountriesFromDirectory(dirPath);
+        } else
         {
-            System.err.println("Error reading directory: " + e.getMessage());
+            loadCountriesFromDirectory(dirPath);
         }
     }
 
     /**
-     * Parses country data from a given file. The file should contain a series of country and
-     * capital lines followed by facts. Each line containing a country and capital is validated
-     * to ensure the correct format.
+     * Loads country data for the specified directory. If a {@link WorldSnapshot} of the directory
+     * exists and every source file is unchanged since it was built, the snapshot is memory-mapped instead of
+     * parsing the text. Otherwise the .txt files are parsed and a fresh snapshot is written for the
+     * next start.
      *
-     * @param filePath The path of the file to parse.
-     * @return A list of Country objects parsed from the file.
-     * @throws IOException If there is an error reading the file.
+     * @param dirPath The path to the directory containing the .txt files.
      */
-    private List<Country> parseCountriesFromFile(final Path filePath) throws IOException
+    public synchronized void loadCountriesFromDirectory(final Path dirPath)
     {
-        final List<Country> countries;
-        final BufferedReader reader;
+        final Path snapshot = WorldSnapshot.defaultLocation(dirPath);
+
+        if(WorldSnapshot.isFresh(snapshot, dirPath) && loadCountriesFromSnapshot(snapshot))
+        {
+            return;
+        }
 
-        countries = new ArrayList<>();
-        reader = Files.newBufferedReader(filePath);
+        parseCountriesFromDirectory(dirPath);
 
+        writeDefaultSnapshot(dirPath);
+    }
 
-        String line;
-        while((line = reader.readLine()) != null)
+    /**
+     * Loads country data from all .txt files in the specified directory, ignoring any snapshot.
+     * Each file is expected to contain country and capital data, followed by facts.
+     * The files are memory-mapped and parsed in parallel on the common fork-join pool,
+     * each file's countries are merged into a concurrent staging map, and the staging map
+     * is then laid out in a new store alongside any countries already loaded. Every file is
+     * recorded for the snapshot before it is parsed, so an edit made during the parse leaves
+     * the snapshot stale rather than hiding the edit.
+     *
+     * @param dirPath The path to the directory containing the .txt files.
+     */
+    synchronized void parseCountriesFromDirectory(final Path dirPath)
+    {
+        final long startNanos = System.nanoTime();
+        final List<Path> files = listSourceFiles(dirPath);
+        final Map<String, WorldSnapshot.SourceFile> recorded = new TreeMap<>();
+
+        for(final Path file : files)
         {
-            line = line.trim();
+            recordSourceFile(file, recorded);
+        }
 
-            if(line.isEmpty())
-            {
-                continue;
-            }
+        final Map<Path, Long> fileParseNanos = new ConcurrentHashMap<>();
+        final Map<Path, List<Country>> parsed = new ConcurrentHashMap<>();
+        ForkJoinPool.commonPool().invoke(new ParseFilesTask(files, 0, files.size(), parsed, fileParseNanos));
 
-            final String[] headerParts;
-            headerParts = line.split(COUNTRY_CAPITAL_SEPARATOR);
+        catalog = currentStore().withReplacedSources(parsed);
+        sourceFiles = recorded;
 
-            if(!isValidCountryFormat(headerParts))
-            {
-                System.err.println("Invalid country-capital format in file " + filePath + " at line: " + line);
-                continue;
-            }
+        recordLoadReport(new WorldLoadReport(fileParseNanos, System.nanoTime() - startNanos));
+    }
 
-            final List<String> factsList;
-            final String countryName;
-            final String capitalCityName;
+    /**
+     * Indexes the specified directory lazily. Only the "Country:Capital" header lines and the
+     * byte range of each country's facts are read now; fact text is read from disk the first
+     * time a country is looked up, and recently used countries are cached. Any countries
+     * already loaded are replaced.
+     * <p>
+     * Looking up the facts of a country whose file has been edited since it was indexed throws an
+     * {@link java.io.UncheckedIOException} until the file is indexed again, for example by
+     * {@link #reloadFiles}; a game in progress skips such a question.
+     *
+     * @param dirPath The path to the directory containing the .txt files.
+     */
+    public synchronized void indexCountriesFromDirectory(final Path dirPath)
+    {
+        final long startNanos = System.nanoTime();
+        final Map<Path, Long> fileIndexNanos = new HashMap<>();
 
-            factsList = new ArrayList<>();
-            countryName = headerParts[World.COUNTRY_NAME_INDEX].trim();
-            capitalCityName = headerParts[CAPITAL_CITY_NAME_INDEX].trim();
+        catalog = LazyCountryIndex.EMPTY.withReloadedFiles(listSourceFiles(dirPath), fileIndexNanos);
+        sourceFiles = Map.of();
 
+        recordLoadReport(new WorldLoadReport(fileIndexNanos, System.nanoTime() - startNanos));
+    }
 
-            while((line = reader.readLine()) != null && !line.trim().isEmpty())
-            {
-                factsList.add(line.trim());
-            }
+    /**
+     * Loads every country from a snapshot file.
+     *
+     * @param snapshot The snapshot file to map.
+     * @return true if the snapshot was loaded, false if it could not be read.
+     */
+    private boolean loadCountriesFromSnapshot(final Path snapshot)
+    {
+        final long startNanos = System.nanoTime();
+
+        final CountryStore loaded;
+        final Map<String, WorldSnapshot.SourceFile> recorded = new TreeMap<>();
 
-            if(factsList.isEmpty())
+        try
+        {
+            for(final WorldSnapshot.SourceFile sourceFile : WorldSnapshot.readSourceFiles(snapshot))
             {
-                System.err.println("No facts found for country: " + countryName);
-                continue;
+                recorded.put(sourceFile.name(), sourceFile);
             }
+            loaded = WorldSnapshot.read(snapshot);
+        } catch(final IOException e)
+        {
+            System.err.println("Error reading country snapshot: " + e.getMessage());
+            return false;
+        }
 
-            final String[] facts;
-            facts = factsList.toArray(new String[ZERO_ARRAY_SIZE]);
+        final CountryStore current = currentStore();
+        catalog = current.size() == 0 ? loaded : new CountryStore.Builder().addAll(current).addAll(loaded).build();
+        sourceFiles = recorded;
 
-            countries.add(new Country(countryName, capitalCityName, facts));
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        recordLoadReport(new WorldLoadReport(Map.of(snapshot, elapsedNanos), elapsedNanos));
+        return true;
+    }
+
+    /**
+     * Re-reads only the given files and swaps the affected countries in atomically.
+     * A file that no longer exists removes its countries; a file that cannot be read keeps its old ones.
+     * The snapshot is rewritten afterwards so the next start sees the edits.
+     *
+     * @param dirPath      The facts directory the files belong to.
+     * @param changedFiles The files that were created, modified or deleted.
+     */
+    synchronized void reloadFiles(final Path dirPath, final Collection<Path> changedFiles)
+    {
+        final long startNanos = System.nanoTime();
+        final Map<Path, Long> fileParseNanos = new HashMap<>();
+        final Map<String, WorldSnapshot.SourceFile> recorded = new TreeMap<>(sourceFiles);
+
+        for(final Path file : changedFiles)
+        {
+            recordSourceFile(file, recorded);
+        }
+
+        catalog = catalog.withReloadedFiles(changedFiles, fileParseNanos);
+        sourceFiles = recorded;
+        recordLoadReport(new WorldLoadReport(fileParseNanos, System.nanoTime() - startNanos));
+        writeDefaultSnapshot(dirPath);
+    }
+
+    /**
+     * Starts watching the facts directory and reloading letter files as they change.
+     * Close the returned handle to stop watching.
+     *
+     * @param dirPath The path to the directory containing the .txt files.
+     * @return A handle that stops the watcher when closed.
+     * @throws IOException If the directory cannot be watched.
+     */
+    public Closeable watchForChanges(final Path dirPath) throws IOException
+    {
+        return new FactsDirectoryWatcher(this, dirPath);
+    }
+
+    /**
+     * Writes the current store as a snapshot, recording each source file as it was when its
+     * countries were read. Lazily indexed worlds are not snapshotted, since loading a snapshot
+     * would read every fact up front.
+     *
+     * @param snapshot The snapshot file to write.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    synchronized void writeSnapshot(final Path snapshot) throws IOException
+    {
+        if(catalog instanceof CountryStore store)
+        {
+            WorldSnapshot.write(store, sourceFiles.values(), snapshot);
+        }
+    }
+
+    /**
+     * Writes the snapshot to its default location, reporting but not propagating failures.
+     *
+     * @param dirPath The facts directory the snapshot belongs to.
+     */
+    private void writeDefaultSnapshot(final Path dirPath)
+    {
+        try
+        {
+            writeSnapshot(WorldSnapshot.defaultLocation(dirPath));
+        } catch(final IOException e)
+        {
+            System.err.println("Error writing country snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the current catalog if it is a compact store, or an empty store if the world is lazily indexed.
+     *
+     * @return The store new countries should be merged into.
+     */
+    private CountryStore currentStore()
+    {
+        return catalog instanceof CountryStore store ? store : CountryStore.EMPTY;
+    }
+
+    /**
+     * Lists the .txt files in a directory, reporting but not propagating failures.
+     *
+     * @param dirPath The directory to list.
+     * @return The .txt files found, in directory order.
+     */
+    private static List<Path> listSourceFiles(final Path dirPath)
+    {
+        final List<Path> files = new ArrayList<>();
+
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(dirPath, FILE_EXTENSION))
+        {
+            for(final Path file : stream)
+            {
+                files.add(file);
+            }
+        } catch(final IOException e)
+        {
+            System.err.println("Error reading directory: " + e.getMessage());
         }
 
-        reader.close();
-        return countries;
+        return files;
     }
 
     /**
-     * Validates the format of the country and capital line.
-     * The format should be "CountryName{@value COUNTRY_CAPITAL_SEPARATOR}CapitalCity".
+     * Records a source file's name, size and checksum before it is read. A file that is gone or
+     * cannot be read is left out, so a snapshot written now will not match the directory.
      *
-     * @param headerParts The parts of the line split by the colon.
-     * @return true if the format is valid, false otherwise.
+     * @param file     The source file.
+     * @param recorded The source files recorded so far, by name.
+     */
+    private static void recordSourceFile(final Path file, final Map<String, WorldSnapshot.SourceFile> recorded)
+    {
+        try
+        {
+            recorded.put(file.getFileName().toString(), WorldSnapshot.SourceFile.of(file));
+        } catch(final IOException e)
+        {
+            recorded.remove(file.getFileName().toString());
+        }
+    }
+
+    /**
+     * Splits a range of files in half until each task holds a single file, then parses it.
      */
-    private boolean isValidCountryFormat(final String[] headerParts)
+    @SuppressWarnings("serial")
+    private static final class ParseFilesTask extends RecursiveAction
     {
-        return headerParts.length == EXPECTED_HEADER_PARTS
-                && !headerParts[COUNTRY_NAME_INDEX].trim().isEmpty()
-                && !headerParts[CAPITAL_CITY_INDEX].trim().isEmpty();
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+        private final Map<Path, List<Country>> parsed;
+        private final Map<Path, Long> fileParseNanos;
+
+        ParseFilesTask(final List<Path> files, final int from, final int to,
+                       final Map<Path, List<Country>> parsed, final Map<Path, Long> fileParseNanos)
+        {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.parsed = parsed;
+            this.fileParseNanos = fileParseNanos;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(to - from <= SINGLE_FILE)
+            {
+                if(from < to)
+                {
+                    CountryFileParser.parseInto(files.get(from), parsed, fileParseNanos);
+                }
+                return;
+            }
+
+            final int middle = from + (to - from) / HALF;
+            invokeAll(new ParseFilesTask(files, from, middle, parsed, fileParseNanos),
+                    new ParseFilesTask(files, middle, to, parsed, fileParseNanos));
+        }
     }
 
 }
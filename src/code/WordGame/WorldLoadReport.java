@@ -0,0 +1,53 @@
+package WordGame;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing summary of a single {@link World} load, used to track startup regressions.
+ *
+ * @param fileParseNanos  the time spent parsing each file, in nanoseconds
+ * @param totalLoadNanos  the wall-clock time of the whole load, in nanoseconds
+ *
+ * @author Ben Henry
+ * @version 1.1
+ */
+record WorldLoadReport(Map<Path, Long> fileParseNanos, long totalLoadNanos)
+{
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Creates a report, copying the per-file timings into file name order.
+     *
+     * @param fileParseNanos  the time spent parsing each file, in nanoseconds
+     * @param totalLoadNanos  the wall-clock time of the whole load, in nanoseconds
+     */
+    WorldLoadReport
+    {
+        fileParseNanos = Collections.unmodifiableSortedMap(new TreeMap<>(fileParseNanos));
+    }
+
+    /**
+     * Formats the report as one line per file followed by the total.
+     *
+     * @return a human-readable summary of the load timings
+     */
+    String format()
+    {
+        final StringBuilder builder = new StringBuilder();
+
+        for(final Map.Entry<Path, Long> entry : fileParseNanos.entrySet())
+        {
+            builder.append(String.format("%s: %.3f ms%s",
+                    entry.getKey().getFileName(), entry.getValue() / NANOS_PER_MILLI, System.lineSeparator()));
+        }
+
+        builder.append(String.format("Total load: %.3f ms across %d file(s)",
+                totalLoadNanos / NANOS_PER_MILLI, fileParseNanos.size()));
+
+        return builder.toString();
+    }
+}
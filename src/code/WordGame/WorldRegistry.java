@@ -0,0 +1,196 @@
+package WordGame;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds one {@link World} per language, each loaded from its own facts directory the first time a
+ * session asks for it.
+ * <p>
+ * The facts for {@link #DEFAULT_LOCALE} are the .txt files in the root facts directory. Every other
+ * language lives in a subdirectory named by its language tag, such as {@code fr} or {@code pt-BR}.
+ * A locale without its own directory falls back to its language, and then to the default, so
+ * {@code fr-CA} plays in French if there is no {@code fr-CA} directory.
+ * <p>
+ * Worlds are cached by directory, so concurrent sessions in one locale, and locales that fall back to
+ * the same directory, share one World whose catalog never changes once published. At most
+ * {@code capacity} worlds are kept; the one asked for least recently is dropped when another is loaded.
+ * A session that still holds a dropped World keeps playing it, and the registry keeps a weak reference
+ * to it, so the next session in that locale shares it instead of loading a second copy. Only once no
+ * session holds a dropped World can it be collected, and the locale is then loaded again.
+ * <p>
+ * Worlds are loaded with {@link World#loadFacts}, so the {@code wordgame.lazyFacts} system property
+ * selects lazily indexed facts for every language.
+ *
+ * @author Ben Henry
+ * @version 1.2
+ */
+public final class WorldRegistry
+{
+    /**
+     * The language of the facts in the root facts directory.
+     */
+    public static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
+    static final int DEFAULT_CAPACITY = 4;
+
+    private final Path factsRoot;
+    private final int capacity;
+    private final Map<Path, CompletableFuture<World>> worlds;
+    private final Map<Path, WeakReference<World>> dropped;
+
+    /**
+     * Creates a registry over a facts directory, keeping up to {@value DEFAULT_CAPACITY} languages loaded.
+     *
+     * @param factsRoot the directory holding the default language's facts and a subdirectory per other language
+     */
+    public WorldRegistry(final Path factsRoot)
+    {
+        this(factsRoot, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a registry over a facts directory.
+     *
+     * @param factsRoot the directory holding the default language's facts and a subdirectory per other language
+     * @param capacity  the most languages to keep loaded at once
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    WorldRegistry(final Path factsRoot, final int capacity)
+    {
+        if(capacity <= 0)
+        {
+            throw new IllegalArgumentException("A world registry must hold at least one world");
+        }
+
+        this.factsRoot = factsRoot;
+        this.capacity = capacity;
+        this.dropped = new HashMap<>();
+        this.worlds = new LinkedHashMap<>(capacity, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, CompletableFuture<World>> eldest)
+            {
+                if(size() <= WorldRegistry.this.capacity)
+                {
+                    return false;
+                }
+
+                final Path directory = eldest.getKey();
+                eldest.getValue().thenAccept(world -> {
+                    synchronized(worlds)
+                    {
+                        dropped.put(directory, new WeakReference<>(world));
+                    }
+                });
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the World for a locale, loading it if no session has asked for it recently. A thread
+     * that asks while another is loading the same directory waits for that load rather than repeating it.
+     *
+     * @param locale the player's locale
+     * @return the shared World for the locale's facts directory
+     */
+    public World get(final Locale locale)
+    {
+        final Path directory = directoryFor(locale);
+        final CompletableFuture<World> loading = new CompletableFuture<>();
+        final CompletableFuture<World> world;
+
+        synchronized(worlds)
+        {
+            final World stillPlayed = stillPlayed(directory);
+            if(stillPlayed != null && !worlds.containsKey(directory))
+            {
+                worlds.put(directory, CompletableFuture.completedFuture(stillPlayed));
+            }
+            world = worlds.putIfAbsent(directory, loading);
+        }
+
+        if(world != null)
+        {
+            return world.join();
+        }
+
+        try
+        {
+            final World loaded = new World();
+            loaded.loadFacts(directory);
+            loading.complete(loaded);
+            return loaded;
+        } catch(final RuntimeException e)
+        {
+            // Let the next session try again rather than caching the failure
+            synchronized(worlds)
+            {
+                worlds.remove(directory, loading);
+            }
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a World dropped from the cache that some session still holds, forgetting it once it
+     * has been collected. Must be called holding the lock on the cache.
+     *
+     * @param directory the facts directory
+     * @return the dropped World, or null if there is none
+     */
+    private World stillPlayed(final Path directory)
+    {
+        final WeakReference<World> reference = dropped.remove(directory);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Returns the facts directory a locale is played from: its own if it has one, otherwise its
+     * language's, otherwise the root directory.
+     *
+     * @param locale the player's locale
+     * @return the directory to load
+     */
+    public Path directoryFor(final Locale locale)
+    {
+        if(locale.getLanguage().equals(DEFAULT_LOCALE.getLanguage()))
+        {
+            return factsRoot;
+        }
+
+        final Path exact = factsRoot.resolve(locale.toLanguageTag());
+        if(Files.isDirectory(exact))
+        {
+            return exact;
+        }
+
+        final Path language = factsRoot.resolve(locale.getLanguage());
+        if(!locale.getLanguage().isEmpty() && Files.isDirectory(language))
+        {
+            return language;
+        }
+
+        return factsRoot;
+    }
+
+    /**
+     * Returns how many worlds are loaded or loading.
+     *
+     * @return the number of cached worlds, at most the capacity
+     */
+    int size()
+    {
+        synchronized(worlds)
+        {
+            return worlds.size();
+        }
+    }
+}
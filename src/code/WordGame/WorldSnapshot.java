@@ -0,0 +1,411 @@
+package WordGame;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes a versioned binary snapshot of the countries in a {@link World},
+ * so startup can map one file instead of re-parsing every letter file.
+ * <p>
+ * The snapshot is the {@link CountryStore} arena written out as-is, so loading it is a handful
+ * of bulk copies and one pass over the country records to check that they are well formed.
+ * <p>
+ * The snapshot also records the name, size and CRC-32C checksum of every source file as it was
+ * read, before parsing began, and is only used while every source file in the directory still
+ * matches. Comparing contents rather than modification times catches edits made within the
+ * filesystem's timestamp resolution, renames that keep the file count, and edits made while the
+ * snapshot was being built.
+ * <p>
+ * Layout (big-endian): a header of magic, version, source file count, country count
+ * and byte count; then each source file's name as a length-prefixed UTF-8 string,
+ * its size as a long and its checksum as an int; then the country offset table ({@code countryCount + 1} ints);
+ * then the arena of country records; then the count of distinct source names, each source name
+ * as a length-prefixed UTF-8 string, and the source index of each country.
+ *
+ * @author Ben Henry
+ * @version 1.6
+ */
+final class WorldSnapshot
+{
+    static final String SNAPSHOT_FILE_NAME = "countries.snapshot";
+
+    private static final int MAGIC = 0x57524C44;
+    private static final int VERSION = 6;
+    private static final int HEADER_INTS = 5;
+    private static final long START_OF_FILE = 0L;
+    private static final String SOURCE_FILE_EXTENSION = "*.txt";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int FACTS_DIRECTORY_ARGUMENT = 0;
+    private static final int OUTPUT_FILE_ARGUMENT = 1;
+
+    private WorldSnapshot()
+    {
+    }
+
+    /**
+     * Compiles the snapshot for a facts directory ahead of time.
+     * Usage: {@code WorldSnapshot [factsDirectory] [outputFile]}; the output defaults to
+     * {@value SNAPSHOT_FILE_NAME} inside the facts directory.
+     *
+     * @param args the facts directory and optional output file
+     * @throws IOException if the facts cannot be read or the snapshot cannot be written
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final Path factsDirectory;
+        final Path output;
+        final World world;
+
+        factsDirectory = args.length > FACTS_DIRECTORY_ARGUMENT ? Paths.get(args[FACTS_DIRECTORY_ARGUMENT]) : Paths.get("src", "CountryFacts");
+        output = args.length > OUTPUT_FILE_ARGUMENT ? Paths.get(args[OUTPUT_FILE_ARGUMENT]) : defaultLocation(factsDirectory);
+
+        world = new World();
+        world.parseCountriesFromDirectory(factsDirectory);
+        world.writeSnapshot(output);
+
+        System.out.println("Wrote " + world.getCountriesMap().size() + " countries to " + output);
+    }
+
+    /**
+     * Returns where the snapshot for the given facts directory is kept by default.
+     *
+     * @param factsDirectory the directory holding the letter files
+     * @return the default snapshot path
+     */
+    static Path defaultLocation(final Path factsDirectory)
+    {
+        return factsDirectory.resolve(SNAPSHOT_FILE_NAME);
+    }
+
+    /**
+     * Checks whether a snapshot exists and every source file in the directory has the same name,
+     * size and checksum as when the snapshot's countries were read, with none added or removed.
+     *
+     * @param snapshot       the snapshot file
+     * @param factsDirectory the directory holding the letter files
+     * @return true if the snapshot can be used instead of parsing the text files
+     */
+    static boolean isFresh(final Path snapshot, final Path factsDirectory)
+    {
+        if(!Files.isRegularFile(snapshot))
+        {
+            return false;
+        }
+
+        try
+        {
+            return readSourceFiles(snapshot).equals(sourceFiles(factsDirectory));
+        } catch(final IOException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Records every source file a snapshot of the given directory would be built from, in name order.
+     *
+     * @param factsDirectory the directory holding the letter files
+     * @return the source files
+     * @throws IOException if the directory cannot be listed or a file cannot be read
+     */
+    static List<SourceFile> sourceFiles(final Path factsDirectory) throws IOException
+    {
+        final List<SourceFile> sourceFiles = new ArrayList<>();
+
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(factsDirectory, SOURCE_FILE_EXTENSION))
+        {
+            for(final Path file : stream)
+            {
+                sourceFiles.add(SourceFile.of(file));
+            }
+        }
+
+        sourceFiles.sort((first, second) -> first.name().compareTo(second.name()));
+        return sourceFiles;
+    }
+
+    /**
+     * Reads the source files recorded in a snapshot, without reading its countries.
+     *
+     * @param snapshot the snapshot file to read
+     * @return the recorded source files, in name order
+     * @throws IOException if the file cannot be read, is not a snapshot of this version or is corrupt
+     */
+    static List<SourceFile> readSourceFiles(final Path snapshot) throws IOException
+    {
+        final MappedByteBuffer mapped = map(snapshot);
+        final int sourceFileCount = mapped.getInt();
+
+        mapped.position(HEADER_INTS * Integer.BYTES);
+        return readSourceFiles(mapped, sourceFileCount, snapshot);
+    }
+
+    /**
+     * Writes the given store to a snapshot file. The file is written beside the target
+     * and moved into place, so readers never see a partially written snapshot.
+     *
+     * @param store       the countries to store
+     * @param sourceFiles the source files the countries were read from, in name order
+     * @param snapshot    the snapshot file to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(final CountryStore store, final Collection<SourceFile> sourceFiles, final Path snapshot)
+            throws IOException
+    {
+        final Path temp = snapshot.resolveSibling(snapshot.getFileName() + TEMP_FILE_SUFFIX);
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sourceFiles.size());
+            out.writeInt(store.size());
+            out.writeInt(store.arena().length);
+
+            for(final SourceFile sourceFile : sourceFiles)
+            {
+                final byte[] name = sourceFile.name().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+                out.writeLong(sourceFile.size());
+                out.writeInt(sourceFile.checksum());
+            }
+
+            for(final int offset : store.countryOffsets())
+            {
+                out.writeInt(offset);
+            }
+
+            out.write(store.arena());
+            out.writeInt(store.sources().length);
+
+            for(final String source : store.sources())
+            {
+                final byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            for(final int source : store.sourceOf())
+            {
+                out.writeInt(source);
+            }
+        }
+
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Memory-maps a snapshot file and copies its tables into a new store. Every count in the file
+     * is checked against the bytes that remain and every offset against the table it indexes, so
+     * a truncated or corrupt snapshot is reported as an IOException rather than read past its end.
+     *
+     * @param snapshot the snapshot file to read
+     * @return the countries stored in the snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot of this version or is corrupt
+     */
+    static CountryStore read(final Path snapshot) throws IOException
+    {
+        final MappedByteBuffer mapped = map(snapshot);
+
+        final int sourceFileCount = mapped.getInt();
+        final int countryCount = mapped.getInt();
+        final int byteCount = mapped.getInt();
+
+        if(countryCount < 0 || byteCount < 0)
+        {
+            throw corrupt(snapshot, "negative count");
+        }
+        readSourceFiles(mapped, sourceFileCount, snapshot);
+        requireRemaining(mapped, ((long) countryCount + 1) * Integer.BYTES + byteCount, snapshot);
+
+        final int[] countryOffsets = readInts(mapped, countryCount + 1);
+        requireAscending(countryOffsets, byteCount, snapshot, "country offset");
+
+        final byte[] arena = new byte[byteCount];
+        mapped.get(arena);
+
+        requireRemaining(mapped, Integer.BYTES, snapshot);
+        final int sourceCount = mapped.getInt();
+        if(sourceCount < 0)
+        {
+            throw corrupt(snapshot, "negative source count");
+        }
+        requireRemaining(mapped, (long) sourceCount * Integer.BYTES, snapshot);
+
+        final String[] sources = new String[sourceCount];
+        for(int i = 0; i < sources.length; i++)
+        {
+            requireRemaining(mapped, Integer.BYTES, snapshot);
+            final int length = mapped.getInt();
+            if(length < 0)
+            {
+                throw corrupt(snapshot, "negative source name length");
+            }
+            requireRemaining(mapped, length, snapshot);
+            final byte[] bytes = new byte[length];
+            mapped.get(bytes);
+            sources[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        requireRemaining(mapped, (long) countryCount * Integer.BYTES, snapshot);
+        final int[] sourceOf = readInts(mapped, countryCount);
+        for(final int source : sourceOf)
+        {
+            if(source < 0 || source >= sourceCount)
+            {
+                throw corrupt(snapshot, "source index " + source + " out of range");
+            }
+        }
+
+        final CountryStore store = new CountryStore(arena, countryOffsets, sources, sourceOf);
+        for(int id = 0; id < countryCount; id++)
+        {
+            if(!store.isWellFormed(id))
+            {
+                throw corrupt(snapshot, "country " + id + " is malformed");
+            }
+        }
+
+        return store;
+    }
+
+    /**
+     * Memory-maps a snapshot file and checks its magic and version, leaving the buffer just after them.
+     */
+    private static MappedByteBuffer map(final Path snapshot) throws IOException
+    {
+        final MappedByteBuffer mapped;
+
+        try(FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ))
+        {
+            if(channel.size() < (long) HEADER_INTS * Integer.BYTES || channel.size() > Integer.MAX_VALUE)
+            {
+                throw new IOException("Not a country snapshot: " + snapshot);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, START_OF_FILE, channel.size());
+        }
+
+        if(mapped.getInt() != MAGIC || mapped.getInt() != VERSION)
+        {
+            throw new IOException("Not a version " + VERSION + " country snapshot: " + snapshot);
+        }
+
+        return mapped;
+    }
+
+    private static List<SourceFile> readSourceFiles(final MappedByteBuffer mapped, final int count, final Path snapshot)
+            throws IOException
+    {
+        if(count < 0)
+        {
+            throw corrupt(snapshot, "negative source file count");
+        }
+        requireRemaining(mapped, (long) count * (Integer.BYTES + Long.BYTES + Integer.BYTES), snapshot);
+
+        final List<SourceFile> sourceFiles = new ArrayList<>(count);
+        for(int i = 0; i < count; i++)
+        {
+            requireRemaining(mapped, Integer.BYTES, snapshot);
+            final int length = mapped.getInt();
+            if(length < 0)
+            {
+                throw corrupt(snapshot, "negative source file name length");
+            }
+            requireRemaining(mapped, (long) length + Long.BYTES + Integer.BYTES, snapshot);
+            final byte[] name = new byte[length];
+            mapped.get(name);
+            sourceFiles.add(new SourceFile(new String(name, StandardCharsets.UTF_8), mapped.getLong(), mapped.getInt()));
+        }
+
+        return sourceFiles;
+    }
+
+    private static void requireRemaining(final MappedByteBuffer mapped, final long bytes, final Path snapshot)
+            throws IOException
+    {
+        if(bytes > mapped.remaining())
+        {
+            throw corrupt(snapshot, "truncated");
+        }
+    }
+
+    /**
+     * Checks that a table starts at zero, never decreases and ends at the given limit.
+     */
+    private static void requireAscending(final int[] values, final int end, final Path snapshot, final String table)
+            throws IOException
+    {
+        if(values[0] != 0 || values[values.length - 1] != end)
+        {
+            throw corrupt(snapshot, table + " table does not span " + end);
+        }
+        for(int i = 1; i < values.length; i++)
+        {
+            if(values[i] < values[i - 1])
+            {
+                throw corrupt(snapshot, table + " " + i + " out of order");
+            }
+        }
+    }
+
+    private static IOException corrupt(final Path snapshot, final String problem)
+    {
+        return new IOException("Corrupt country snapshot (" + problem + "): " + snapshot);
+    }
+
+    private static int[] readInts(final MappedByteBuffer mapped, final int count)
+    {
+        final int[] values = new int[count];
+        final IntBuffer view = mapped.asIntBuffer();
+        view.get(values);
+        mapped.position(mapped.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * A source file as it was when its countries were read.
+     *
+     * @param name     the file name
+     * @param size     the file size in bytes
+     * @param checksum the CRC-32C checksum of the file's contents
+     */
+    record SourceFile(String name, long size, int checksum)
+    {
+        /**
+         * Records a source file's current name, size and checksum.
+         *
+         * @param file the source file
+         * @return the recorded file
+         * @throws IOException if the file cannot be read
+         */
+        static SourceFile of(final Path file) throws IOException
+        {
+            final CRC32C checksum = new CRC32C();
+            final long size;
+
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+            {
+                size = channel.size();
+                checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, START_OF_FILE, size));
+            }
+
+            return new SourceFile(file.getFileName().toString(), size, (int) checksum.getValue());
+        }
+    }
+}
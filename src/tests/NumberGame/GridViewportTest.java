@@ -0,0 +1,64 @@
+package NumberGame;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridViewportTest {
+
+    @Test
+    void testWrapsCellsToTheWindowWidth() {
+        GridViewport viewport = new GridViewport(20, 80, 10);
+        viewport.resize(485, 560);
+
+        assertEquals(5, viewport.columns());
+        assertEquals(4, viewport.rowCount());
+        assertEquals(350, viewport.contentHeight());
+        assertEquals(0, viewport.maxScrollTop(), "A grid shorter than the window should not scroll.");
+        assertEquals(0, viewport.firstVisibleCell());
+        assertEquals(20, viewport.endVisibleCell());
+    }
+
+    @Test
+    void testOnlyRowsInTheWindowAreVisible() {
+        GridViewport viewport = new GridViewport(10_000, 48, 10);
+        viewport.resize(580, 580);
+        assertEquals(10, viewport.columns());
+
+        viewport.scrollTo(58 * 100 + 20);
+        assertEquals(1_000, viewport.firstVisibleCell());
+        assertEquals(1_110, viewport.endVisibleCell());
+        assertTrue(viewport.isVisible(1_050));
+        assertFalse(viewport.isVisible(999));
+        assertFalse(viewport.isVisible(1_110));
+
+        viewport.scrollTo(Double.MAX_VALUE);
+        assertEquals(viewport.maxScrollTop(), viewport.scrollTop());
+        assertEquals(10_000, viewport.endVisibleCell());
+    }
+
+    @Test
+    void testFindsTheCellUnderAPoint() {
+        GridViewport viewport = new GridViewport(100, 40, 10);
+        viewport.resize(245, 200);
+        viewport.scrollTo(50);
+
+        double x = viewport.cellX(17);
+        double y = viewport.cellY(17);
+        assertEquals(17, viewport.cellAt(x + 1, y + 1));
+        assertEquals(17, viewport.cellAt(x + 39, y + 39));
+        assertEquals(GridViewport.NO_CELL, viewport.cellAt(x + 45, y + 1), "A gap is not a cell.");
+        assertEquals(GridViewport.NO_CELL, viewport.cellAt(1, 1), "The left margin is not a cell.");
+        assertEquals(GridViewport.NO_CELL, viewport.cellAt(x, 250), "A point below the window is not a cell.");
+    }
+
+    @Test
+    void testPointsPastTheLastCellHitNothing() {
+        GridViewport viewport = new GridViewport(23, 80, 10);
+        viewport.resize(440, 400);
+
+        assertEquals(22, viewport.cellAt(viewport.cellX(22) + 1, viewport.cellY(22) + 1));
+        assertEquals(GridViewport.NO_CELL, viewport.cellAt(viewport.cellX(24) + 1, viewport.cellY(24) + 1));
+    }
+}
@@ -0,0 +1,106 @@
+package NumberGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumberPlacementGameHandlerTest {
+
+    /**
+     * The rule the index replaces: empty slots after the last smaller number and before the first greater one.
+     */
+    private static boolean scanIsValid(int[] grid, int number, int position) {
+        int lastSmaller = -1;
+        int firstGreater = grid.length;
+        for (int i = 0; i < grid.length; i++) {
+            if (grid[i] != 0 && grid[i] < number) {
+                lastSmaller = i;
+            } else if (grid[i] > number && firstGreater == grid.length) {
+                firstGreater = i;
+            }
+        }
+        return grid[position] == 0 && position > lastSmaller && position < firstGreater;
+    }
+
+    @Test
+    void testValidPositionsMatchAFullScan() {
+        Random random = new Random(5);
+        NumberPlacementGameHandler handler = new NumberPlacementGameHandler();
+
+        for (int game = 0; game < 200; game++) {
+            handler.startGame();
+            while (!handler.checkGameOver()) {
+                boolean anyValid = false;
+                for (int position = 0; position < handler.grid.length; position++) {
+                    boolean expected = scanIsValid(handler.grid, handler.currentNumber, position);
+                    assertEquals(expected, handler.isValidPosition(position),
+                            "Position " + position + " for " + handler.currentNumber);
+                    anyValid |= expected;
+                }
+                assertTrue(anyValid, "The game should be over when no position is valid.");
+
+                int position;
+                do {
+                    position = random.nextInt(handler.grid.length);
+                } while (!handler.isValidPosition(position));
+                handler.placeNumberOnGrid(position);
+                if (handler.successfulPlacements == handler.grid.length) {
+                    break;
+                }
+                handler.generateNextNumber();
+            }
+        }
+    }
+
+    @Test
+    void testEqualNumbersMayGoEitherSide() {
+        NumberPlacementGameHandler handler = new NumberPlacementGameHandler();
+        handler.startGame();
+        handler.currentNumber = 500;
+        handler.checkAvailablePlacements();
+        handler.placeNumberOnGrid(10);
+        handler.currentNumber = 500;
+        handler.checkAvailablePlacements();
+
+        assertTrue(handler.isValidPosition(0));
+        assertTrue(handler.isValidPosition(19));
+        assertFalse(handler.isValidPosition(10), "An occupied position is never valid.");
+    }
+
+    @Test
+    void testGridSizeIsConfigurable() {
+        NumberPlacementGameHandler handler = new NumberPlacementGameHandler(GameEventHandler.MAX_GRID_SIZE);
+        handler.startGame();
+
+        assertEquals(GameEventHandler.MAX_GRID_SIZE, handler.gridSize());
+        assertTrue(handler.isValidPosition(GameEventHandler.MAX_GRID_SIZE - 1));
+        assertEquals(GameEventHandler.DEFAULT_GRID_SIZE, new NumberPlacementGameHandler().gridSize());
+        assertThrows(IllegalArgumentException.class, () -> new NumberPlacementGameHandler(GameEventHandler.MIN_GRID_SIZE - 1));
+        assertThrows(IllegalArgumentException.class, () -> new NumberPlacementGameHandler(GameEventHandler.MAX_GRID_SIZE + 1));
+    }
+
+    @Test
+    void testIndexFindsBoundsOnALargeGrid() {
+        PlacementIndex index = new PlacementIndex(10_000);
+        for (int slot = 0; slot < 10_000; slot += 10) {
+            index.place(slot, slot + 1);
+        }
+
+        assertEquals(4_990, index.lastSmallerSlot(5_000));
+        assertEquals(5_000, index.firstGreaterSlot(5_000));
+        assertEquals(PlacementIndex.NO_SMALLER_SLOT, index.lastSmallerSlot(1));
+        assertEquals(10_000, index.firstGreaterSlot(9_991));
+        assertTrue(index.hasFreeSlotBetween(4_990, 5_000));
+        assertFalse(index.hasFreeSlotBetween(4_990, 4_991));
+        assertEquals(1_000, index.placedCount());
+        assertThrows(IllegalArgumentException.class, () -> index.place(20, 7));
+
+        index.clear();
+        assertEquals(0, index.placedCount());
+        assertFalse(index.isOccupied(20));
+    }
+}
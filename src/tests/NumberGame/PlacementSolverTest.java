@@ -0,0 +1,111 @@
+package NumberGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlacementSolverTest {
+
+    // The clock never advances, so every search stops at the same depth on any machine
+    private static final int SEARCH_DEPTH = 2;
+    private static final PlacementSolver SOLVER =
+            new PlacementSolver(1000, PlacementSolver.DEFAULT_BUDGET_NANOS, SEARCH_DEPTH, () -> 0L);
+
+    @Test
+    void testPrefersTheSlotInProportionToTheNumber() {
+        int[] grid = new int[20];
+
+        assertEquals(0, SOLVER.hints(grid, 1).get(0).position());
+        assertEquals(19, SOLVER.hints(grid, 1000).get(0).position());
+        int middle = SOLVER.hints(grid, 500).get(0).position();
+        assertTrue(middle >= 8 && middle <= 11, "A middling number should go near the middle: " + middle);
+    }
+
+    @Test
+    void testRanksEveryValidSlotBestFirst() {
+        NumberPlacementGameHandler handler = new NumberPlacementGameHandler();
+        handler.startGame();
+        handler.currentNumber = 300;
+        handler.checkAvailablePlacements();
+        handler.placeNumberOnGrid(5);
+        handler.currentNumber = 700;
+        handler.checkAvailablePlacements();
+        handler.placeNumberOnGrid(14);
+        handler.currentNumber = 450;
+        handler.checkAvailablePlacements();
+
+        List<PlacementHint> hints = SOLVER.hints(handler.grid, handler.currentNumber);
+
+        assertEquals(8, hints.size(), "Slots 6 to 13 are the only valid ones.");
+        for (int i = 0; i < hints.size(); i++) {
+            assertTrue(handler.isValidPosition(hints.get(i).position()));
+            if (i > 0) {
+                assertTrue(hints.get(i - 1).expectedPlacements() >= hints.get(i).expectedPlacements());
+            }
+        }
+    }
+
+    @Test
+    void testLastSlotIsWorthExactlyOnePlacement() {
+        int[] grid = new int[20];
+        for (int slot = 0; slot < grid.length; slot++) {
+            grid[slot] = slot == 7 ? 0 : 10 * slot + 1;
+        }
+
+        List<PlacementHint> hints = SOLVER.hints(grid, 71);
+
+        assertEquals(List.of(new PlacementHint(7, 1.0)), hints);
+        assertTrue(SOLVER.hints(grid, 500).isEmpty(), "A number that fits nowhere gets no hints.");
+    }
+
+    @Test
+    void testAnswersALargeGrid() {
+        NumberPlacementGameHandler handler = largeGrid();
+        PlacementSolver solver = new PlacementSolver(handler.randomNumberUpperBound(),
+                PlacementSolver.DEFAULT_BUDGET_NANOS, SEARCH_DEPTH, () -> 0L);
+
+        List<PlacementHint> hints = solver.hints(handler.grid, handler.currentNumber);
+
+        assertTrue(hints.size() > 0 || handler.checkGameOver());
+        assertEquals(hints, solver.hints(handler.grid, handler.currentNumber),
+                "A search that stops at a fixed depth should give the same hints every time.");
+    }
+
+    @Test
+    void testRanksSlotsNotReachedBeforeTheDeadlineAsOnePlacement() {
+        int[] grid = new int[20];
+        AtomicLong clock = new AtomicLong();
+        // Time runs out as soon as the deadline has been set
+        PlacementSolver solver = new PlacementSolver(1000, PlacementSolver.DEFAULT_BUDGET_NANOS,
+                PlacementSolver.UNLIMITED_DEPTH, () -> clock.getAndAdd(PlacementSolver.DEFAULT_BUDGET_NANOS + 1));
+
+        List<PlacementHint> hints = solver.hints(grid, 500);
+
+        assertTrue(hints.size() > 0);
+        for (int i = 0; i < hints.size(); i++) {
+            assertEquals(1.0, hints.get(i).expectedPlacements(), "No slot could be estimated in time.");
+            if (i > 0) {
+                assertTrue(hints.get(i - 1).position() < hints.get(i).position(), "Unscored slots tie, so rank by position.");
+            }
+        }
+    }
+
+    private static NumberPlacementGameHandler largeGrid() {
+        Random random = new Random(3);
+        NumberPlacementGameHandler handler = new NumberPlacementGameHandler(GameEventHandler.MAX_GRID_SIZE);
+        handler.startGame();
+        for (int placed = 0; placed < 2_000 && !handler.checkGameOver(); placed++) {
+            int position;
+            do {
+                position = random.nextInt(handler.gridSize());
+            } while (!handler.isValidPosition(position));
+            handler.placeNumberOnGrid(position);
+            handler.generateNextNumber();
+        }
+        return handler;
+    }
+}
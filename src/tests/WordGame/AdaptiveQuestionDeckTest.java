@@ -0,0 +1,143 @@
+package WordGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveQuestionDeckTest {
+
+    private static CountryStore countries(int count) {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            countries.add(new Country("Country " + i, "Capital " + i, new String[] {"Fact " + i}));
+        }
+        return CountryStore.of(countries);
+    }
+
+    @Test
+    void testAliasTableSamplesInProportionToWeights() {
+        double[] weights = {1, 0, 3, 6};
+        AliasTable table = new AliasTable(weights);
+        Random random = new Random(3);
+        int[] counts = new int[weights.length];
+        int samples = 200_000;
+
+        for (int i = 0; i < samples; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(4, table.size());
+        assertEquals(0, counts[1]);
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / 10, (double) counts[i] / samples, 0.01);
+        }
+    }
+
+    @Test
+    void testAliasTableRejectsZeroTotal() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+    }
+
+    @Test
+    void testMissedCountryComesUpMoreOften() {
+        CountryStore store = countries(20);
+        AdaptiveQuestionDeck deck = new AdaptiveQuestionDeck(store, 11L, new AnswerHistory(), 0.5);
+        long missed = QuestionDeck.pack(0, 0);
+
+        for (int i = 0; i < 10; i++) {
+            deck.recordAnswer(missed, AnswerOutcome.INCORRECT);
+        }
+        for (int id = 1; id < store.size(); id++) {
+            deck.recordAnswer(QuestionDeck.pack(id, 0), AnswerOutcome.CORRECT_FIRST_ATTEMPT);
+        }
+
+        int missedDeals = 0;
+        int otherDeals = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long question = deck.deal();
+            if (question == missed) {
+                missedDeals++;
+            } else if (question == QuestionDeck.pack(1, 0)) {
+                otherDeals++;
+            }
+        }
+        assertTrue(missedDeals > 2 * otherDeals, missedDeals + " deals of the missed question against " + otherDeals);
+    }
+
+    @Test
+    void testFactQuestionsShareTheirCountryMissRate() {
+        CountryStore store = CountryStore.of(List.of(
+                new Country("Canada", "Ottawa", new String[] {"Fact 1", "Fact 2"}),
+                new Country("France", "Paris", new String[] {"Fact 3"})
+        ));
+        AdaptiveQuestionDeck deck = new AdaptiveQuestionDeck(store, 5L, new AnswerHistory(), 0.5);
+        long firstFact = QuestionDeck.pack(0, QuestionDeck.FIRST_FACT_SLOT);
+        long secondFact = QuestionDeck.pack(0, QuestionDeck.FIRST_FACT_SLOT + 1);
+
+        deck.recordAnswer(firstFact, AnswerOutcome.INCORRECT);
+
+        assertTrue(deck.currentWeight(firstFact) > 0.5);
+        assertEquals(deck.currentWeight(firstFact), deck.currentWeight(secondFact));
+        assertEquals(0.5, deck.currentWeight(QuestionDeck.pack(0, 0)));
+    }
+
+    @Test
+    void testDoesNotRepeatRecentQuestions() {
+        AdaptiveQuestionDeck deck = new AdaptiveQuestionDeck(countries(30), 9L, new AnswerHistory(), 0.5);
+        deck.recordAnswer(QuestionDeck.pack(0, 0), AnswerOutcome.INCORRECT);
+        Deque<Long> recent = new ArrayDeque<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            long question = deck.deal();
+            assertFalse(recent.contains(question), "A question was dealt again within ten questions.");
+            recent.addLast(question);
+            if (recent.size() > 10) {
+                recent.removeFirst();
+            }
+        }
+    }
+
+    @Test
+    void testDealsTrackWeightsThroughManyUpdates() {
+        CountryStore store = countries(2_000);
+        AdaptiveQuestionDeck deck = new AdaptiveQuestionDeck(store, 13L, new AnswerHistory(), 0.2);
+        Random random = new Random(21);
+
+        // Enough scattered answers to push many weights above and below the table's
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(store.size());
+            long question = QuestionDeck.pack(id, random.nextInt(QuestionDeck.FIRST_FACT_SLOT + 1));
+            deck.recordAnswer(question, id < 200 ? AnswerOutcome.INCORRECT : AnswerOutcome.CORRECT_FIRST_ATTEMPT);
+        }
+
+        double hardWeight = 0;
+        double totalWeight = 0;
+        for (int id = 0; id < store.size(); id++) {
+            for (int slot = 0; slot <= QuestionDeck.FIRST_FACT_SLOT; slot++) {
+                double weight = deck.currentWeight(QuestionDeck.pack(id, slot));
+                totalWeight += weight;
+                if (id < 200) {
+                    hardWeight += weight;
+                }
+            }
+        }
+
+        int hardDeals = 0;
+        int deals = 200_000;
+        for (int i = 0; i < deals; i++) {
+            if (QuestionDeck.countryId(deck.deal()) < 200) {
+                hardDeals++;
+            }
+        }
+        assertEquals(hardWeight / totalWeight, (double) hardDeals / deals, 0.01);
+    }
+}
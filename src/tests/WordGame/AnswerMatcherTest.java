@@ -0,0 +1,58 @@
+package WordGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerMatcherTest {
+
+    private AnswerMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        CountryStore store = CountryStore.of(List.of(
+                new Country("Moldova", "Chi\u0219in\u0103u", new String[] {"Fact"}),
+                new Country("United States", "Washington, D.C.", new String[] {"Fact"}),
+                new Country("Congo, Democratic Republic of the", "Kinshasa", new String[] {"Fact"}),
+                new Country("Austria", "Vienna", new String[] {"Fact"}),
+                new Country("Australia", "Canberra", new String[] {"Fact"}),
+                new Country("Bahamas", "Nassau", new String[] {"Fact"}),
+                new Country("Saint Lucia", "Castries", new String[] {"Fact"})
+        ));
+        matcher = store.answerMatcher();
+    }
+
+    @Test
+    void testIgnoresCaseDiacriticsAndPunctuation() {
+        assertTrue(matcher.matches("chisinau", "Chi\u0219in\u0103u"), "Diacritics should be ignored.");
+        assertTrue(matcher.matches("WASHINGTON DC", "Washington, D.C."), "Case and punctuation should be ignored.");
+        assertTrue(matcher.matches("The Bahamas", "Bahamas"), "A leading 'the' should be ignored.");
+        assertTrue(matcher.matches("St. Lucia", "Saint Lucia"), "'St.' should match 'Saint'.");
+    }
+
+    @Test
+    void testAcceptsAliases() {
+        assertTrue(matcher.matches("USA", "United States"));
+        assertTrue(matcher.matches("Democratic Republic of the Congo", "Congo, Democratic Republic of the"),
+                "Inverted names should be accepted.");
+        assertFalse(matcher.matches("USA", "Moldova"), "An alias of another country should be wrong.");
+    }
+
+    @Test
+    void testAcceptsSmallTypos() {
+        assertTrue(matcher.matches("Moldava", "Moldova"), "One typo should be accepted.");
+        assertTrue(matcher.matches("Kinshsa", "Kinshasa"), "A dropped letter should be accepted.");
+        assertFalse(matcher.matches("Mldva", "Moldova"), "Too many typos should be rejected.");
+    }
+
+    @Test
+    void testRejectsTyposCloserToAnotherAnswer() {
+        // "Austria" is an exact entity, so it must never count as a typo of "Australia"
+        assertFalse(matcher.matches("Austria", "Australia"));
+        assertFalse(matcher.matches("Austrai", "Australia"), "A typo closer to Austria should be rejected.");
+        assertTrue(matcher.matches("Australa", "Australia"));
+    }
+}
@@ -0,0 +1,72 @@
+package WordGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CountryFilterTest {
+
+    private static final String[] FACTS = {"A fact."};
+    private static final CountryStore STORE = CountryStore.of(List.of(
+            new Country("Belgium", "Brussels", FACTS, Map.of("region", "Europe")),
+            new Country("Cuba", "Havana", FACTS, Map.of("region", "Americas", "island", "true")),
+            new Country("Iceland", "Reykjavik", FACTS, Map.of("region", "europe", "island", "true")),
+            new Country("Japan", "Tokyo", FACTS, Map.of("region", "Asia", "island", "true")),
+            new Country("Peru", "Lima", FACTS),
+            new Country("Vietnam", "Hanoi", FACTS, Map.of("region", "Asia"))
+    ));
+
+    private static Set<String> names(CountryFilter filter) {
+        BitSet selected = filter.select(STORE.attributeIndex());
+        Set<String> names = new HashSet<>();
+        for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+            names.add(STORE.nameAt(id));
+        }
+        return names;
+    }
+
+    @Test
+    void testSelectsByAttributeIgnoringCase() {
+        assertEquals(Set.of("Belgium", "Iceland"), names(CountryFilter.attribute("Region", "EUROPE")));
+        assertEquals(Set.of("Cuba", "Iceland", "Japan"), names(CountryFilter.hasAttribute("island")));
+        assertEquals(Set.of(), names(CountryFilter.attribute("region", "Antarctica")));
+    }
+
+    @Test
+    void testCombinesFilters() {
+        CountryFilter islands = CountryFilter.hasAttribute("island");
+        CountryFilter europe = CountryFilter.attribute("region", "Europe");
+        CountryFilter asia = CountryFilter.attribute("region", "Asia");
+
+        assertEquals(Set.of("Iceland"), names(islands.and(europe)));
+        assertEquals(Set.of("Belgium", "Iceland", "Japan", "Vietnam"), names(europe.or(asia)));
+        assertEquals(Set.of("Peru", "Belgium", "Vietnam"), names(islands.not()));
+        assertEquals(Set.of("Cuba", "Japan"), names(islands.and(europe.not())));
+        assertEquals(6, names(CountryFilter.all()).size());
+    }
+
+    @Test
+    void testSelectsByCapitalInitial() {
+        assertEquals(Set.of("Belgium"), names(CountryFilter.capitalStartsWith('b')));
+        assertEquals(Set.of("Cuba", "Vietnam"), names(CountryFilter.capitalStartsWith('H')));
+    }
+
+    @Test
+    void testDeckOnlyDealsSelectedCountries() {
+        BitSet islands = CountryFilter.hasAttribute("island").select(STORE.attributeIndex());
+        QuestionDeck deck = new QuestionDeck(STORE, 3L, islands);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(true, islands.get(QuestionDeck.countryId(deck.deal())));
+        }
+
+        QuestionDeck empty = new QuestionDeck(STORE, 3L, CountryFilter.attribute("region", "Oceania").select(STORE.attributeIndex()));
+        assertThrows(IllegalStateException.class, empty::deal);
+    }
+}
@@ -0,0 +1,168 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryStoreTest {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz ABCZ'-.,\u00e9\u00fc\u00e7\u00c5\u65e5\u672c\u8a9e";
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("country_store");
+    }
+
+    @Test
+    void testLookupsMatchAHashMapOfCountries() {
+        List<Country> countries = randomCountries(new Random(42), 2_000);
+        Map<String, Country> expected = new HashMap<>();
+        for (Country country : countries) {
+            expected.put(country.name(), country);
+        }
+
+        CountryStore store = CountryStore.of(countries);
+
+        assertSameCountries(expected, store);
+    }
+
+    @Test
+    void testSnapshotRoundTripKeepsEveryCountry() throws IOException {
+        List<Country> countries = randomCountries(new Random(7), 500);
+        Map<String, Country> expected = new HashMap<>();
+        for (Country country : countries) {
+            expected.put(country.name(), country);
+        }
+
+        Path snapshot = directory.resolve(WorldSnapshot.SNAPSHOT_FILE_NAME);
+        WorldSnapshot.write(CountryStore.of(countries), List.of(), snapshot);
+
+        assertSameCountries(expected, WorldSnapshot.read(snapshot));
+    }
+
+    @Test
+    void testCopiedCountriesMatchTheirOriginals() {
+        List<Country> countries = randomCountries(new Random(3), 300);
+        Map<String, Country> expected = new HashMap<>();
+        for (Country country : countries) {
+            expected.put(country.name(), country);
+        }
+        Country added = new Country("Zzyzx", "Nowhere", new String[] {"x".repeat(20_000)});
+        expected.put(added.name(), added);
+
+        CountryStore store = CountryStore.of(countries).with(added);
+
+        assertSameCountries(expected, store);
+    }
+
+    @Test
+    void testKeepsEmptyAndLongStrings() {
+        String longFact = "A fact long enough to need a multi-byte length. ".repeat(400);
+        CountryStore store = CountryStore.of(List.of(
+                new Country("Chad", "", new String[0]),
+                new Country("Peru", "Lima", new String[] {"", longFact}, Map.of("region", "americas"))));
+
+        assertEquals("", store.getCountry("Chad").capitalCityName());
+        assertArrayEquals(new String[0], store.getCountry("Chad").facts());
+        assertEquals(Map.of(), store.getCountry("Chad").attributes());
+        assertArrayEquals(new String[] {"", longFact}, store.getCountry("Peru").facts());
+        assertEquals(Map.of("region", "americas"), store.getCountry("Peru").attributes());
+        assertTrue(store.isWellFormed(0) && store.isWellFormed(1));
+    }
+
+    @Test
+    void testRejectsARecordThatRunsPastItsEnd() throws IOException {
+        CountryStore store = CountryStore.of(List.of(new Country("Peru", "Lima", new String[] {"Machu Picchu."})));
+        byte[] arena = store.arena().clone();
+        // The name's length follows the string count
+        arena[1] = 0x7F;
+
+        CountryStore corrupt = new CountryStore(arena, store.countryOffsets(), store.sources(), store.sourceOf());
+        assertFalse(corrupt.isWellFormed(0));
+
+        Path snapshot = directory.resolve(WorldSnapshot.SNAPSHOT_FILE_NAME);
+        WorldSnapshot.write(corrupt, List.of(), snapshot);
+        assertThrows(IOException.class, () -> WorldSnapshot.read(snapshot));
+    }
+
+    private static void assertSameCountries(Map<String, Country> expected, CountryStore store) {
+        Map<String, Country> actual = store.asMap();
+
+        assertEquals(expected.size(), store.size());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.keySet(), actual.keySet());
+
+        for (Country country : expected.values()) {
+            assertSameCountry(country, store.getCountry(country.name()));
+            assertSameCountry(country, actual.get(country.name()));
+            assertTrue(actual.containsKey(country.name()));
+        }
+
+        assertNull(store.getCountry("Atlantis"));
+        assertNull(actual.get("Atlantis"));
+        assertFalse(actual.containsKey("Atlantis"));
+    }
+
+    private static void assertSameCountry(Country expected, Country actual) {
+        assertEquals(expected.name(), actual.name());
+        assertEquals(expected.capitalCityName(), actual.capitalCityName());
+        assertArrayEquals(expected.facts(), actual.facts(), expected.name());
+        assertEquals(expected.attributes(), actual.attributes());
+    }
+
+    private static List<Country> randomCountries(Random random, int count) {
+        List<Country> countries = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            // Reuse earlier names now and then, so the last country of a name has to win
+            String name = i > 0 && random.nextInt(20) == 0
+                    ? countries.get(random.nextInt(countries.size())).name()
+                    : randomString(random, 1 + random.nextInt(24));
+            String[] facts = new String[random.nextInt(6)];
+            for (int j = 0; j < facts.length; j++) {
+                facts[j] = randomString(random, random.nextInt(10) == 0 ? 200 + random.nextInt(300) : random.nextInt(60));
+            }
+            Map<String, String> attributes = random.nextBoolean()
+                    ? Map.of()
+                    : Map.of("region", randomString(random, 1 + random.nextInt(10)));
+
+            countries.add(new Country(name, randomString(random, random.nextInt(16)), facts, attributes));
+        }
+
+        return countries;
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package WordGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FactGiveawaysTest {
+
+    private static final CountryStore STORE = CountryStore.of(List.of(
+            new Country("Chad", "N'Djamena", new String[] {
+                    "Lake Chad is shrinking rapidly.",
+                    "Chadian cuisine is based on millet.",
+                    "Borders Niger and Sudan."}),
+            new Country("Congo, Republic of the", "Brazzaville", new String[] {
+                    "Shares the Congo River with the Democratic Republic of the Congo."}),
+            new Country("C\u00f4te d'Ivoire", "Yamoussoukro", new String[] {
+                    "COTE D\u2019IVOIRE is the largest cocoa producer."}),
+            new Country("Mexico", "Mexico City", new String[] {
+                    "Mexico City is built on a lake bed.",
+                    "The capital, mexico city, sinks every year."}),
+            new Country("Oman", "Muscat", new String[] {"Romania is far from here."}),
+            new Country("United States", "Washington, D.C.", new String[] {
+                    "Washington hosts the national mall.",
+                    "Has fifty states."})
+    ));
+
+    @Test
+    void testMasksOwnCountryAndCapital() {
+        FactGiveaways giveaways = STORE.factGiveaways();
+
+        assertEquals("Lake ___ is shrinking rapidly.", giveaways.mask(0, STORE.factAt(0, 0)));
+        assertEquals("Shares the ___ River with the Democratic ___.", giveaways.mask(1, STORE.factAt(1, 0)),
+                "Short and inverted forms of the name should count as mentions.");
+        assertEquals("___ hosts the national mall.", giveaways.mask(5, STORE.factAt(5, 0)));
+    }
+
+    @Test
+    void testIgnoresCaseAndAccents() {
+        FactGiveaways giveaways = STORE.factGiveaways();
+
+        assertEquals("___ is the largest cocoa producer.", giveaways.mask(2, STORE.factAt(2, 0)));
+        assertEquals("The capital, ___, sinks every year.", giveaways.mask(3, STORE.factAt(3, 1)),
+                "Overlapping country and capital mentions should be masked once.");
+        assertEquals("___ is built on a lake bed.", giveaways.mask(3, STORE.factAt(3, 0)));
+    }
+
+    @Test
+    void testOnlyFlagsWholeWordsOfTheFactsOwnCountry() {
+        FactGiveaways giveaways = STORE.factGiveaways();
+
+        assertFalse(giveaways.givesAway(0, 1), "A longer word starting with the name is not a mention.");
+        assertFalse(giveaways.givesAway(0, 2), "Naming a different country gives nothing away.");
+        assertFalse(giveaways.givesAway(4, 0), "A name inside another word is not a mention.");
+        assertFalse(giveaways.givesAway(5, 1));
+        String fact = STORE.factAt(5, 1);
+        assertSame(fact, giveaways.mask(5, fact));
+        assertTrue(giveaways.givesAway(0, 0));
+        assertEquals(6, giveaways.count());
+    }
+}
@@ -0,0 +1,107 @@
+package WordGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FactIndexTest {
+
+    private CountryStore store;
+    private FactIndex index;
+
+    @BeforeEach
+    void setUp() {
+        store = CountryStore.of(List.of(
+                new Country("Canada", "Ottawa", new String[] {
+                        "Has the longest coastline in the world.",
+                        "The Rideau Canal is a UNESCO World Heritage Site."}),
+                new Country("Chad", "N'Djamena", new String[0]),
+                new Country("France", "Paris", new String[] {
+                        "Home to more UNESCO-listed sites than most countries.",
+                        "The world's most visited country, world-famous for its heritage."}),
+                new Country("Peru", "Lima", new String[] {"Machu Picchu is a world heritage site; a heritage site indeed."})
+        ));
+        index = store.factIndex();
+    }
+
+    @Test
+    void testFindsFactsContainingATerm() {
+        assertArrayEquals(new int[] {0, 2}, index.countriesMatching("UNESCO"));
+        assertArrayEquals(new int[] {0, 2}, index.countriesMatching("unesco"), "Terms should be case folded.");
+        assertEquals(2, index.factFrequency("Unesco"));
+        assertEquals(0, index.factFrequency("Atlantis"));
+        assertArrayEquals(new long[0], index.search("Atlantis"));
+    }
+
+    @Test
+    void testPhrasesMustBeConsecutiveAndInOrder() {
+        assertArrayEquals(new long[] {
+                QuestionDeck.pack(0, QuestionDeck.FIRST_FACT_SLOT + 1),
+                QuestionDeck.pack(3, QuestionDeck.FIRST_FACT_SLOT)
+        }, index.search("World Heritage Site"));
+        assertArrayEquals(new int[0], index.countriesMatching("site heritage"));
+        assertArrayEquals(new int[] {3}, index.countriesMatching("heritage site indeed"),
+                "A later occurrence of the first term should still start a match.");
+        assertArrayEquals(new int[] {2}, index.countriesMatching("worlds most visited"),
+                "Apostrophes should be dropped like in the facts.");
+    }
+
+    @Test
+    void testMapsFactsBackToCountriesWithoutFacts() {
+        for (long fact : index.search("the")) {
+            int id = QuestionDeck.countryId(fact);
+            assertEquals(QuestionType.FACT_TO_COUNTRY, QuestionDeck.questionType(fact));
+            assertEquals(true, store.factAt(id, QuestionDeck.factIndex(fact)).toLowerCase(Locale.ROOT).contains("the"));
+        }
+        assertEquals(5, index.factCount());
+    }
+
+    @Test
+    void testMatchesABruteForceScanOnGeneratedFacts() {
+        Random random = new Random(8);
+        String[] words = {"river", "mountain", "largest", "oldest", "city", "the", "of", "lake"};
+        List<Country> countries = new ArrayList<>();
+        for (int c = 0; c < 300; c++) {
+            String[] facts = new String[random.nextInt(4)];
+            for (int f = 0; f < facts.length; f++) {
+                StringBuilder fact = new StringBuilder();
+                for (int w = 0; w < 3 + random.nextInt(12); w++) {
+                    fact.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                facts[f] = fact.toString();
+            }
+            countries.add(new Country(String.format("Country %03d", c), "Capital", facts));
+        }
+        CountryStore generated = CountryStore.of(countries);
+        FactIndex generatedIndex = FactIndex.of(generated);
+
+        for (String phrase : new String[] {"river", "the largest", "oldest city of", "lake lake", "of the river"}) {
+            List<Long> expected = new ArrayList<>();
+            for (int id = 0; id < generated.size(); id++) {
+                for (int f = 0; f < generated.factCount(id); f++) {
+                    if ((" " + generated.factAt(id, f)).contains(" " + phrase + " ")) {
+                        expected.add(QuestionDeck.pack(id, QuestionDeck.FIRST_FACT_SLOT + f));
+                    }
+                }
+            }
+            assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), generatedIndex.search(phrase),
+                    "Mismatch for \"" + phrase + "\"");
+        }
+    }
+
+    @Test
+    void testWorldListsCountriesMentioningAPhrase() {
+        World world = new World();
+        for (Country country : store.asMap().values()) {
+            world.addCountry(country);
+        }
+        assertEquals(List.of("Canada", "Peru"), world.countriesMentioning("world heritage site"));
+        assertEquals(List.of(), world.countriesMentioning("  "));
+    }
+}
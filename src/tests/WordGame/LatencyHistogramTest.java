@@ -0,0 +1,72 @@
+package WordGame;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    @Test
+    void testBucketsCoverEveryTimeInOrder() {
+        int previous = -1;
+        for (long millis = 0; millis < (1L << 22); millis++) {
+            int bucket = LatencyHistogram.bucketOf(millis);
+            assertTrue(bucket == previous || bucket == previous + 1, "Buckets should be contiguous at " + millis);
+            assertTrue(LatencyHistogram.highestValueIn(bucket) >= millis);
+            assertTrue(LatencyHistogram.highestValueIn(bucket) - millis <= millis / 32, "Bucket too wide at " + millis);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void testPercentilesAreWithinBucketPrecision() {
+        Random random = new Random(17);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] millis = new long[10_000];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = 500 + random.nextInt(20_000);
+            histogram.record(millis[i] * NANOS_PER_MILLI + random.nextInt(1_000_000));
+        }
+        Arrays.sort(millis);
+
+        assertEquals(millis.length, histogram.count());
+        assertEquals(millis[millis.length - 1], histogram.maxMillis());
+        for (double percentile : new double[]{50, 90, 99}) {
+            long expected = millis[(int) Math.ceil(percentile / 100 * millis.length) - 1];
+            long actual = histogram.valueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected + expected / 32,
+                    percentile + "th percentile " + actual + " should be just above " + expected);
+        }
+    }
+
+    @Test
+    void testResponseTimesRoundTrip() {
+        ResponseTimes times = new ResponseTimes();
+        times.record(QuestionType.FACT_TO_COUNTRY, ResponseTimes.FIRST_ATTEMPT, 4_200 * NANOS_PER_MILLI);
+        times.record(QuestionType.FACT_TO_COUNTRY, ResponseTimes.FIRST_ATTEMPT, 9_000 * NANOS_PER_MILLI);
+        times.record(QuestionType.COUNTRY_TO_CAPITAL, ResponseTimes.SECOND_ATTEMPT, 1_000 * NANOS_PER_MILLI);
+        times.record(QuestionType.CAPITAL_TO_COUNTRY, ResponseTimes.FIRST_ATTEMPT, Long.MAX_VALUE);
+
+        ByteBuffer buffer = ByteBuffer.allocate(times.encodedSize());
+        times.writeTo(buffer);
+        assertEquals(0, buffer.remaining());
+        ResponseTimes read = ResponseTimes.readFrom(buffer.flip());
+
+        assertEquals(4, read.count());
+        LatencyHistogram facts = read.histogram(QuestionType.FACT_TO_COUNTRY, ResponseTimes.FIRST_ATTEMPT);
+        assertEquals(2, facts.count());
+        assertEquals(9_000, facts.maxMillis());
+        assertEquals(1, read.histogram(QuestionType.COUNTRY_TO_CAPITAL, ResponseTimes.SECOND_ATTEMPT).count());
+        assertEquals(0, read.histogram(QuestionType.COUNTRY_TO_CAPITAL, ResponseTimes.FIRST_ATTEMPT).count());
+
+        times.clear();
+        assertEquals(0, times.count());
+        assertEquals(4, read.count(), "A read copy should not share buckets with the original.");
+    }
+}
@@ -0,0 +1,105 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardTest {
+
+    // A Wednesday
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 13, 12, 0, 0);
+
+    private Path directory;
+    private ScoreLog log;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("leaderboard");
+        log = ScoreLog.open(directory.resolve("score.log"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        log.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testTopAndRankMatchSortedHistory() throws IOException {
+        Random random = new Random(13);
+        List<Score> scores = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Score score = new Score(START.plusMinutes(i), 1 + random.nextInt(4), random.nextInt(10), random.nextInt(5), 0);
+            scores.add(score);
+        }
+        log.appendAll(scores, false);
+
+        Leaderboard leaderboard = new Leaderboard(log);
+        List<Score> sorted = new ArrayList<>(scores);
+        sorted.sort(Comparator.comparingDouble(Score::getAverageScore).reversed());
+
+        List<Leaderboard.RankedScore> top = leaderboard.top(Leaderboard.Ranking.AVERAGE, 10);
+        assertEquals(10, top.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sorted.get(i).getAverageScore(), top.get(i).score().getAverageScore(), 1e-9);
+            assertEquals(sorted.get(i).getDateTimePlayed(), top.get(i).score().getDateTimePlayed(),
+                    "Ties should be ordered by when they were recorded.");
+        }
+
+        Score probe = new Score(START, 1, 5, 1, 0);
+        long better = scores.stream().filter(score -> score.getScore() > probe.getScore()).count();
+        assertEquals(better + 1, leaderboard.rankOf(Leaderboard.Ranking.TOTAL, probe));
+    }
+
+    @Test
+    void testRefreshIndexesOnlyNewRecords() throws IOException {
+        log.append(new Score(START, 1, 3, 0, 0));
+        Leaderboard leaderboard = new Leaderboard(log);
+
+        log.append(new Score(START.plusMinutes(1), 1, 9, 0, 0));
+        assertEquals(1, leaderboard.size());
+
+        leaderboard.refresh();
+        assertEquals(2, leaderboard.size());
+        Leaderboard.RankedScore best = leaderboard.top(Leaderboard.Ranking.TOTAL, 1).get(0);
+        assertEquals(1, best.rank());
+        assertEquals(18, best.score().getScore());
+    }
+
+    @Test
+    void testBestPerDayAndWeek() throws IOException {
+        log.append(new Score(START, 1, 4, 0, 0));
+        log.append(new Score(START.plusHours(2), 1, 7, 0, 0));
+        log.append(new Score(START.plusDays(1), 1, 2, 0, 0));
+        log.append(new Score(START.plusDays(6), 1, 5, 0, 0));
+
+        Leaderboard leaderboard = new Leaderboard(log);
+
+        Map<LocalDate, Score> days = leaderboard.bestByDay(START.toLocalDate(), START.toLocalDate().plusDays(7));
+        assertEquals(List.of(START.toLocalDate(), START.toLocalDate().plusDays(1), START.toLocalDate().plusDays(6)),
+                List.copyOf(days.keySet()));
+        assertEquals(14, days.get(START.toLocalDate()).getScore());
+
+        Map<LocalDate, Score> weeks = leaderboard.bestByWeek(START.toLocalDate(), START.toLocalDate().plusDays(7));
+        assertEquals(List.of(LocalDate.of(2024, 11, 11), LocalDate.of(2024, 11, 18)), List.copyOf(weeks.keySet()));
+        assertEquals(14, weeks.get(LocalDate.of(2024, 11, 11)).getScore());
+        assertEquals(10, weeks.get(LocalDate.of(2024, 11, 18)).getScore());
+    }
+}
@@ -0,0 +1,122 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LegacyScoreParserTest {
+
+    private Path scoreFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scoreFile = Files.createTempFile("legacy_score", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(scoreFile);
+    }
+
+    private List<Score> parse(String text) throws IOException {
+        Files.writeString(scoreFile, text);
+        List<Score> scores = new ArrayList<>();
+        LegacyScoreParser.forEach(scoreFile, scores::add);
+        return scores;
+    }
+
+    @Test
+    void testParsesCurrentFormatWithBlankLineSeparators() throws IOException {
+        Score written = new Score(LocalDateTime.of(2024, 11, 16, 16, 52, 31), 2, 7, 3, 10);
+        Score.appendScoreToFile(written, scoreFile.toString());
+        Score.appendScoreToFile(written, scoreFile.toString());
+
+        List<Score> scores = new ArrayList<>();
+        LegacyScoreParser.forEach(scoreFile, scores::add);
+
+        assertEquals(2, scores.size());
+        assertEquals(written.getDateTimePlayed(), scores.get(0).getDateTimePlayed());
+        assertEquals(17, scores.get(1).getScore());
+        assertEquals(10, scores.get(1).getNumIncorrectTwoAttempts());
+    }
+
+    @Test
+    void testParsesOlderLabelsDashSeparatorsAndCrLf() throws IOException {
+        List<Score> scores = parse("""
+                Date and Time: 2024-11-16 17:08:58\r
+                Total Games Played: 1\r
+                Correct answers on the first attempt: 6\r
+                Correct answers on the second attempt: 0\r
+                Incorrect answers: 4\r
+                Total WordGame.Score: 12\r
+                Average WordGame.Score: 12.00\r
+                -------------------------------------\r
+                Date and Time: 2024-11-16 17:10:56\r
+                Total Games Played: 2\r
+                Correct answers on the first attempt: 6\r
+                Correct answers on the second attempt: 1\r
+                Incorrect answers: 13""");
+
+        assertEquals(2, scores.size(), "The last entry should be read even without a trailing separator.");
+        assertEquals(12, scores.get(0).getScore());
+        assertEquals(LocalDateTime.of(2024, 11, 16, 17, 10, 56), scores.get(1).getDateTimePlayed());
+        assertEquals(13, scores.get(1).getScore());
+    }
+
+    @Test
+    void testSkipsMalformedEntries() throws IOException {
+        List<Score> scores = parse("""
+                Date and Time: 2024-13-45 99:00:00
+                Total Games Played: 1
+                Correct answers on the first attempt: 6
+                Correct answers on the second attempt: 0
+                Incorrect answers: 4
+
+                Date and Time: 2024-11-16 17:10:56
+                Total Games Played: two
+                Correct answers on the first attempt: 6
+                Correct answers on the second attempt: 0
+                Incorrect answers: 4
+
+                Date and Time: 2024-11-16 17:10:56
+                Total Games Played: 1
+                Incorrect answers: 4
+
+                Date and Time: 2024-11-17 09:00:00
+                Total Games Played: 1
+                Correct answers on the first attempt: 3
+                Correct answers on the second attempt: 0
+                Incorrect answers: 7
+
+                """);
+
+        assertEquals(1, scores.size());
+        assertEquals(6, scores.get(0).getScore());
+    }
+
+    @Test
+    void testParseDateTimeRejectsWrongShape() {
+        byte[] value = "2024/11/16 17:10:56".getBytes(StandardCharsets.UTF_8);
+        assertThrows(java.time.format.DateTimeParseException.class,
+                () -> LegacyScoreParser.parseDateTime(value, 0, value.length));
+    }
+
+    @Test
+    void testMissingFileHasNoEntries() throws IOException {
+        Files.delete(scoreFile);
+        List<Score> scores = new ArrayList<>();
+        LegacyScoreParser.forEach(scoreFile, scores::add);
+        assertTrue(scores.isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package WordGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionDeckTest {
+
+    private CountryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = CountryStore.of(List.of(
+                new Country("Canada", "Ottawa", new String[] {"Fact 1", "Fact 2"}),
+                new Country("France", "Paris", new String[] {"Fact 3"}),
+                new Country("Japan", "Tokyo", new String[] {"Fact 4", "Fact 5", "Fact 6"})
+        ));
+    }
+
+    @Test
+    void testDealsEveryQuestionOfATypeOncePerPass() {
+        QuestionDeck deck = new QuestionDeck(store, 42L);
+        Map<QuestionType, Integer> questionCounts = Map.of(
+                QuestionType.CAPITAL_TO_COUNTRY, 3, QuestionType.COUNTRY_TO_CAPITAL, 3, QuestionType.FACT_TO_COUNTRY, 6);
+        Map<QuestionType, List<Long>> dealt = new EnumMap<>(QuestionType.class);
+
+        for (int i = 0; i < 300; i++) {
+            long question = deck.deal();
+            dealt.computeIfAbsent(QuestionDeck.questionType(question), type -> new ArrayList<>()).add(question);
+        }
+
+        for (Map.Entry<QuestionType, List<Long>> entry : dealt.entrySet()) {
+            int questionCount = questionCounts.get(entry.getKey());
+            List<Long> questions = entry.getValue();
+            for (int pass = 0; pass + questionCount <= questions.size(); pass += questionCount) {
+                assertEquals(questionCount, new HashSet<>(questions.subList(pass, pass + questionCount)).size(),
+                        "A " + entry.getKey() + " question was repeated before its bag was empty.");
+            }
+        }
+    }
+
+    @Test
+    void testQuestionsDecodeToValidTriples() {
+        QuestionDeck deck = new QuestionDeck(store, 7L);
+
+        for (int i = 0; i < 100; i++) {
+            long question = deck.deal();
+            int countryId = QuestionDeck.countryId(question);
+            assertTrue(countryId >= 0 && countryId < store.size());
+
+            if (QuestionDeck.questionType(question) == QuestionType.FACT_TO_COUNTRY) {
+                int factIndex = QuestionDeck.factIndex(question);
+                assertTrue(factIndex >= 0 && factIndex < store.factCount(countryId));
+            }
+        }
+    }
+
+    @Test
+    void testDealsEachQuestionTypeAThirdOfTheTime() {
+        QuestionDeck deck = new QuestionDeck(store, 11L);
+        Map<QuestionType, Integer> counts = new EnumMap<>(QuestionType.class);
+        int deals = 30_000;
+
+        for (int i = 0; i < deals; i++) {
+            counts.merge(QuestionDeck.questionType(deck.deal()), 1, Integer::sum);
+        }
+
+        for (QuestionType type : QuestionType.values()) {
+            assertEquals(1.0 / 3, counts.get(type) / (double) deals, 0.02,
+                    "Countries with many facts should not make fact questions more likely.");
+        }
+    }
+
+    @Test
+    void testSkipsQuestionTypesWithNoQuestions() {
+        CountryStore noFacts = CountryStore.of(List.of(
+                new Country("Chad", "N'Djamena", new String[0]),
+                new Country("Peru", "Lima", new String[0])));
+        QuestionDeck deck = new QuestionDeck(noFacts, 5L);
+
+        for (int i = 0; i < 50; i++) {
+            assertNotEquals(QuestionType.FACT_TO_COUNTRY, QuestionDeck.questionType(deck.deal()));
+        }
+    }
+
+    @Test
+    void testSameSeedDealsSameOrder() {
+        QuestionDeck first = new QuestionDeck(store, 2024L);
+        QuestionDeck second = new QuestionDeck(store, 2024L);
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(first.deal(), second.deal());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreLogTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 16, 12, 0, 0);
+
+    private Path directory;
+    private Path logFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("score_log");
+        logFile = directory.resolve("score.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testAppendAndReadBack() throws IOException {
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            log.append(new Score(START, 2, 12, 3, 5));
+            log.append(new Score(START.plusMinutes(1), 1, 6, 2, 2));
+        }
+
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            assertEquals(2, log.size());
+            Score first = log.get(0);
+            assertEquals(START, first.getDateTimePlayed());
+            assertEquals(2, first.getNumGamesPlayed());
+            assertEquals(27, first.getScore());
+            assertEquals(14, log.get(1).getScore());
+        }
+    }
+
+    @Test
+    void testTailAndRangeReadOnlyMatchingScores() throws IOException {
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            for (int i = 0; i < 1000; i++) {
+                log.append(new Score(START.plusHours(i), 1, i % 10, 0, 0));
+            }
+
+            List<Score> tail = log.tail(3);
+            assertEquals(3, tail.size());
+            assertEquals(START.plusHours(997), tail.get(0).getDateTimePlayed());
+
+            List<Score> range = log.between(START.plusHours(300), START.plusHours(600));
+            assertEquals(300, range.size());
+            assertEquals(START.plusHours(300), range.get(0).getDateTimePlayed());
+            assertEquals(START.plusHours(599), range.get(299).getDateTimePlayed());
+
+            log.append(new Score(START.plusHours(1000), 1, 1, 0, 0));
+            assertEquals(1, log.between(START.plusHours(1000), START.plusHours(2000)).size(),
+                    "Scores appended after the index was built should be found.");
+        }
+    }
+
+    @Test
+    void testTornRecordIsDropped() throws IOException {
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            log.append(new Score(START, 1, 5, 0, 0));
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.APPEND)) {
+            channel.write(java.nio.ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        }
+
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            assertEquals(1, log.size());
+            log.append(new Score(START.plusDays(1), 1, 6, 0, 0));
+            assertEquals(12, log.get(1).getScore());
+        }
+    }
+
+    @Test
+    void testMigratesLegacyTextFileOnce() throws IOException {
+        Path legacyFile = directory.resolve("score.txt");
+        Files.writeString(legacyFile, """
+                Date and Time: 2024-11-16 16:52:31
+                Total Games Played: 1
+                Correct answers on the first attempt: 1
+                Correct answers on the second attempt: 2
+                Incorrect answers: 7
+                Total WordGame.Score: 4
+                Average WordGame.Score: 4.00
+
+                """);
+
+        try (ScoreLog log = ScoreLog.openMigrating(legacyFile)) {
+            assertEquals(1, log.size());
+            assertEquals(4, log.get(0).getScore());
+            log.append(new Score(START, 1, 5, 0, 0));
+        }
+
+        try (ScoreLog log = ScoreLog.openMigrating(legacyFile)) {
+            assertEquals(2, log.size(), "The legacy file should not be migrated a second time.");
+        }
+    }
+
+    @Test
+    void testSummaryTracksBestAverageAndTotals() throws IOException {
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            assertEquals(ScoreSummary.EMPTY, log.summary());
+            log.append(new Score(START, 1, 6, 2, 2));
+            log.append(new Score(START.plusDays(1), 2, 20, 0, 0));
+            log.append(new Score(START.plusDays(2), 1, 10, 0, 0));
+        }
+
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            ScoreSummary summary = log.summary();
+            assertEquals(3, summary.count());
+            assertEquals(4, summary.totalGamesPlayed());
+            assertEquals(74, summary.totalPoints());
+            assertEquals(20.0, summary.bestAverage(), 1e-9);
+            assertEquals(START.plusDays(1), summary.bestDateTimePlayed(), "A tie should keep the earlier record.");
+            assertEquals((14.0 + 20.0 + 20.0) / 3, summary.meanAverage(), 1e-9);
+            assertEquals(18.5, summary.meanPointsPerGame(), 1e-9);
+        }
+    }
+
+    @Test
+    void testSummaryIsRebuiltWhenMissingOrStale() throws IOException {
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            log.append(new Score(START, 1, 5, 0, 0));
+            log.append(new Score(START.plusDays(1), 1, 9, 0, 0));
+        }
+        Path summaryFile = ScoreSummary.defaultLocation(logFile);
+        ScoreSummary expected = ScoreSummary.read(summaryFile);
+
+        Files.delete(summaryFile);
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            assertEquals(expected, log.summary());
+        }
+        assertTrue(Files.exists(summaryFile), "The rebuilt summary should be written back.");
+
+        ScoreSummary.EMPTY.plus(new Score(START, 1, 1, 0, 0)).write(summaryFile);
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            assertEquals(expected, log.summary(), "A summary covering fewer records should be rebuilt.");
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Files.writeString(logFile, "Date and Time: 2024-11-16 16:52:31\n");
+        assertThrows(IOException.class, () -> ScoreLog.open(logFile));
+    }
+
+    @Test
+    void testResponseTimesAreSavedBesideTheirScores() throws IOException {
+        ResponseTimes times = new ResponseTimes();
+        times.record(QuestionType.FACT_TO_COUNTRY, ResponseTimes.FIRST_ATTEMPT, 3_000_000_000L);
+        times.record(QuestionType.FACT_TO_COUNTRY, ResponseTimes.SECOND_ATTEMPT, 7_000_000_000L);
+
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            log.append(new Score(START, 1, 4, 0, 0));
+            assertTrue(Files.notExists(ResponseTimesFile.defaultLocation(logFile)),
+                    "Scores without response times should not create the file.");
+            assertTrue(log.responseTimes(0).isEmpty());
+
+            log.appendAll(List.of(new Score(START.plusMinutes(1), 1, 5, 1, 0, times),
+                    new Score(START.plusMinutes(2), 1, 6, 0, 0)), false);
+        }
+
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            ResponseTimes read = log.responseTimes(1).orElseThrow();
+            assertEquals(2, read.count());
+            assertEquals(7_000, read.histogram(QuestionType.FACT_TO_COUNTRY, ResponseTimes.SECOND_ATTEMPT).maxMillis());
+            assertTrue(log.responseTimes(0).isEmpty());
+            assertTrue(log.responseTimes(2).isEmpty());
+        }
+    }
+}
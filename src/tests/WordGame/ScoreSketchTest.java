@@ -0,0 +1,131 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreSketchTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 16, 12, 0, 0);
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("score_sketch");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testFractionBelowMatchesSortedValues() {
+        Random random = new Random(14);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 4 + 12;
+        }
+        ScoreSketch sketch = ScoreSketch.of(values);
+        Arrays.sort(values);
+
+        for (double quantile : new double[]{0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999}) {
+            double value = values[(int) (quantile * values.length)];
+            assertEquals(quantile, sketch.fractionBelow(value), 0.005, "Rank of the " + quantile + " quantile");
+            assertEquals(value, sketch.quantile(quantile), 0.1, "Value at the " + quantile + " quantile");
+        }
+        assertEquals(0.0, sketch.fractionBelow(values[0] - 1));
+        assertEquals(1.0, sketch.fractionBelow(values[values.length - 1] + 1));
+    }
+
+    @Test
+    void testEqualValuesShareTheMiddleRank() {
+        ScoreSketch sketch = ScoreSketch.of(10, 14, 14, 14, 20);
+
+        assertEquals(0.5, sketch.fractionBelow(14), 1e-9);
+        assertEquals(0.1, sketch.fractionBelow(10), 1e-9);
+    }
+
+    @Test
+    void testMergedSketchesMatchOneSketchOfEveryValue() {
+        Random random = new Random(7);
+        ScoreSketch all = new ScoreSketch();
+        ScoreSketch first = new ScoreSketch();
+        ScoreSketch second = new ScoreSketch();
+        for (int i = 0; i < 20_000; i++) {
+            double low = random.nextDouble() * 10;
+            double high = 10 + random.nextDouble() * 10;
+            first.add(low);
+            second.add(high);
+            all.add(low);
+            all.add(high);
+        }
+
+        first.merge(second);
+
+        assertEquals(40_000, first.count());
+        assertEquals(20_000, second.count(), "The merged-in sketch should be left as it is.");
+        for (double value = 1; value < 20; value += 1) {
+            assertEquals(all.fractionBelow(value), first.fractionBelow(value), 0.005);
+        }
+    }
+
+    @Test
+    void testLogKeepsSketchSidecarUpToDate() throws IOException {
+        Path logFile = directory.resolve("score.log");
+        Path sketchFile = ScoreSketch.defaultLocation(logFile);
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            log.appendAll(List.of(new Score(START, 1, 5, 0, 0), new Score(START, 1, 8, 0, 0)), false);
+            log.append(new Score(START, 1, 10, 0, 0));
+
+            assertEquals(3, log.sketch().count());
+            assertEquals(0.5, log.sketch().fractionBelow(16), 1e-9);
+        }
+        assertEquals(3, ScoreSketch.read(sketchFile).count());
+
+        ScoreSketch.of(1.0).write(sketchFile);
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            assertEquals(3, log.sketch().count(), "A sketch covering fewer records should be rebuilt.");
+        }
+
+        Files.delete(sketchFile);
+        Path otherLog = directory.resolve("kiosk.log");
+        try (ScoreLog log = ScoreLog.open(otherLog)) {
+            log.append(new Score(START, 1, 4, 0, 0));
+        }
+        ScoreSketch merged = ScoreLog.mergedSketch(List.of(logFile, otherLog));
+        assertEquals(4, merged.count());
+        assertTrue(Files.notExists(sketchFile), "Merging should not write another log's sidecar.");
+        assertEquals(0.125, merged.fractionBelow(8), 1e-9);
+    }
+
+    @Test
+    void testMergingAMissingLogFailsWithoutCreatingIt() throws IOException {
+        Path logFile = directory.resolve("score.log");
+        try (ScoreLog log = ScoreLog.open(logFile)) {
+            log.append(new Score(START, 1, 5, 0, 0));
+        }
+        Path missing = directory.resolve("mistyped.log");
+
+        assertThrows(NoSuchFileException.class, () -> ScoreLog.mergedSketch(List.of(logFile, missing)));
+        assertTrue(Files.notExists(missing), "A mistyped path should not become an empty log.");
+    }
+}
@@ -0,0 +1,105 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScoreWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 16, 12, 0, 0);
+
+    private Path directory;
+    private Path legacyFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("score_writer");
+        legacyFile = directory.resolve("score.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testConcurrentSubmitsAreAllCommitted() throws Exception {
+        int threads = 8;
+        int scoresPerThread = 250;
+        List<Thread> workers = new ArrayList<>();
+        List<CompletableFuture<ScoreSummary>> commits = new ArrayList<>();
+
+        try (ScoreWriter writer = new ScoreWriter(legacyFile, true)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                Thread worker = new Thread(() -> {
+                    for (int i = 0; i < scoresPerThread; i++) {
+                        CompletableFuture<ScoreSummary> commit =
+                                writer.submit(new Score(START.plusSeconds(i), 1, thread, 0, 0));
+                        synchronized (commits) {
+                            commits.add(commit);
+                        }
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            for (CompletableFuture<ScoreSummary> commit : commits) {
+                commit.get();
+            }
+
+            assertEquals(threads * scoresPerThread, writer.summary().count());
+        }
+
+        try (ScoreLog log = ScoreLog.open(ScoreLog.defaultLocation(legacyFile))) {
+            assertEquals(threads * scoresPerThread, log.size());
+            long points = log.readAll().stream().mapToLong(Score::getScore).sum();
+            assertEquals(2L * scoresPerThread * (threads * (threads - 1) / 2), points, "No record should be torn.");
+        }
+    }
+
+    @Test
+    void testLogsSharingAFileSeeEachOthersAppends() throws IOException {
+        Path logFile = ScoreLog.defaultLocation(legacyFile);
+
+        try (ScoreLog first = ScoreLog.open(logFile); ScoreLog second = ScoreLog.open(logFile)) {
+            first.append(new Score(START, 1, 5, 0, 0));
+            second.append(new Score(START.plusMinutes(1), 1, 9, 0, 0));
+            first.append(new Score(START.plusMinutes(2), 1, 2, 0, 0));
+
+            assertEquals(3, second.size());
+            assertEquals(18, first.get(1).getScore());
+            assertEquals(3, first.summary().count());
+            assertEquals(18.0, second.summary().bestAverage(), 1e-9);
+        }
+    }
+
+    @Test
+    void testSubmitAfterCloseFails() throws IOException {
+        ScoreWriter writer = new ScoreWriter(legacyFile, false);
+        writer.submit(new Score(START, 1, 5, 0, 0)).join();
+        writer.close();
+
+        CompletableFuture<ScoreSummary> rejected = writer.submit(new Score(START, 1, 5, 0, 0));
+        assertThrows(ExecutionException.class, rejected::get);
+    }
+}
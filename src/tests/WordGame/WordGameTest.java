@@ -0,0 +1,146 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordGameTest {
+
+    private Path scoreFile;
+    private World world;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scoreFile = Files.createTempFile("score", ".txt");
+        world = new World();
+        world.addCountry(new Country("Canada", "Ottawa", new String[] {"Has the longest coastline."}));
+        world.addCountry(new Country("Japan", "Tokyo", new String[] {"Made up of islands."}));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(scoreFile);
+        Files.deleteIfExists(ScoreLog.defaultLocation(scoreFile));
+        Files.deleteIfExists(ScoreSummary.defaultLocation(ScoreLog.defaultLocation(scoreFile)));
+        Files.deleteIfExists(ScoreSketch.defaultLocation(ScoreLog.defaultLocation(scoreFile)));
+        Files.deleteIfExists(ResponseTimesFile.defaultLocation(ScoreLog.defaultLocation(scoreFile)));
+    }
+
+    @Test
+    void testScriptedSessionPlaysEveryGameAndRecordsScore() throws IOException {
+        List<String> script = WordGameDriver.sessionScript(2);
+        StringBuilder transcript = new StringBuilder();
+        ScriptedGameIO io = new ScriptedGameIO(script, transcript::append);
+
+        try (ScoreWriter scoreWriter = new ScoreWriter(scoreFile, false)) {
+            new WordGame(world, io, 1L, scoreWriter).playGame();
+        }
+
+        assertEquals(script.size(), io.linesRead(), "Every scripted line should be read.");
+        assertTrue(transcript.toString().contains("2 word game(s) played"));
+        assertTrue(transcript.toString().contains("Response times:"));
+        try (ScoreLog log = ScoreLog.open(ScoreLog.defaultLocation(scoreFile))) {
+            assertEquals(1, log.size());
+            assertEquals(2, log.get(0).getNumGamesPlayed());
+            assertEquals(2L * WordGame.QUESTION_COUNT * 2, log.responseTimes(0).orElseThrow().count(),
+                    "Every wrong answer and its retry should be timed.");
+        }
+    }
+
+    @Test
+    void testConcurrentSessionsKeepTheirOwnStatistics() throws Exception {
+        int sessions = 8;
+        List<StringBuilder> transcripts = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        try (ScoreWriter scoreWriter = new ScoreWriter(scoreFile, false)) {
+            for (int i = 0; i < sessions; i++) {
+                StringBuilder transcript = new StringBuilder();
+                ScriptedGameIO io = new ScriptedGameIO(WordGameDriver.sessionScript(1 + i % 3), transcript::append);
+                long seed = i;
+                transcripts.add(transcript);
+                threads.add(new Thread(() -> new WordGame(world, io, seed, scoreWriter).playGame()));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        for (int i = 0; i < sessions; i++) {
+            assertTrue(transcripts.get(i).toString().contains((1 + i % 3) + " word game(s) played"),
+                    "Session " + i + " should only count its own games.");
+        }
+        try (ScoreLog log = ScoreLog.open(ScoreLog.defaultLocation(scoreFile))) {
+            assertEquals(sessions, log.size());
+        }
+    }
+
+    @Test
+    void testInvalidPlayAgainResponseIsAskedAgain() throws IOException {
+        List<String> script = new ArrayList<>(Collections.nCopies(WordGame.QUESTION_COUNT * 2, "Atlantis"));
+        script.add("maybe");
+        script.add("no");
+        StringBuilder transcript = new StringBuilder();
+
+        try (ScoreWriter scoreWriter = new ScoreWriter(scoreFile, false)) {
+            new WordGame(world, new ScriptedGameIO(script, transcript::append), 1L, scoreWriter).playGame();
+        }
+
+        assertTrue(transcript.toString().contains("Invalid response."));
+        assertTrue(transcript.toString().contains("1 word game(s) played"));
+    }
+
+    @Test
+    void testFilterThatSelectsNoCountryFallsBackToEveryCountry() throws IOException {
+        List<String> script = WordGameDriver.sessionScript(1);
+        StringBuilder transcript = new StringBuilder();
+        ScriptedGameIO io = new ScriptedGameIO(script, transcript::append);
+
+        try (ScoreWriter scoreWriter = new ScoreWriter(scoreFile, false)) {
+            new WordGame(world, io, 1L, scoreWriter, QuestionSelection.SHUFFLED, new AnswerHistory(),
+                    CountryFilter.attribute("region", "Atlantis")).playGame();
+        }
+
+        assertTrue(transcript.toString().contains("No countries match this quiz's filter"));
+        assertTrue(transcript.toString().contains("1 word game(s) played"));
+    }
+
+    @Test
+    void testLazyFactsEditedMidSessionAreSkipped() throws IOException {
+        Path factsDirectory = Files.createTempDirectory("lazy_facts");
+        try {
+            Path file = factsDirectory.resolve("a.txt");
+            Files.writeString(file, "Canada:Ottawa\nHas the longest coastline.\nHas ten provinces.\n\n"
+                    + "Japan:Tokyo\nMade up of islands.\n");
+            World lazy = new World();
+            lazy.indexCountriesFromDirectory(factsDirectory);
+            Files.writeString(file, "Canada:Ottawa\nEdited after indexing.\n");
+
+            List<String> script = WordGameDriver.sessionScript(2);
+            StringBuilder transcript = new StringBuilder();
+            try (ScoreWriter scoreWriter = new ScoreWriter(scoreFile, false)) {
+                new WordGame(lazy, new ScriptedGameIO(script, transcript::append), 1L, scoreWriter).playGame();
+            }
+
+            assertTrue(transcript.toString().contains("2 word game(s) played"));
+            assertFalse(transcript.toString().contains("described by this fact"),
+                    "Facts from the edited file should not be asked.");
+        } finally {
+            Files.deleteIfExists(factsDirectory.resolve("a.txt"));
+            Files.deleteIfExists(factsDirectory);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorldRegistryTest {
+
+    private Path factsRoot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        factsRoot = Files.createTempDirectory("country_facts");
+
+        Files.writeString(factsRoot.resolve("a.txt"), "Albania:Tirana\nOver 170,000 bunkers were built.\n");
+        Files.createDirectory(factsRoot.resolve("fr"));
+        Files.writeString(factsRoot.resolve("fr").resolve("a.txt"), "Albanie:Tirana\nPlus de 170 000 bunkers.\n");
+        Files.createDirectory(factsRoot.resolve("de"));
+        Files.writeString(factsRoot.resolve("de").resolve("a.txt"), "Albanien:Tirana\nMehr als 170.000 Bunker.\n");
+    }
+
+    @Test
+    void testLoadsEachLocaleFromItsOwnDirectory() {
+        WorldRegistry registry = new WorldRegistry(factsRoot);
+
+        assertEquals("Tirana", registry.get(Locale.ENGLISH).getCountry("Albania").capitalCityName());
+        assertEquals("Tirana", registry.get(Locale.FRENCH).getCountry("Albanie").capitalCityName());
+        assertEquals(factsRoot.resolve("fr"), registry.directoryFor(Locale.CANADA_FRENCH),
+                "A region without its own directory should fall back to its language.");
+        assertEquals(factsRoot, registry.directoryFor(Locale.JAPANESE),
+                "A language without a directory should fall back to the default.");
+    }
+
+    @Test
+    void testLocalesSharingADirectoryShareOneWorld() {
+        WorldRegistry registry = new WorldRegistry(factsRoot);
+
+        assertSame(registry.get(Locale.FRENCH), registry.get(Locale.CANADA_FRENCH));
+        assertSame(registry.get(Locale.UK), registry.get(Locale.JAPANESE));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void testConcurrentSessionsLoadALocaleOnce() throws Exception {
+        WorldRegistry registry = new WorldRegistry(factsRoot);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<World>> worlds = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 64; i++) {
+                worlds.add(executor.submit(() -> registry.get(Locale.FRENCH)));
+            }
+            World first = worlds.get(0).get();
+            for (Future<World> world : worlds) {
+                assertSame(first, world.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testEvictsTheLeastRecentlyUsedLocale() {
+        WorldRegistry registry = new WorldRegistry(factsRoot, 2);
+
+        World english = registry.get(Locale.ENGLISH);
+        World french = registry.get(Locale.FRENCH);
+        registry.get(Locale.ENGLISH);
+        registry.get(Locale.GERMAN);
+
+        assertEquals(2, registry.size());
+        assertSame(english, registry.get(Locale.ENGLISH), "The recently used locale should stay loaded.");
+        assertEquals("Tirana", french.getCountry("Albanie").capitalCityName(),
+                "A session holding an evicted world should keep playing it.");
+        assertSame(french, registry.get(Locale.FRENCH),
+                "A world a session still holds should be shared again rather than loaded twice.");
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void testRejectsEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new WorldRegistry(factsRoot, 0));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(factsRoot)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package WordGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldTest {
+
+    private Path factsDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        factsDirectory = Files.createTempDirectory("country_facts");
+
+        Files.writeString(factsDirectory.resolve("a.txt"), """
+                Albania:Tirana
+                Over 170,000 bunkers were built during the communist era.
+                Skanderbeg resisted Ottoman rule for 25 years.
+
+                Angola:Luanda
+                One of Africa's largest oil producers.
+                """);
+        Files.writeString(factsDirectory.resolve("b.txt"), "Bhutan:Thimphu\r\nMeasures Gross National Happiness.\r\n");
+    }
+
+    @Test
+    void testLoadsCountriesFromEveryFile() {
+        World world = new World();
+        world.loadCountriesFromDirectory(factsDirectory);
+
+        assertEquals(3, world.getCountriesMap().size(), "Three countries should be loaded from two files.");
+        assertEquals("Tirana", world.getCountry("Albania").capitalCityName());
+        assertArrayEquals(new String[] {"Measures Gross National Happiness."}, world.getCountry("Bhutan").facts(),
+                "Windows line endings should be stripped from facts.");
+    }
+
+    @Test
+    void testSkipsMalformedEntries() throws IOException {
+        // A header without a capital and a country without facts should both be ignored
+        Files.writeString(factsDirectory.resolve("c.txt"), """
+                Chad
+                Named after Lake Chad.
+
+                Chile:Santiago
+                """);
+
+        World world = new World();
+        world.loadCountriesFromDirectory(factsDirectory);
+
+        assertNull(world.getCountry("Chile"), "A country with no facts should not be loaded.");
+        assertEquals(3, world.getCountriesMap().size(), "Only the well-formed countries should be loaded.");
+    }
+
+    @Test
+    void testLoadReportCoversEveryFile() {
+        World world = new World();
+        world.loadCountriesFromDirectory(factsDirectory);
+
+        WorldLoadReport report = world.getLastLoadReport();
+        assertNotNull(report, "A load report should be recorded.");
+        assertEquals(2, report.fileParseNanos().size(), "Every file should have a parse time.");
+        assertEquals(List.of("a.txt", "b.txt"), report.fileParseNanos().keySet().stream()
+                .map(file -> file.getFileName().toString()).toList(), "Files should be reported in name order.");
+    }
+
+    @Test
+    void testSecondLoadUsesSnapshot() {
+        World first = new World();
+        first.loadCountriesFromDirectory(factsDirectory);
+
+        World second = new World();
+        second.loadCountriesFromDirectory(factsDirectory);
+
+        Path snapshot = WorldSnapshot.defaultLocation(factsDirectory);
+        assertEquals(Set.of(snapshot), second.getLastLoadReport().fileParseNanos().keySet(),
+                "The second load should map the snapshot instead of parsing the text files.");
+        assertEquals(first.getCountriesMap().keySet(), second.getCountriesMap().keySet());
+        assertArrayEquals(first.getCountry("Albania").facts(), second.getCountry("Albania").facts());
+    }
+
+    @Test
+    void testEditedFileInvalidatesSnapshot() throws IOException {
+        new World().loadCountriesFromDirectory(factsDirectory);
+
+        Path edited = factsDirectory.resolve("b.txt");
+        Files.writeString(edited, "Belize:Belmopan\nHas the second-largest barrier reef.\n");
+
+        World world = new World();
+        world.loadCountriesFromDirectory(factsDirectory);
+
+        assertNull(world.getCountry("Bhutan"), "Stale snapshot contents should not be used.");
+        assertNotNull(world.getCountry("Belize"), "The edited file should be re-parsed.");
+    }
+
+    @Test
+    void testSameSizeEditWithTheSameTimestampInvalidatesSnapshot() throws IOException {
+        Path edited = factsDirectory.resolve("b.txt");
+        FileTime modified = Files.getLastModifiedTime(edited);
+        new World().loadCountriesFromDirectory(factsDirectory);
+
+        // Same length and timestamp, as an edit within the filesystem's timestamp resolution would leave it
+        Files.writeString(edited, "Bhutan:Thimphu\r\nMeasures Gross National Happyness.\r\n");
+        Files.setLastModifiedTime(edited, modified);
+
+        assertFalse(WorldSnapshot.isFresh(WorldSnapshot.defaultLocation(factsDirectory), factsDirectory),
+                "A changed file should be noticed even when its size and timestamp did not change.");
+    }
+
+    @Test
+    void testRenamedFileInvalidatesSnapshot() throws IOException {
+        new World().loadCountriesFromDirectory(factsDirectory);
+
+        Files.move(factsDirectory.resolve("b.txt"), factsDirectory.resolve("c.txt"));
+
+        assertFalse(WorldSnapshot.isFresh(WorldSnapshot.defaultLocation(factsDirectory), factsDirectory),
+                "Renaming a file keeps the file count but should still invalidate the snapshot.");
+    }
+
+    @Test
+    void testEditDuringParseLeavesSnapshotStale() throws IOException {
+        World world = new World();
+        world.parseCountriesFromDirectory(factsDirectory);
+
+        Files.writeString(factsDirectory.resolve("b.txt"), "Belize:Belmopan\nHas the second-largest barrier reef.\n");
+        Path snapshot = WorldSnapshot.defaultLocation(factsDirectory);
+        world.writeSnapshot(snapshot);
+
+        assertFalse(WorldSnapshot.isFresh(snapshot, factsDirectory),
+                "A snapshot should describe the files as they were parsed, not as they are when it is written.");
+    }
+
+    @Test
+    void testCorruptSnapshotFallsBackToParsing() throws IOException {
+        new World().loadCountriesFromDirectory(factsDirectory);
+        Path snapshot = WorldSnapshot.defaultLocation(factsDirectory);
+        byte[] good = Files.readAllBytes(snapshot);
+
+        byte[] truncated = Arrays.copyOf(good, good.length / 2);
+        byte[] hugeCount = good.clone();
+        hugeCount[12] = 0x7F;
+        byte[] negativeCount = good.clone();
+        negativeCount[16] = (byte) 0xFF;
+
+        for (byte[] corrupt : List.of(truncated, hugeCount, negativeCount)) {
+            Files.write(snapshot, corrupt);
+            Files.setLastModifiedTime(snapshot, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+            World world = new World();
+            world.loadCountriesFromDirectory(factsDirectory);
+
+            assertEquals(3, world.getCountriesMap().size(), "A corrupt snapshot should fall back to the text files.");
+            assertNotNull(world.getCountry("Bhutan"));
+        }
+    }
+
+    @Test
+    void testWatcherKeepsWatchingAfterAFailedReload() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        World world = new World() {
+            @Override
+            synchronized void reloadFiles(Path dirPath, Collection<Path> changedFiles) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("simulated half-written file");
+                }
+                super.reloadFiles(dirPath, changedFiles);
+            }
+        };
+        world.loadCountriesFromDirectory(factsDirectory);
+
+        try (Closeable ignored = world.watchForChanges(factsDirectory)) {
+            Files.writeString(factsDirectory.resolve("b.txt"), "Belize:Belmopan\nHas a barrier reef.\n");
+            waitFor(() -> attempts.get() >= 1);
+            assertNotNull(world.getCountry("Bhutan"), "A failed reload should keep the old catalog.");
+
+            Thread.sleep(300);
+            Files.writeString(factsDirectory.resolve("b.txt"), "Belize:Belmopan\nHas a barrier reef.\n\n");
+            waitFor(() -> world.getCountry("Belize") != null);
+        }
+        assertNull(world.getCountry("Bhutan"));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the watcher.");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void testReloadReplacesOnlyChangedFile() throws IOException {
+        World world = new World();
+        world.loadCountriesFromDirectory(factsDirectory);
+        CountryCatalog before = world.getCatalog();
+
+        Path edited = factsDirectory.resolve("a.txt");
+        Files.writeString(edited, "Andorra:Andorra la Vella\nHas no airport.\n");
+        world.reloadFiles(factsDirectory, List.of(edited));
+
+        assertNull(world.getCountry("Albania"), "Countries removed from the file should be dropped.");
+        assertEquals("Andorra la Vella", world.getCountry("Andorra").capitalCityName());
+        assertNotNull(world.getCountry("Bhutan"), "Countries from other files should be kept.");
+        assertNotNull(before.getCountry("Albania"), "A store taken before the reload should not change.");
+    }
+
+    @Test
+    void testLazyIndexMatchesEagerLoad() {
+        World eager = new World();
+        eager.parseCountriesFromDirectory(factsDirectory);
+
+        World lazy = new World();
+        lazy.indexCountriesFromDirectory(factsDirectory);
+
+        assertEquals(eager.getCountriesMap().keySet(), lazy.getCountriesMap().keySet());
+        for (String name : eager.getCountriesMap().keySet()) {
+            assertEquals(eager.getCountry(name).capitalCityName(), lazy.getCountry(name).capitalCityName());
+            assertArrayEquals(eager.getCountry(name).facts(), lazy.getCountry(name).facts(),
+                    "Facts read on demand should match the eagerly parsed facts for " + name);
+        }
+    }
+
+    @Test
+    void testLoadFactsIndexesLazilyWhenAsked() {
+        World eager = new World();
+        eager.loadFacts(factsDirectory);
+        assertTrue(eager.getCatalog() instanceof CountryStore);
+
+        System.setProperty(World.LAZY_FACTS_PROPERTY, "true");
+        try {
+            World lazy = new World();
+            lazy.loadFacts(factsDirectory);
+            assertTrue(lazy.getCatalog() instanceof LazyCountryIndex);
+            assertEquals(eager.getCountriesMap().keySet(), lazy.getCountriesMap().keySet());
+        } finally {
+            System.clearProperty(World.LAZY_FACTS_PROPERTY);
+        }
+    }
+
+    @Test
+    void testLazyIndexRefusesToReadAFileEditedSinceIndexing() throws IOException {
+        World lazy = new World();
+        lazy.indexCountriesFromDirectory(factsDirectory);
+
+        Path edited = factsDirectory.resolve("a.txt");
+        Files.writeString(edited, "Andorra:Andorra la Vella\nHas no airport.\n");
+
+        assertThrows(UncheckedIOException.class, () -> lazy.getCountry("Albania"),
+                "Facts should not be read at offsets recorded for the old file.");
+
+        lazy.reloadFiles(factsDirectory, List.of(edited));
+        assertArrayEquals(new String[] {"Has no airport."}, lazy.getCountry("Andorra").facts());
+    }
+
+    @Test
+    void testMaskingALazyFactReadsOnlyThatFact() throws IOException {
+        World lazy = new World();
+        lazy.indexCountriesFromDirectory(factsDirectory);
+        Files.writeString(factsDirectory.resolve("a.txt"), "Andorra:Andorra la Vella\nHas no airport.\n");
+
+        CountryCatalog catalog = lazy.getCatalog();
+        int bhutan = catalog.indexOf("Bhutan");
+        String fact = catalog.factAt(bhutan, 0);
+
+        assertEquals(fact, catalog.factGiveaways().mask(bhutan, fact),
+                "Building the giveaway finder should not read the facts of other files.");
+    }
+
+    @Test
+    void testReadsAttributesBeforeFactsInEveryLoader() throws IOException {
+        Files.writeString(factsDirectory.resolve("c.txt"), """
+                Cuba:Havana
+                @Region = Americas
+                  @island
+                @=nothing
+                Famous for its classic cars.
+                @not=an attribute once facts have started
+                """);
+
+        World eager = new World();
+        eager.loadCountriesFromDirectory(factsDirectory);
+        World snapshot = new World();
+        snapshot.loadCountriesFromDirectory(factsDirectory);
+        World lazy = new World();
+        lazy.indexCountriesFromDirectory(factsDirectory);
+
+        for (World world : List.of(eager, snapshot, lazy)) {
+            Country cuba = world.getCountry("Cuba");
+            assertEquals(Map.of("region", "Americas", "island", "true"), cuba.attributes());
+            assertArrayEquals(new String[] {"Famous for its classic cars.", "@not=an attribute once facts have started"},
+                    cuba.facts());
+            assertEquals(Map.of(), world.getCountry("Albania").attributes());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(factsDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}